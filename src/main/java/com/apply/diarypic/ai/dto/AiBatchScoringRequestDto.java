@@ -0,0 +1,36 @@
+package com.apply.diarypic.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * 여러 사용자의 채점 요청을 하나로 묶은 /score/batch 요청. 요청마다 reference_images 가 다르므로 항목별로 보낸다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiBatchScoringRequestDto {
+    @JsonProperty("requests")
+    private List<Entry> requests;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        @JsonProperty("request_id")
+        private String requestId;
+
+        @JsonProperty("images")
+        private List<AiPhotoInputDto> images;
+
+        @JsonProperty("reference_images")
+        private List<AiPhotoInputDto> referenceImages;
+    }
+}
@@ -0,0 +1,37 @@
+package com.apply.diarypic.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiBatchScoringResponseDto {
+    @JsonProperty("results")
+    private List<Result> results;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        @JsonProperty("request_id")
+        private String requestId;
+
+        @JsonProperty("recommendedPhotoIds")
+        private List<Object> recommendedPhotoIds;
+
+        @JsonProperty("scores")
+        private List<AiImageScoringResponseDto.PhotoScore> scores;
+
+        public AiImageScoringResponseDto toResponse() {
+            return new AiImageScoringResponseDto(recommendedPhotoIds, scores);
+        }
+    }
+}
@@ -15,4 +15,17 @@ import java.util.List;
 public class AiImageScoringResponseDto {
     @JsonProperty("recommendedPhotoIds")
     private List<Object> recommendedPhotoIds;
+
+    @JsonProperty("scores")
+    private List<PhotoScore> scores; // 사진별 점수 / 특징 벡터 (보내지 않는 AI 서버도 있음)
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PhotoScore {
+        private String id;
+        private Double score;
+        private List<Float> features;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,236 @@
+package com.apply.diarypic.ai.service;
+
+import com.apply.diarypic.ai.dto.AiBatchScoringRequestDto;
+import com.apply.diarypic.ai.dto.AiBatchScoringResponseDto;
+import com.apply.diarypic.ai.dto.AiImageScoringRequestDto;
+import com.apply.diarypic.ai.dto.AiImageScoringResponseDto;
+import com.apply.diarypic.ai.service.AiWorkScheduler.Priority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 여러 사용자의 사진 채점 요청을 잠깐(max-wait) 또는 사진 max-images 장까지 모아 /score/batch 한 번으로 보내고,
+ * 응답을 request_id 로 나눠 각 호출자의 Mono 로 돌려준다. 비활성화되어 있으면 기존 /score 를 바로 호출한다.
+ * 모인 요청이 하나뿐이면 /score 로 보낸다.
+ */
+@Slf4j
+@Component
+public class AiScoringBatcher {
+
+    private final AiServerService aiServerService;
+    private final boolean enabled;
+    private final int maxImages;
+    private final Duration maxWait;
+
+    private final Scheduler timer = Schedulers.newSingle("ai-score-batcher", true);
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Object lock = new Object();
+    private List<Pending> pending = new ArrayList<>();
+    private int pendingImages;
+    private Disposable flushTimer;
+
+    private final Counter flushedBySize;
+    private final Counter flushedByTime;
+    private final DistributionSummary batchImages;
+    private final DistributionSummary batchRequests;
+    private final Timer queueWait;
+
+    private record Pending(String requestId, AiImageScoringRequestDto request, ContextView context,
+                           MonoSink<AiImageScoringResponseDto> sink, long enqueuedAt, Disposable.Swap call) {
+
+        int imageCount() {
+            return request.getImages() != null ? request.getImages().size() : 0;
+        }
+    }
+
+    public AiScoringBatcher(AiServerService aiServerService,
+                            MeterRegistry meterRegistry,
+                            @Value("${ai.scoring.batch.enabled:false}") boolean enabled,
+                            @Value("${ai.scoring.batch.max-images:64}") int maxImages,
+                            @Value("${ai.scoring.batch.max-wait:20ms}") Duration maxWait) {
+        this.aiServerService = aiServerService;
+        this.enabled = enabled;
+        this.maxImages = maxImages;
+        this.maxWait = maxWait;
+
+        this.flushedBySize = flushCounter(meterRegistry, "size");
+        this.flushedByTime = flushCounter(meterRegistry, "time");
+        this.batchImages = DistributionSummary.builder("diarypic.ai.scoring.batch.images")
+                .description("배치 하나에 담긴 사진 수")
+                .register(meterRegistry);
+        this.batchRequests = DistributionSummary.builder("diarypic.ai.scoring.batch.requests")
+                .description("배치 하나에 담긴 사용자 요청 수")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("diarypic.ai.scoring.batch.wait")
+                .description("요청이 배치에 모여 전송되기까지 기다린 시간")
+                .register(meterRegistry);
+    }
+
+    private static Counter flushCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("diarypic.ai.scoring.batches")
+                .description("AI 서버로 보낸 채점 배치 수 (전송 사유별)")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.dispose();
+    }
+
+    public Mono<AiImageScoringResponseDto> score(AiImageScoringRequestDto request) {
+        if (!enabled) {
+            return aiServerService.requestPhotoRecommendation(request);
+        }
+        return Mono.deferContextual(context -> Mono.<AiImageScoringResponseDto>create(sink -> {
+            Pending entry = new Pending(String.valueOf(sequence.incrementAndGet()), request, context, sink,
+                    System.nanoTime(), Disposables.swap());
+            sink.onCancel(() -> cancel(entry));
+            enqueue(entry);
+        }));
+    }
+
+    /**
+     * 호출자가 구독을 끊으면 아직 모이는 중인 요청은 배치에서 빼고, 단건으로 나간 호출은 끊는다.
+     * 이미 여러 요청과 함께 전송된 배치는 되돌릴 수 없으므로 그 결과만 버린다.
+     */
+    private void cancel(Pending request) {
+        synchronized (lock) {
+            if (pending.remove(request)) {
+                pendingImages -= request.imageCount();
+                if (pending.isEmpty() && flushTimer != null) {
+                    flushTimer.dispose();
+                    flushTimer = null;
+                }
+            }
+        }
+        request.call().dispose();
+    }
+
+    private void enqueue(Pending request) {
+        List<List<Pending>> ready = new ArrayList<>(2);
+        synchronized (lock) {
+            // 이번 요청을 더하면 상한을 넘는 경우 지금까지 모인 것을 먼저 보낸다.
+            if (!pending.isEmpty() && pendingImages + request.imageCount() > maxImages) {
+                ready.add(drainLocked());
+            }
+            pending.add(request);
+            pendingImages += request.imageCount();
+            if (pendingImages >= maxImages) {
+                ready.add(drainLocked());
+            } else if (flushTimer == null) {
+                flushTimer = timer.schedule(this::flushOnTimeout, maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        ready.forEach(batch -> dispatch(batch, flushedBySize));
+    }
+
+    private void flushOnTimeout() {
+        List<Pending> batch;
+        synchronized (lock) {
+            flushTimer = null;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = drainLocked();
+        }
+        dispatch(batch, flushedByTime);
+    }
+
+    private List<Pending> drainLocked() {
+        if (flushTimer != null) {
+            flushTimer.dispose();
+            flushTimer = null;
+        }
+        List<Pending> batch = pending;
+        pending = new ArrayList<>();
+        pendingImages = 0;
+        return batch;
+    }
+
+    private void dispatch(List<Pending> batch, Counter reason) {
+        long now = System.nanoTime();
+        int images = 0;
+        for (Pending request : batch) {
+            queueWait.record(now - request.enqueuedAt(), TimeUnit.NANOSECONDS);
+            images += request.imageCount();
+        }
+        reason.increment();
+        batchImages.record(images);
+        batchRequests.record(batch.size());
+
+        if (batch.size() == 1) {
+            Pending only = batch.get(0);
+            only.call().update(aiServerService.requestPhotoRecommendation(only.request())
+                    .contextWrite(only.context())
+                    .subscribe(only.sink()::success, only.sink()::error, only.sink()::success));
+            return;
+        }
+
+        List<AiBatchScoringRequestDto.Entry> entries = batch.stream()
+                .map(request -> new AiBatchScoringRequestDto.Entry(request.requestId(),
+                        request.request().getImages(), request.request().getReferenceImages()))
+                .collect(Collectors.toList());
+        log.debug("AI 채점 배치 전송: 요청 {}개, 사진 {}장", batch.size(), images);
+
+        // 여러 사용자가 섞인 배치는 담긴 요청 중 가장 높은 우선순위로 줄을 선다.
+        Priority priority = batch.stream()
+                .map(request -> AiWorkScheduler.priorityOf(request.context()))
+                .min(Comparator.naturalOrder())
+                .orElse(Priority.BACKGROUND);
+        aiServerService.requestBatchScoring(new AiBatchScoringRequestDto(entries))
+                .defaultIfEmpty(new AiBatchScoringResponseDto(Collections.emptyList()))
+                .contextWrite(AiWorkScheduler.context(priority, null))
+                .subscribe(response -> demultiplex(batch, response), error -> {
+                    // 단건 /score 와 같게 빈 응답을 돌려주면 호출자는 필수 사진만으로 추천을 마친다.
+                    log.error("AI 채점 배치 실패. 요청 {}개에 빈 응답 반환. 오류: {}", batch.size(), error.getMessage());
+                    batch.forEach(request -> request.sink().success(emptyResponse()));
+                });
+    }
+
+    private void demultiplex(List<Pending> batch, AiBatchScoringResponseDto response) {
+        Map<String, AiBatchScoringResponseDto.Result> results = response.getResults() == null
+                ? Map.of()
+                : response.getResults().stream()
+                        .filter(result -> result.getRequestId() != null)
+                        .collect(Collectors.toMap(AiBatchScoringResponseDto.Result::getRequestId, Function.identity(), (a, b) -> a));
+        for (Pending request : batch) {
+            AiBatchScoringResponseDto.Result result = results.get(request.requestId());
+            if (result == null) {
+                log.warn("AI 채점 배치 응답에 요청 {} 의 결과가 없습니다. 빈 응답 반환.", request.requestId());
+                request.sink().success(emptyResponse());
+            } else {
+                request.sink().success(result.toResponse());
+            }
+        }
+    }
+
+    private static AiImageScoringResponseDto emptyResponse() {
+        return new AiImageScoringResponseDto(Collections.emptyList(), null);
+    }
+}
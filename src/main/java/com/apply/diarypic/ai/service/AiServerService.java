@@ -1,13 +1,26 @@
 package com.apply.diarypic.ai.service;
 
 import com.apply.diarypic.ai.dto.*;
+import com.apply.diarypic.global.resilience.AdaptiveConcurrencyLimiter;
+import com.apply.diarypic.global.resilience.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class AiServerService {
@@ -15,9 +28,33 @@ public class AiServerService {
     private final WebClient webClient;
     private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(AiServerService.class);
 
+    private final AiWorkScheduler aiWorkScheduler;
+    private final CircuitBreaker circuitBreaker;
+    private final AdaptiveConcurrencyLimiter scoreLimiter;
+    private final AdaptiveConcurrencyLimiter diaryLimiter;
+    private final Duration scoreTimeout;
+    private final Duration diaryTimeout;
+    private final Duration streamIdleTimeout;
+    private final Duration defaultRetryAfter;
 
-    public AiServerService(WebClient.Builder webClientBuilder, @Value("${ai-server.base-url}") String aiServerBaseUrl) {
+    public AiServerService(WebClient.Builder webClientBuilder, @Value("${ai-server.base-url}") String aiServerBaseUrl,
+                           AiWorkScheduler aiWorkScheduler,
+                           @Qualifier("aiServerCircuitBreaker") CircuitBreaker circuitBreaker,
+                           @Qualifier("aiScoreConcurrencyLimiter") AdaptiveConcurrencyLimiter scoreLimiter,
+                           @Qualifier("aiDiaryConcurrencyLimiter") AdaptiveConcurrencyLimiter diaryLimiter,
+                           @Value("${ai-server.timeout.score:10s}") Duration scoreTimeout,
+                           @Value("${ai-server.timeout.diary:60s}") Duration diaryTimeout,
+                           @Value("${ai-server.timeout.stream-idle:30s}") Duration streamIdleTimeout,
+                           @Value("${ai-server.retry-after:5s}") Duration defaultRetryAfter) {
         this.webClient = webClientBuilder.baseUrl(aiServerBaseUrl).build();
+        this.aiWorkScheduler = aiWorkScheduler;
+        this.circuitBreaker = circuitBreaker;
+        this.scoreLimiter = scoreLimiter;
+        this.diaryLimiter = diaryLimiter;
+        this.scoreTimeout = scoreTimeout;
+        this.diaryTimeout = diaryTimeout;
+        this.streamIdleTimeout = streamIdleTimeout;
+        this.defaultRetryAfter = defaultRetryAfter;
     }
 
     public Mono<AiImageScoringResponseDto> requestPhotoRecommendation(AiImageScoringRequestDto request) {
@@ -25,56 +62,221 @@ public class AiServerService {
                 request.getImages() != null ? request.getImages().size() : 0,
                 request.getReferenceImages() != null ? request.getReferenceImages().size() : 0);
 
-        return this.webClient.post()
+        return guarded("/score", scoreLimiter, scoreTimeout, this.webClient.post()
                 .uri("/score")
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(request)
                 .retrieve()
-                .bodyToMono(AiImageScoringResponseDto.class)
+                .bodyToMono(AiImageScoringResponseDto.class))
                 .doOnSuccess(response -> log.info("Successfully received photo scoring response from AI server. Recommended count: {}",
                         response != null && response.getRecommendedPhotoIds() != null ? response.getRecommendedPhotoIds().size() : "null response"))
                 .doOnError(error -> log.error("Error during AI photo recommendation request: {}", error.getMessage(), error))
                 .onErrorResume(error -> {
                     log.error("Failed to get photo recommendation from AI server. Returning empty response. Error: {}", error.getMessage());
-                    return Mono.just(new AiImageScoringResponseDto(Collections.emptyList()));
+                    return Mono.just(new AiImageScoringResponseDto(Collections.emptyList(), null));
                 });
     }
 
+    /**
+     * 여러 요청을 묶은 채점. 오류는 호출자(AiScoringBatcher)가 요청별로 나눠 처리하도록 그대로 전달한다.
+     */
+    public Mono<AiBatchScoringResponseDto> requestBatchScoring(AiBatchScoringRequestDto request) {
+        log.info("Sending batched photo scoring request to AI server. Request count: {}", request.getRequests().size());
+        return guarded("/score/batch", scoreLimiter, scoreTimeout, this.webClient.post()
+                .uri("/score/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(AiBatchScoringResponseDto.class))
+                .doOnError(error -> log.error("Error during batched AI photo scoring request: {}", error.getMessage(), error));
+    }
+
     public Mono<AiDiaryResponseDto> requestDiaryGeneration(AiDiaryGenerateRequestDto diaryRequest) {
         log.info("Sending diary generation request to AI server.");
-        return this.webClient.post()
+        return guarded("/generate", diaryLimiter, diaryTimeout, this.webClient.post()
                 .uri("/generate")
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(diaryRequest)
                 .retrieve()
-                .bodyToMono(AiDiaryResponseDto.class)
+                .bodyToMono(AiDiaryResponseDto.class))
                 .doOnSuccess(response -> log.info("Successfully received diary generation response from AI server."))
                 .doOnError(error -> {
                     log.error("Error during AI diary generation request: {}", error.getMessage(), error);
                 })
-                .onErrorResume(error -> {
-                    log.error("Failed to generate diary from AI server. Error: {}", error.getMessage());
-                    return Mono.just(new AiDiaryResponseDto("AI 서버 오류로 일기를 생성할 수 없습니다.", "error"));
-                });
+                .onErrorMap(error -> unavailable("AI 서버 오류로 일기를 생성할 수 없습니다.", error));
+    }
+
+    /**
+     * AI 서버의 SSE 응답을 그대로 흘려보낸다. 이벤트 이름이 없거나 "token" 이면 본문 조각,
+     * "result" 이면 최종 결과(AiDiaryResponseDto JSON)다. 오류는 호출자가 처리하도록 그대로 전달한다.
+     * 이벤트 사이 간격이 stream-idle 타임아웃을 넘으면 끊는다.
+     */
+    public Flux<ServerSentEvent<String>> streamDiaryGeneration(AiDiaryGenerateRequestDto diaryRequest) {
+        log.info("Sending streaming diary generation request to AI server.");
+        return guardedStream("/generate/stream", diaryLimiter, this.webClient.post()
+                .uri("/generate/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(diaryRequest)
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {}))
+                .doOnComplete(() -> log.info("Diary generation stream from AI server completed."))
+                .doOnError(error -> log.error("Error during streaming AI diary generation: {}", error.getMessage(), error));
     }
 
     // 새로운 메소드 추가
     public Mono<AiDiaryResponseDto> requestDiaryModification(AiDiaryModifyRequestDto modifyRequest) {
         log.info("Sending diary modification request to AI server.");
-        return this.webClient.post()
+        return guarded("/modify", diaryLimiter, diaryTimeout, this.webClient.post()
                 .uri("/modify")
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(modifyRequest)
                 .retrieve()
-                .bodyToMono(AiDiaryResponseDto.class)
+                .bodyToMono(AiDiaryResponseDto.class))
                 .doOnSuccess(response -> log.info("Successfully received diary modification response from AI server."))
                 .doOnError(error -> {
                     log.error("Error during AI diary modification request: {}", error.getMessage(), error);
                 })
-                .onErrorResume(error -> {
-                    log.error("Failed to modify diary from AI server. Error: {}", error.getMessage());
+                .onErrorMap(error -> unavailable("AI 서버 오류로 일기를 수정할 수 없습니다.", error));
+    }
 
-                    return Mono.just(new AiDiaryResponseDto("AI 서버 오류로 일기를 수정할 수 없습니다.", "error"));
-                });
+    /**
+     * 일기 생성/수정 실패는 대체 문구로 감추지 않고 AiServerUnavailableException 으로 올려 보낸다.
+     * 호출자가 저장하지 않도록 하기 위함이며, 응답은 GlobalExceptionHandler 가 503 / 429 + Retry-After 로 만든다.
+     */
+    private AiServerUnavailableException unavailable(String message, Throwable error) {
+        if (error instanceof AiServerUnavailableException e) {
+            return e;
+        }
+        boolean throttled = error instanceof WebClientResponseException e
+                && e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+        return new AiServerUnavailableException(message, retryAfter(error), throttled, error);
+    }
+
+    private Duration retryAfter(Throwable error) {
+        if (error instanceof WebClientResponseException e) {
+            String header = e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+            if (header != null) {
+                try {
+                    return Duration.ofSeconds(Long.parseLong(header.trim()));
+                } catch (NumberFormatException ignored) {
+                    // HTTP-date 형식은 기본값을 쓴다.
+                }
+            }
+        }
+        Duration remainingOpen = circuitBreaker.getRemainingOpen();
+        return remainingOpen.isZero() ? defaultRetryAfter : remainingOpen;
+    }
+
+    /**
+     * 동시성 상한 → 스케줄러 대기열 → 서킷 순서로 자리를 잡고, 타임아웃을 건 뒤 결과를 기록한다.
+     * 상한에 걸린 호출은 스케줄러 자리를 잡지 않은 채 기다리므로 다른 종류의 호출을 막지 않는다.
+     * 두 대기열에서 기다린 시간은 합쳐서 scheduler.max-wait 까지이고, 넘기거나 서킷이 열려 있으면
+     * AI 서버를 부르지 않고 AiServerUnavailableException 으로 끝난다.
+     */
+    private <T> Mono<T> guarded(String call, AdaptiveConcurrencyLimiter limiter, Duration timeout, Mono<T> request) {
+        return Mono.defer(() -> {
+            long queuedAt = System.nanoTime();
+            return acquire(call, limiter).flatMap(permit -> aiWorkScheduler.schedule(Mono.defer(() -> {
+                        if (!permit.start(call)) {
+                            return Mono.<T>error(rejected(call));
+                        }
+                        return request.timeout(timeout)
+                                .doOnSuccess(response -> permit.success(System.nanoTime() - permit.startedAt))
+                                .doOnError(permit::failure);
+                    }), aiWorkScheduler.remainingWait(queuedAt))
+                    // 스케줄러에서 거절되거나 취소되면 상한 자리만 돌려준다. 이미 결과를 기록했다면 무시된다.
+                    .doOnError(error -> permit.ignore())
+                    .doOnCancel(permit::ignore));
+        });
+    }
+
+    /**
+     * 스트림은 첫 이벤트까지의 시간을 응답 시간으로 쓰고, 이벤트 사이 간격에 타임아웃을 건다.
+     */
+    private <T> Flux<T> guardedStream(String call, AdaptiveConcurrencyLimiter limiter, Flux<T> request) {
+        return Flux.defer(() -> {
+            long queuedAt = System.nanoTime();
+            return acquire(call, limiter).flatMapMany(permit -> aiWorkScheduler.scheduleMany(Flux.defer(() -> {
+                        if (!permit.start(call)) {
+                            return Flux.<T>error(rejected(call));
+                        }
+                        AtomicLong firstEventNanos = new AtomicLong();
+                        return request.timeout(streamIdleTimeout)
+                                .doOnNext(event -> firstEventNanos.compareAndSet(0, System.nanoTime() - permit.startedAt))
+                                .doOnComplete(() -> permit.success(firstEventNanos.get() > 0
+                                        ? firstEventNanos.get() : System.nanoTime() - permit.startedAt))
+                                .doOnError(permit::failure);
+                    }), aiWorkScheduler.remainingWait(queuedAt))
+                    .doOnError(error -> permit.ignore())
+                    .doOnCancel(permit::ignore));
+        });
+    }
+
+    private Mono<Permit> acquire(String call, AdaptiveConcurrencyLimiter limiter) {
+        return limiter.acquire()
+                .onErrorMap(TimeoutException.class, e -> new AiServerUnavailableException(
+                        "AI 서버 호출 대기 시간을 초과했습니다: " + call, retryAfter(null), false, e))
+                .map(grantedAt -> new Permit(limiter));
+    }
+
+    private AiServerUnavailableException rejected(String call) {
+        return new AiServerUnavailableException("AI 서버 호출 거부: " + call, retryAfter(null), false, null);
+    }
+
+    /**
+     * 동시성 상한 자리 하나. 스케줄러 자리를 받은 뒤 start 에서 서킷을 확인한다.
+     * 성공/실패/취소 중 처음 온 신호 하나만 기록하고, 서킷은 start 를 통과한 경우에만 기록한다.
+     */
+    private final class Permit {
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile boolean circuitAcquired;
+        private volatile long startedAt;
+
+        private Permit(AdaptiveConcurrencyLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        boolean start(String call) {
+            if (!circuitBreaker.tryAcquire()) {
+                log.warn("AI server circuit is {}. Rejecting {} immediately.", circuitBreaker.getState(), call);
+                return false;
+            }
+            circuitAcquired = true;
+            startedAt = System.nanoTime();
+            return true;
+        }
+
+        void success(long rttNanos) {
+            if (released.compareAndSet(false, true)) {
+                limiter.onSuccess(rttNanos);
+                circuitBreaker.onSuccess();
+            }
+        }
+
+        void failure(Throwable error) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            // 429 를 뺀 4xx 는 요청 문제이므로 서버 상태로 치지 않는다.
+            if (error instanceof WebClientResponseException e && e.getStatusCode().is4xxClientError()
+                    && e.getStatusCode().value() != HttpStatus.TOO_MANY_REQUESTS.value()) {
+                limiter.onIgnored();
+                circuitBreaker.onIgnored();
+                return;
+            }
+            limiter.onDropped();
+            circuitBreaker.onFailure();
+        }
+
+        void ignore() {
+            if (released.compareAndSet(false, true)) {
+                limiter.onIgnored();
+                if (circuitAcquired) {
+                    circuitBreaker.onIgnored();
+                }
+            }
+        }
     }
-}
\ No newline at end of file
+}
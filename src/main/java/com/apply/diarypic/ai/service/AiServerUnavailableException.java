@@ -0,0 +1,34 @@
+package com.apply.diarypic.ai.service;
+
+import java.time.Duration;
+
+/**
+ * AI 서버를 쓸 수 없어 호출이 실패한 경우 (서킷 open, 동시 호출 상한 초과, 타임아웃, 5xx 등).
+ * throttled 는 AI 서버가 429 로 거절했다는 뜻이다. retryAfter 는 다시 시도해 볼 만한 시점까지의 시간.
+ */
+public class AiServerUnavailableException extends RuntimeException {
+
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(5);
+
+    private final Duration retryAfter;
+    private final boolean throttled;
+
+    public AiServerUnavailableException(String message) {
+        this(message, DEFAULT_RETRY_AFTER, false, null);
+    }
+
+    public AiServerUnavailableException(String message, Duration retryAfter, boolean throttled, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter != null && retryAfter.compareTo(Duration.ofSeconds(1)) >= 0
+                ? retryAfter : Duration.ofSeconds(1);
+        this.throttled = throttled;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public boolean isThrottled() {
+        return throttled;
+    }
+}
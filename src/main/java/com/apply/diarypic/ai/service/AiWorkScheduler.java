@@ -0,0 +1,284 @@
+package com.apply.diarypic.ai.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AI 서버 호출 순서를 정한다. 동시에 실행되는 호출은 max-concurrency 개까지이고, 나머지는 대기열에서
+ * 가중 공정 큐(self-clocked fair queuing)로 순서를 받는다. 흐름은 (우선순위, 사용자) 단위이며 가중치는 우선순위별로 준다.
+ * 같은 우선순위 안에서는 사용자끼리 번갈아 실행되므로 한 사용자가 요청을 몰아 보내도 다른 사용자를 굶기지 않는다.
+ *
+ * 호출자는 Reactor Context 로 우선순위와 사용자를 넘긴다 ({@link #context}). 없으면 사용자 구분 없는 BACKGROUND 로 본다.
+ *
+ * 호출은 호출 종류별 동시성 상한(AdaptiveConcurrencyLimiter)의 자리를 먼저 받은 뒤에 여기서 줄을 선다.
+ * 상한에 걸려 기다리는 호출은 이 스케줄러의 자리를 잡지 않으므로, 한 종류가 밀려도 다른 종류의 호출은 계속 실행된다.
+ */
+@Slf4j
+@Component
+public class AiWorkScheduler {
+
+    public enum Priority { INTERACTIVE, SCORING, BACKGROUND }
+
+    private static final String PRIORITY_KEY = AiWorkScheduler.class.getName() + ".priority";
+    private static final String USER_KEY = AiWorkScheduler.class.getName() + ".user";
+
+    private final int maxConcurrency;
+    private final int maxQueued;
+    private final Duration maxWait;
+    private final Map<Priority, Double> weights = new EnumMap<>(Priority.class);
+
+    // 아래 필드는 this 로 동기화
+    private final PriorityQueue<Ticket> queue = new PriorityQueue<>();
+    private final Map<FlowKey, Double> lastFinishTags = new HashMap<>();
+    private double virtualTime;
+    private long sequence;
+    private int running;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Map<Priority, Timer> waitTimers = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> completed = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+
+    private record FlowKey(Priority priority, Long userId) {
+    }
+
+    /**
+     * 대기 중인 호출 하나. finishTag 가 작은 것부터 실행한다.
+     */
+    private final class Ticket implements Comparable<Ticket> {
+        private final Priority priority;
+        private final double finishTag;
+        private final long seq;
+        private final long enqueuedAt = System.nanoTime();
+        private final MonoSink<Slot> sink;
+        private final AtomicBoolean settled = new AtomicBoolean();
+        private Disposable expiry;
+
+        private Ticket(Priority priority, double finishTag, long seq, MonoSink<Slot> sink) {
+            this.priority = priority;
+            this.finishTag = finishTag;
+            this.seq = seq;
+            this.sink = sink;
+        }
+
+        @Override
+        public int compareTo(Ticket other) {
+            int byTag = Double.compare(finishTag, other.finishTag);
+            return byTag != 0 ? byTag : Long.compare(seq, other.seq);
+        }
+    }
+
+    /**
+     * 실행 자리. 호출이 끝나면(성공, 실패, 취소) 한 번 돌려준다.
+     */
+    private final class Slot {
+        private final Priority priority;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Slot(Priority priority) {
+            this.priority = priority;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                completed.get(priority).increment();
+                onSlotReleased();
+            }
+        }
+    }
+
+    public AiWorkScheduler(MeterRegistry meterRegistry,
+                           @Value("${ai-server.scheduler.max-concurrency:8}") int maxConcurrency,
+                           @Value("${ai-server.scheduler.max-queued:200}") int maxQueued,
+                           @Value("${ai-server.scheduler.max-wait:10s}") Duration maxWait,
+                           @Value("${ai-server.scheduler.weight.interactive:8}") double interactiveWeight,
+                           @Value("${ai-server.scheduler.weight.scoring:4}") double scoringWeight,
+                           @Value("${ai-server.scheduler.weight.background:1}") double backgroundWeight) {
+        this.maxConcurrency = Math.max(maxConcurrency, 1);
+        this.maxQueued = maxQueued;
+        this.maxWait = maxWait;
+        weights.put(Priority.INTERACTIVE, interactiveWeight);
+        weights.put(Priority.SCORING, scoringWeight);
+        weights.put(Priority.BACKGROUND, backgroundWeight);
+
+        Gauge.builder("diarypic.ai.scheduler.queued", queued, AtomicInteger::get)
+                .description("AI 서버 호출 대기열 길이")
+                .register(meterRegistry);
+        Gauge.builder("diarypic.ai.scheduler.running", this, AiWorkScheduler::getRunning)
+                .description("실행 중인 AI 서버 호출 수")
+                .register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            String tag = priority.name().toLowerCase();
+            waitTimers.put(priority, Timer.builder("diarypic.ai.scheduler.wait")
+                    .description("AI 서버 호출이 실행되기까지 대기열에서 기다린 시간")
+                    .tag("priority", tag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            completed.put(priority, Counter.builder("diarypic.ai.scheduler.completed")
+                    .description("끝난 AI 서버 호출 수 (우선순위별 처리량)")
+                    .tag("priority", tag)
+                    .register(meterRegistry));
+            rejected.put(priority, Counter.builder("diarypic.ai.scheduler.rejected")
+                    .description("대기열이 가득 차거나 대기 시간을 넘겨 실행하지 못한 호출 수")
+                    .tag("priority", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * 호출 체인에 붙일 Context. 예: {@code mono.contextWrite(AiWorkScheduler.context(Priority.INTERACTIVE, userId))}
+     */
+    public static Context context(Priority priority, Long userId) {
+        return userId != null
+                ? Context.of(PRIORITY_KEY, priority, USER_KEY, userId)
+                : Context.of(PRIORITY_KEY, priority);
+    }
+
+    public static Priority priorityOf(ContextView context) {
+        return context.getOrDefault(PRIORITY_KEY, Priority.BACKGROUND);
+    }
+
+    /**
+     * 자리를 받은 뒤 work 를 구독하고, work 가 끝나면 자리를 돌려준다.
+     * 대기열이 가득 찼거나 max-wait 안에 자리를 받지 못하면 AiServerUnavailableException 으로 끝난다.
+     */
+    <T> Mono<T> schedule(Mono<T> work) {
+        return schedule(work, maxWait);
+    }
+
+    /**
+     * max-wait 대신 wait 안에 자리를 받지 못하면 실패한다 (max-wait 보다 길게는 기다리지 않는다).
+     * 앞단에서 이미 기다린 호출이 남은 시간만 쓰도록 할 때 쓴다 ({@link #remainingWait}).
+     */
+    <T> Mono<T> schedule(Mono<T> work, Duration wait) {
+        return Mono.deferContextual(context -> Mono.usingWhen(acquire(context, wait), slot -> work,
+                slot -> Mono.fromRunnable(slot::release)));
+    }
+
+    <T> Flux<T> scheduleMany(Flux<T> work, Duration wait) {
+        return Flux.deferContextual(context -> Flux.usingWhen(acquire(context, wait), slot -> work,
+                slot -> Mono.fromRunnable(slot::release)));
+    }
+
+    /**
+     * queuedAt(System.nanoTime) 부터 기다린 시간을 뺀 max-wait 의 나머지. 다 썼으면 0.
+     */
+    Duration remainingWait(long queuedAt) {
+        long remaining = maxWait.toNanos() - (System.nanoTime() - queuedAt);
+        return Duration.ofNanos(Math.max(remaining, 0));
+    }
+
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    private Mono<Slot> acquire(ContextView context, Duration wait) {
+        Priority priority = priorityOf(context);
+        Long userId = context.getOrDefault(USER_KEY, null);
+        Duration limit = wait.compareTo(maxWait) < 0 ? wait : maxWait;
+        return Mono.<Slot>create(sink -> enqueue(new FlowKey(priority, userId), sink, limit))
+                .doOnDiscard(Slot.class, Slot::release); // 자리를 받는 순간 취소된 경우
+    }
+
+    private void enqueue(FlowKey flow, MonoSink<Slot> sink, Duration wait) {
+        Ticket ticket;
+        synchronized (this) {
+            if (running < maxConcurrency && queue.isEmpty()) {
+                running++;
+                ticket = null;
+            } else if (queue.size() >= maxQueued) {
+                rejected.get(flow.priority()).increment();
+                sink.error(new AiServerUnavailableException("AI 서버 호출 대기열이 가득 찼습니다."));
+                return;
+            } else {
+                double start = Math.max(virtualTime, lastFinishTags.getOrDefault(flow, 0.0));
+                double finish = start + 1.0 / weights.get(flow.priority());
+                lastFinishTags.put(flow, finish);
+                ticket = new Ticket(flow.priority(), finish, sequence++, sink);
+                queue.add(ticket);
+                queued.set(queue.size());
+            }
+        }
+        if (ticket == null) {
+            waitTimers.get(flow.priority()).record(0, TimeUnit.NANOSECONDS);
+            sink.success(new Slot(flow.priority()));
+            return;
+        }
+        sink.onCancel(() -> withdraw(ticket));
+        ticket.expiry = Schedulers.parallel().schedule(() -> expire(ticket, wait), wait.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void expire(Ticket ticket, Duration wait) {
+        if (withdraw(ticket)) {
+            rejected.get(ticket.priority).increment();
+            log.warn("AI 서버 호출이 {} 동안 실행되지 못해 포기합니다 (우선순위 {}).", wait, ticket.priority);
+            ticket.sink.error(new AiServerUnavailableException("AI 서버 호출 대기 시간을 초과했습니다."));
+        }
+    }
+
+    /**
+     * 아직 자리를 받지 않은 티켓을 대기열에서 뺀다. 뺐으면 true.
+     */
+    private boolean withdraw(Ticket ticket) {
+        if (!ticket.settled.compareAndSet(false, true)) {
+            return false;
+        }
+        synchronized (this) {
+            queue.remove(ticket);
+            queued.set(queue.size());
+        }
+        if (ticket.expiry != null) {
+            ticket.expiry.dispose();
+        }
+        return true;
+    }
+
+    private void onSlotReleased() {
+        while (true) {
+            Ticket next;
+            synchronized (this) {
+                next = queue.poll();
+                queued.set(queue.size());
+                if (next == null) {
+                    running--;
+                    return;
+                }
+                virtualTime = next.finishTag;
+                if (lastFinishTags.size() > maxQueued) {
+                    // 대기 중인 티켓이 없는 흐름은 기록이 없는 것과 같다.
+                    lastFinishTags.values().removeIf(tag -> tag <= virtualTime);
+                }
+            }
+            if (next.settled.compareAndSet(false, true)) {
+                if (next.expiry != null) {
+                    next.expiry.dispose();
+                }
+                waitTimers.get(next.priority).record(System.nanoTime() - next.enqueuedAt, TimeUnit.NANOSECONDS);
+                next.sink.success(new Slot(next.priority)); // 자리를 그대로 넘긴다 (running 유지)
+                return;
+            }
+            // 취소되었거나 만료된 티켓이면 다음 티켓을 본다.
+        }
+    }
+}
@@ -20,7 +20,8 @@ import java.util.List;
 public class Album {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "album_seq")
+    @SequenceGenerator(name = "album_seq", sequenceName = "albums_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 200)
@@ -3,6 +3,7 @@ package com.apply.diarypic.album.entity;
 import com.apply.diarypic.diary.entity.Diary;
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 
@@ -14,7 +15,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @IdClass(DiaryAlbumId.class)
-public class DiaryAlbum {
+public class DiaryAlbum implements Persistable<DiaryAlbumId> {
 
     @Id
     @ManyToOne(fetch = FetchType.LAZY)
@@ -29,8 +30,31 @@ public class DiaryAlbum {
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // 복합키를 직접 지정하므로 save() 가 merge(SELECT) 대신 persist 로 동작하도록 새 엔티티 여부를 직접 관리한다.
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newEntity = true;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
     }
+
+    @PostPersist
+    @PostLoad
+    protected void markNotNew() {
+        this.newEntity = false;
+    }
+
+    @Override
+    public DiaryAlbumId getId() {
+        return new DiaryAlbumId(diary.getId(), album.getId());
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
 }
\ No newline at end of file
@@ -3,12 +3,24 @@ package com.apply.diarypic.album.repository;
 import com.apply.diarypic.album.entity.Album;
 import com.apply.diarypic.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface AlbumRepository extends JpaRepository<Album, Long> {
     Optional<Album> findByNameAndUser(String name, User user);
+    List<Album> findByUserAndNameIn(User user, Collection<String> names);
     List<Album> findByUserOrderByCreatedAtDesc(User user);
 
     void deleteAllByUser(User user);
+
+    // 원본 사진을 커버로 쓰던 앨범을 썸네일로 바꾼다 (썸네일이 앨범 생성 뒤에 만들어진 경우)
+    @Transactional
+    @Modifying
+    @Query("UPDATE Album a SET a.coverImageUrl = :thumbnailUrl WHERE a.coverImageUrl = :photoUrl")
+    int replaceCoverImageUrl(@Param("photoUrl") String photoUrl, @Param("thumbnailUrl") String thumbnailUrl);
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import com.apply.diarypic.album.repository.AlbumRepository;
 import com.apply.diarypic.album.repository.DiaryAlbumRepository;
 import com.apply.diarypic.diary.dto.DiaryResponse;
 import com.apply.diarypic.diary.entity.Diary;
+import com.apply.diarypic.diary.repository.DiaryRepository;
 import com.apply.diarypic.photo.entity.DiaryPhoto;
 import com.apply.diarypic.user.entity.User;
 import com.apply.diarypic.user.repository.UserRepository;
@@ -17,10 +18,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,6 +36,7 @@ public class AlbumService {
     private final AlbumRepository albumRepository;
     private final DiaryAlbumRepository diaryAlbumRepository;
     private final UserRepository userRepository;
+    private final DiaryRepository diaryRepository;
 
     public List<AlbumDto> getUserAlbums(Long userId) {
         User user = userRepository.findById(userId)
@@ -68,6 +73,15 @@ public class AlbumService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 사진 주소가 나중에 채워진 일기의 앨범 연결을 다시 계산한다.
+     */
+    @Transactional
+    public void refreshDiaryAlbums(Long diaryId) {
+        diaryRepository.findById(diaryId)
+                .ifPresent(diary -> processDiaryAlbums(diary, diary.getDiaryPhotos()));
+    }
+
     @Transactional
     public void processDiaryAlbums(Diary diary, List<DiaryPhoto> diaryPhotos) {
         if (diary.getDeletedAt() != null) {
@@ -107,30 +121,44 @@ public class AlbumService {
         }
 
         // 추가할 앨범 연결 (기존 X, 신규 O)
-        newAlbumNamesForThisDiary.forEach(name -> {
-            if (!existingAlbumNames.contains(name)) { // 기존에 연결되지 않은 앨범만 처리
-                Album album = albumRepository.findByNameAndUser(name, user)
-                        .orElseGet(() -> {
-                            log.info("새로운 앨범 생성: '{}' for user {}", name, user.getId());
-                            // 새 앨범의 커버 이미지는 이 일기의 첫번째 사진으로 설정
-                            String coverImageUrl = diaryPhotos.stream()
-                                    .map(DiaryPhoto::getPhotoUrl)
-                                    .filter(StringUtils::hasText)
-                                    .findFirst()
-                                    .orElse(null);
-                            Album newAlbum = Album.builder()
-                                    .name(name)
-                                    .user(user)
-                                    .coverImageUrl(coverImageUrl)
-                                    .build();
-                            return albumRepository.save(newAlbum);
-                        });
-
-                DiaryAlbum diaryAlbum = DiaryAlbum.builder().diary(diary).album(album).build();
-                diaryAlbumRepository.save(diaryAlbum);
-                log.info("일기 ID {}를 앨범 '{}'(ID:{})에 매핑 완료.", diary.getId(), album.getName(), album.getId());
+        Set<String> albumNamesToLink = newAlbumNamesForThisDiary.stream()
+                .filter(name -> !existingAlbumNames.contains(name))
+                .collect(Collectors.toSet());
+        if (albumNamesToLink.isEmpty()) {
+            return;
+        }
+
+        // 사용자의 기존 앨범은 한 번에 조회하고, 새 앨범과 연결은 모아서 배치 insert 한다.
+        Map<String, Album> albumsByName = albumRepository.findByUserAndNameIn(user, albumNamesToLink).stream()
+                .collect(Collectors.toMap(Album::getName, Function.identity()));
+        // 새 앨범의 커버 이미지는 이 일기의 첫번째 사진으로 설정. 썸네일이 아직 없으면 원본을 쓰고, 썸네일 생성 시 바뀐다.
+        String coverImageUrl = diaryPhotos.stream()
+                .map(photo -> photo.getThumbnailUrl() != null ? photo.getThumbnailUrl() : photo.getPhotoUrl())
+                .filter(StringUtils::hasText)
+                .findFirst()
+                .orElse(null);
+        List<Album> newAlbums = new ArrayList<>();
+        for (String name : albumNamesToLink) {
+            if (!albumsByName.containsKey(name)) {
+                log.info("새로운 앨범 생성: '{}' for user {}", name, user.getId());
+                Album newAlbum = Album.builder()
+                        .name(name)
+                        .user(user)
+                        .coverImageUrl(coverImageUrl)
+                        .build();
+                newAlbums.add(newAlbum);
+                albumsByName.put(name, newAlbum);
             }
-        });
+        }
+        albumRepository.saveAll(newAlbums);
+
+        List<DiaryAlbum> diaryAlbums = new ArrayList<>(albumNamesToLink.size());
+        for (String name : albumNamesToLink) {
+            Album album = albumsByName.get(name);
+            diaryAlbums.add(DiaryAlbum.builder().diary(diary).album(album).build());
+            log.info("일기 ID {}를 앨범 '{}'(ID:{})에 매핑 완료.", diary.getId(), album.getName(), album.getId());
+        }
+        diaryAlbumRepository.saveAll(diaryAlbums);
     }
 
     private String determineAlbumName(String countryName, String adminAreaLevel1, String locality) {
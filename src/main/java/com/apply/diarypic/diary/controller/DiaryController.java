@@ -1,6 +1,7 @@
 package com.apply.diarypic.diary.controller;
 
 import com.apply.diarypic.diary.dto.*;
+import com.apply.diarypic.diary.service.AiDiaryService;
 import com.apply.diarypic.diary.service.DiaryService;
 import com.apply.diarypic.global.security.CurrentUser;
 import com.apply.diarypic.global.security.UserPrincipal;
@@ -15,8 +16,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDate;
 
@@ -27,6 +32,7 @@ import java.time.LocalDate;
 public class DiaryController {
 
     private final DiaryService diaryService;
+    private final AiDiaryService aiDiaryService;
 
     @Operation(summary = "특정 일기 상세 조회 (활성 상태)")
     @GetMapping("/{diaryId}")
@@ -69,13 +75,36 @@ public class DiaryController {
     @PostMapping("/auto")
     public ResponseEntity<DiaryResponse> createAiDiary(@CurrentUser UserPrincipal userPrincipal,
                                                        @Valid @RequestBody AiDiaryCreateRequest aiDiaryCreateRequest) {
-        DiaryResponse response = diaryService.createDiaryWithAiAssistance(
+        DiaryResponse response = aiDiaryService.createDiary(
                 userPrincipal.getUserId(),
                 aiDiaryCreateRequest
         );
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "AI 자동 일기 생성 (SSE: token 이벤트로 본문 조각, done 이벤트로 저장된 일기, 실패 시 error 이벤트)")
+    @PostMapping(value = "/auto/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamAiDiary(@CurrentUser UserPrincipal userPrincipal,
+                                                      @Valid @RequestBody AiDiaryCreateRequest aiDiaryCreateRequest) {
+        return aiDiaryService.streamDiary(userPrincipal.getUserId(), aiDiaryCreateRequest);
+    }
+
+    @Operation(summary = "AI 자동 일기 생성 작업 등록 (결과는 작업 상태 조회로 확인)")
+    @PostMapping("/auto/jobs")
+    public ResponseEntity<AiDiaryJobResponse> submitAiDiaryJob(@CurrentUser UserPrincipal userPrincipal,
+                                                               @Valid @RequestBody AiDiaryCreateRequest aiDiaryCreateRequest) {
+        AiDiaryJobResponse response = aiDiaryService.submitCreateJob(userPrincipal.getUserId(), aiDiaryCreateRequest);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @Operation(summary = "AI 일기 작업 상태 조회")
+    @GetMapping("/ai-jobs/{jobId}")
+    public ResponseEntity<AiDiaryJobResponse> getAiDiaryJob(@CurrentUser UserPrincipal userPrincipal,
+                                                            @PathVariable Long jobId) {
+        AiDiaryJobResponse response = aiDiaryService.getJob(userPrincipal.getUserId(), jobId);
+        return ResponseEntity.ok(response);
+    }
+
     @Operation(summary = "일기 수동 수정 (내용, 이모티콘)")
     @PatchMapping("/{diaryId}") // 대표사진 변경과 구분하기 위해 HTTP Method는 동일하게, 경로는 기본으로 사용
     public ResponseEntity<DiaryResponse> updateDiaryManual(
@@ -92,10 +121,20 @@ public class DiaryController {
             @CurrentUser UserPrincipal userPrincipal,
             @PathVariable Long diaryId,
             @Valid @RequestBody DiaryAiUpdateRequest request) {
-        DiaryResponse response = diaryService.updateDiaryWithAiAssistance(userPrincipal.getUserId(), diaryId, request);
+        DiaryResponse response = aiDiaryService.modifyDiary(userPrincipal.getUserId(), diaryId, request);
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "AI를 이용한 일기 수정 작업 등록 (결과는 작업 상태 조회로 확인)")
+    @PostMapping("/{diaryId}/ai-modify/jobs")
+    public ResponseEntity<AiDiaryJobResponse> submitAiModifyJob(
+            @CurrentUser UserPrincipal userPrincipal,
+            @PathVariable Long diaryId,
+            @Valid @RequestBody DiaryAiUpdateRequest request) {
+        AiDiaryJobResponse response = aiDiaryService.submitModifyJob(userPrincipal.getUserId(), diaryId, request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
     @Operation(summary = "일기 내 사진 목록 전체 수정 (추가, 삭제, 순서 변경)")
     @PatchMapping("/{diaryId}/photos") // Photo 컬렉션에 대한 변경
     public ResponseEntity<DiaryResponse> updateDiaryPhotos(
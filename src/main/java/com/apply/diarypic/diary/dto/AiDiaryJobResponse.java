@@ -0,0 +1,45 @@
+package com.apply.diarypic.diary.dto;
+
+import com.apply.diarypic.diary.entity.AiDiaryJob;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AiDiaryJobResponse {
+
+    private Long jobId;
+    private String type;         // CREATE / MODIFY
+    private String status;       // PENDING / RUNNING / SUCCEEDED / FAILED
+    private Long diaryId;        // SUCCEEDED 이면 GET /api/diaries/{diaryId} 로 결과 조회
+    private String errorMessage;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime updatedAt;
+
+    public static AiDiaryJobResponse from(AiDiaryJob job) {
+        return AiDiaryJobResponse.builder()
+                .jobId(job.getId())
+                .type(job.getType().name())
+                .status(job.getStatus().name())
+                .diaryId(job.getDiaryId())
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .build();
+    }
+}
@@ -25,6 +25,8 @@ public class DiaryResponse {
     private LocalDate diaryDate;
 
     private String representativePhotoUrl;
+    private String thumbnailUrl; // 대표 사진의 256px 썸네일
+    private String mediumUrl;    // 대표 사진의 1024px 이미지
 
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime createdAt;
@@ -50,6 +52,16 @@ public class DiaryResponse {
         response.setUpdatedAt(diary.getUpdatedAt());
         response.setDeletedAt(diary.getDeletedAt());
 
+        if (diary.getDiaryPhotos() != null && diary.getRepresentativePhotoUrl() != null) {
+            diary.getDiaryPhotos().stream()
+                    .filter(p -> diary.getRepresentativePhotoUrl().equals(p.getPhotoUrl()))
+                    .findFirst()
+                    .ifPresent(representative -> {
+                        response.setThumbnailUrl(representative.getThumbnailUrl());
+                        response.setMediumUrl(representative.getMediumUrl());
+                    });
+        }
+
         if (diary.getDiaryPhotos() != null) {
             response.setPhotos(diary.getDiaryPhotos().stream()
                     .sorted(Comparator.comparingInt(p -> p.getSequence() != null ? p.getSequence() : Integer.MAX_VALUE))
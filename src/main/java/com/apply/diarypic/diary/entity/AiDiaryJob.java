@@ -0,0 +1,64 @@
+package com.apply.diarypic.diary.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * AI 일기 생성/수정 작업. 요청 원문을 저장해 두므로 서버가 재시작되어도 대기 중인 작업을 다시 실행할 수 있다.
+ * attempts 는 실행을 맡을 때마다 증가하며, 결과 반영 시 자신이 맡은 시도 번호와 일치할 때만 완료 처리된다.
+ */
+@Entity
+@Table(name = "ai_diary_jobs")
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class AiDiaryJob {
+
+    public enum Type { CREATE, MODIFY }
+
+    public enum Status { PENDING, RUNNING, SUCCEEDED, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ai_diary_job_seq")
+    @SequenceGenerator(name = "ai_diary_job_seq", sequenceName = "ai_diary_jobs_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    private Long diaryId; // MODIFY: 수정 대상, CREATE: 완료 후 생성된 일기
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String requestPayload; // 클라이언트 요청 JSON
+
+    @Column(length = 500)
+    private String errorMessage;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+}
@@ -19,7 +19,8 @@ import java.util.List;
 public class Diary {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "diary_seq")
+    @SequenceGenerator(name = "diary_seq", sequenceName = "diaries_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
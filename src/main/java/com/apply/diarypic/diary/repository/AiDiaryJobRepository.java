@@ -0,0 +1,55 @@
+package com.apply.diarypic.diary.repository;
+
+import com.apply.diarypic.diary.entity.AiDiaryJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface AiDiaryJobRepository extends JpaRepository<AiDiaryJob, Long> {
+
+    Optional<AiDiaryJob> findByIdAndUserId(Long id, Long userId);
+
+    // 실행기에 들어가지 못했거나, 실행 중 서버가 내려가 멈춘 작업
+    @Query("SELECT j.id FROM AiDiaryJob j WHERE (j.status = 'PENDING' AND j.updatedAt < :pendingBefore) " +
+            "OR (j.status = 'RUNNING' AND j.updatedAt < :runningBefore) ORDER BY j.id ASC")
+    List<Long> findStalledJobIds(@Param("pendingBefore") LocalDateTime pendingBefore,
+                                 @Param("runningBefore") LocalDateTime runningBefore);
+
+    /**
+     * 대기 중이거나 멈춘 작업을 실행 상태로 가져온다. 여러 실행기가 동시에 시도해도 하나만 성공한다.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE AiDiaryJob j SET j.status = 'RUNNING', j.attempts = j.attempts + 1, j.updatedAt = :now " +
+            "WHERE j.id = :id AND (j.status = 'PENDING' OR (j.status = 'RUNNING' AND j.updatedAt < :staleBefore))")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+
+    // 일기 저장과 같은 트랜잭션에서 호출되므로 앞선 insert 를 먼저 flush 하고, 영속성 컨텍스트는 비우지 않는다.
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AiDiaryJob j SET j.status = 'SUCCEEDED', j.diaryId = :diaryId, j.errorMessage = NULL, j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.status = 'RUNNING' AND j.attempts = :attempt")
+    int markSucceeded(@Param("id") Long id, @Param("attempt") int attempt,
+                      @Param("diaryId") Long diaryId, @Param("now") LocalDateTime now);
+
+    // 재시도할 수 있는 실패. 마지막 오류는 남겨 두고 PENDING 으로 되돌린다.
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE AiDiaryJob j SET j.status = 'PENDING', j.errorMessage = :errorMessage, j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.status = 'RUNNING' AND j.attempts = :attempt")
+    int requeue(@Param("id") Long id, @Param("attempt") int attempt,
+                @Param("errorMessage") String errorMessage, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE AiDiaryJob j SET j.status = 'FAILED', j.errorMessage = :errorMessage, j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.status = 'RUNNING' AND j.attempts = :attempt")
+    int markFailed(@Param("id") Long id, @Param("attempt") int attempt,
+                   @Param("errorMessage") String errorMessage, @Param("now") LocalDateTime now);
+}
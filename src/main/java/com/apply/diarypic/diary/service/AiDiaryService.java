@@ -0,0 +1,297 @@
+package com.apply.diarypic.diary.service;
+
+import com.apply.diarypic.ai.dto.AiDiaryGenerateRequestDto;
+import com.apply.diarypic.ai.dto.AiDiaryModifyRequestDto;
+import com.apply.diarypic.ai.dto.AiDiaryResponseDto;
+import com.apply.diarypic.ai.service.AiServerService;
+import com.apply.diarypic.ai.service.AiServerUnavailableException;
+import com.apply.diarypic.ai.service.AiWorkScheduler;
+import com.apply.diarypic.ai.service.AiWorkScheduler.Priority;
+import com.apply.diarypic.diary.dto.AiDiaryCreateRequest;
+import com.apply.diarypic.diary.dto.AiDiaryJobResponse;
+import com.apply.diarypic.diary.dto.DiaryAiUpdateRequest;
+import com.apply.diarypic.diary.dto.DiaryResponse;
+import com.apply.diarypic.diary.entity.AiDiaryJob;
+import com.apply.diarypic.diary.repository.AiDiaryJobRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * AI 일기 생성/수정. AI 서버 호출(10~30초)은 어떤 트랜잭션에도 걸치지 않는다.
+ * 준비(읽기) → AI 호출 → 저장(짧은 쓰기 트랜잭션) 세 단계로 나누고,
+ * 작업(job) API 는 이 과정을 별도 실행기에서 돌린 뒤 상태 조회로 결과를 알려준다.
+ */
+@Slf4j
+@Service
+public class AiDiaryService {
+
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 500;
+
+    private final DiaryService diaryService;
+    private final AiServerService aiServerService;
+    private final AiDiaryJobRepository aiDiaryJobRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor aiDiaryExecutor;
+
+    // 이 인스턴스의 실행기에 들어가 아직 시작하지 않은 작업. 복구 스케줄러가 다시 넣지 않도록 한다.
+    private final Set<Long> queuedJobIds = ConcurrentHashMap.newKeySet();
+
+    @Value("${ai.diary-job.pending-grace:30s}")
+    private Duration pendingGrace;
+
+    @Value("${ai.diary-job.stale-timeout:5m}")
+    private Duration staleTimeout;
+
+    @Value("${ai.diary-job.max-attempts:3}")
+    private int maxAttempts;
+
+    public AiDiaryService(DiaryService diaryService,
+                          AiServerService aiServerService,
+                          AiDiaryJobRepository aiDiaryJobRepository,
+                          ObjectMapper objectMapper,
+                          PlatformTransactionManager transactionManager,
+                          @Qualifier("aiDiaryExecutor") Executor aiDiaryExecutor) {
+        this.diaryService = diaryService;
+        this.aiServerService = aiServerService;
+        this.aiDiaryJobRepository = aiDiaryJobRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.aiDiaryExecutor = aiDiaryExecutor;
+    }
+
+    /**
+     * 요청 스레드에서 바로 생성한다. 기존 API 호환용이며 DB 커넥션은 AI 응답을 기다리는 동안 잡지 않는다.
+     */
+    public DiaryResponse createDiary(Long userId, AiDiaryCreateRequest request) {
+        AiDiaryGenerateRequestDto aiRequest = diaryService.prepareAiDiaryGeneration(userId, request);
+        AiDiaryResponseDto aiResponse = aiServerService.requestDiaryGeneration(aiRequest)
+                .contextWrite(AiWorkScheduler.context(Priority.INTERACTIVE, userId))
+                .block();
+        return diaryService.saveAiGeneratedDiary(userId, request, aiResponse);
+    }
+
+    public DiaryResponse modifyDiary(Long userId, Long diaryId, DiaryAiUpdateRequest request) {
+        AiDiaryModifyRequestDto aiRequest = diaryService.prepareAiDiaryModification(userId, diaryId, request);
+        AiDiaryResponseDto aiResponse = aiServerService.requestDiaryModification(aiRequest)
+                .contextWrite(AiWorkScheduler.context(Priority.INTERACTIVE, userId))
+                .block();
+        return diaryService.applyAiDiaryModification(userId, diaryId, aiResponse);
+    }
+
+    /**
+     * AI 서버가 만드는 본문 조각을 SSE "token" 이벤트로 바로 중계하고, 스트림이 끝나면 일기를 저장해
+     * "done" 이벤트로 저장된 일기를 보낸다. 실패하면 "error" 이벤트 하나로 끝난다.
+     * 스트리밍 동안 서블릿 스레드나 DB 커넥션을 잡지 않으며, 클라이언트가 연결을 끊으면 AI 요청도 취소되고 저장하지 않는다.
+     */
+    public Flux<ServerSentEvent<Object>> streamDiary(Long userId, AiDiaryCreateRequest request) {
+        AiDiaryGenerateRequestDto aiRequest = diaryService.prepareAiDiaryGeneration(userId, request);
+        return Flux.defer(() -> {
+            StringBuilder content = new StringBuilder();
+            AtomicReference<AiDiaryResponseDto> result = new AtomicReference<>();
+
+            Flux<ServerSentEvent<Object>> tokens = aiServerService.streamDiaryGeneration(aiRequest)
+                    .contextWrite(AiWorkScheduler.context(Priority.INTERACTIVE, userId))
+                    .filter(event -> event.data() != null)
+                    .handle((event, sink) -> {
+                        if ("result".equals(event.event())) {
+                            try {
+                                result.set(objectMapper.readValue(event.data(), AiDiaryResponseDto.class));
+                            } catch (JsonProcessingException e) {
+                                sink.error(new IllegalStateException("AI 서버의 최종 결과를 해석할 수 없습니다.", e));
+                            }
+                            return;
+                        }
+                        content.append(event.data());
+                        sink.next(ServerSentEvent.<Object>builder(event.data()).event("token").build());
+                    });
+
+            Mono<ServerSentEvent<Object>> done = Mono.fromCallable(() -> {
+                        AiDiaryResponseDto aiResponse = result.get() != null
+                                ? result.get()
+                                : new AiDiaryResponseDto(content.toString(), null);
+                        DiaryResponse diary = diaryService.saveAiGeneratedDiary(userId, request, aiResponse);
+                        log.info("userId: {}, 스트리밍 AI 일기 저장 완료 (diaryId={})", userId, diary.getId());
+                        return ServerSentEvent.<Object>builder(diary).event("done").build();
+                    })
+                    .subscribeOn(Schedulers.boundedElastic());
+
+            return tokens.concatWith(done)
+                    .onErrorResume(error -> {
+                        log.error("userId: {}, 스트리밍 AI 일기 생성 실패: {}", userId, error.getMessage(), error);
+                        return Mono.just(ServerSentEvent.<Object>builder("AI 일기를 생성하지 못했습니다.").event("error").build());
+                    });
+        });
+    }
+
+    /**
+     * 요청을 검증하고 작업으로 저장한 뒤 바로 돌려준다. 결과는 getJob 으로 확인한다.
+     */
+    public AiDiaryJobResponse submitCreateJob(Long userId, AiDiaryCreateRequest request) {
+        diaryService.prepareAiDiaryGeneration(userId, request);
+        return submit(userId, AiDiaryJob.Type.CREATE, null, request);
+    }
+
+    public AiDiaryJobResponse submitModifyJob(Long userId, Long diaryId, DiaryAiUpdateRequest request) {
+        diaryService.prepareAiDiaryModification(userId, diaryId, request);
+        return submit(userId, AiDiaryJob.Type.MODIFY, diaryId, request);
+    }
+
+    public AiDiaryJobResponse getJob(Long userId, Long jobId) {
+        return aiDiaryJobRepository.findByIdAndUserId(jobId, userId)
+                .map(AiDiaryJobResponse::from)
+                .orElseThrow(() -> new EntityNotFoundException("AI 일기 작업을 찾을 수 없습니다. ID: " + jobId));
+    }
+
+    private AiDiaryJobResponse submit(Long userId, AiDiaryJob.Type type, Long diaryId, Object request) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("요청을 저장할 수 없습니다.", e);
+        }
+        AiDiaryJob job = aiDiaryJobRepository.save(AiDiaryJob.builder()
+                .userId(userId)
+                .type(type)
+                .status(AiDiaryJob.Status.PENDING)
+                .diaryId(diaryId)
+                .requestPayload(payload)
+                .build());
+        log.info("userId: {}, AI 일기 작업 {} 등록 (type={})", userId, job.getId(), type);
+        dispatch(job.getId());
+        return AiDiaryJobResponse.from(job);
+    }
+
+    /**
+     * 실행기에 넣는다. 이미 대기열에 있는 작업이면 넣지 않고 false.
+     */
+    private boolean dispatch(Long jobId) {
+        if (!queuedJobIds.add(jobId)) {
+            return false;
+        }
+        try {
+            aiDiaryExecutor.execute(() -> runJob(jobId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            // 작업은 PENDING 으로 남아 있으므로 복구 스케줄러가 다시 넣는다.
+            queuedJobIds.remove(jobId);
+            log.warn("AI 일기 실행기가 가득 차 작업 {} 실행을 미룹니다.", jobId);
+            return false;
+        }
+    }
+
+    /**
+     * 멈춘 작업(실행기에 들어가지 못했거나 재시도를 기다리는 PENDING, 서버 재시작 등으로 끝나지 못한 RUNNING)을
+     * 다시 실행기에 넣는다. 이 인스턴스의 대기열에 아직 남아 있는 작업은 건너뛴다.
+     */
+    public int resubmitStalledJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> jobIds = aiDiaryJobRepository.findStalledJobIds(now.minus(pendingGrace), now.minus(staleTimeout));
+        int resubmitted = 0;
+        for (Long jobId : jobIds) {
+            if (dispatch(jobId)) {
+                resubmitted++;
+            }
+        }
+        return resubmitted;
+    }
+
+    private void runJob(Long jobId) {
+        queuedJobIds.remove(jobId);
+        LocalDateTime now = LocalDateTime.now();
+        if (aiDiaryJobRepository.claim(jobId, now, now.minus(staleTimeout)) == 0) {
+            return; // 다른 실행기가 이미 맡았거나 끝난 작업
+        }
+        AiDiaryJob job = aiDiaryJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        int attempt = job.getAttempts();
+        if (attempt > maxAttempts) {
+            aiDiaryJobRepository.markFailed(jobId, attempt, "재시도 횟수를 초과했습니다.", LocalDateTime.now());
+            return;
+        }
+
+        try {
+            Long diaryId = switch (job.getType()) {
+                case CREATE -> runCreate(job, attempt);
+                case MODIFY -> runModify(job, attempt);
+            };
+            log.info("userId: {}, AI 일기 작업 {} 완료 (diaryId={})", job.getUserId(), jobId, diaryId);
+        } catch (Exception e) {
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            if (message.length() > MAX_ERROR_MESSAGE_LENGTH) {
+                message = message.substring(0, MAX_ERROR_MESSAGE_LENGTH);
+            }
+            // AI 서버를 잠시 쓸 수 없는 경우는 PENDING 으로 되돌려 pending-grace 뒤 복구 스케줄러가 다시 실행한다.
+            if (e instanceof AiServerUnavailableException && attempt < maxAttempts) {
+                log.warn("userId: {}, AI 일기 작업 {} 재시도 예정 ({}/{}): {}", job.getUserId(), jobId, attempt, maxAttempts, message);
+                aiDiaryJobRepository.requeue(jobId, attempt, message, LocalDateTime.now());
+                return;
+            }
+            log.error("userId: {}, AI 일기 작업 {} 실패: {}", job.getUserId(), jobId, e.getMessage(), e);
+            aiDiaryJobRepository.markFailed(jobId, attempt, message, LocalDateTime.now());
+        }
+    }
+
+    private Long runCreate(AiDiaryJob job, int attempt) throws JsonProcessingException {
+        AiDiaryCreateRequest request = objectMapper.readValue(job.getRequestPayload(), AiDiaryCreateRequest.class);
+        AiDiaryGenerateRequestDto aiRequest = diaryService.prepareAiDiaryGeneration(job.getUserId(), request);
+        AiDiaryResponseDto aiResponse = aiServerService.requestDiaryGeneration(aiRequest)
+                .contextWrite(AiWorkScheduler.context(jobPriority(attempt), job.getUserId()))
+                .block();
+        return transactionTemplate.execute(status -> {
+            DiaryResponse diary = diaryService.saveAiGeneratedDiary(job.getUserId(), request, aiResponse);
+            completeOrRollback(job, attempt, diary.getId());
+            return diary.getId();
+        });
+    }
+
+    private Long runModify(AiDiaryJob job, int attempt) throws JsonProcessingException {
+        DiaryAiUpdateRequest request = objectMapper.readValue(job.getRequestPayload(), DiaryAiUpdateRequest.class);
+        AiDiaryModifyRequestDto aiRequest = diaryService.prepareAiDiaryModification(job.getUserId(), job.getDiaryId(), request);
+        AiDiaryResponseDto aiResponse = aiServerService.requestDiaryModification(aiRequest)
+                .contextWrite(AiWorkScheduler.context(jobPriority(attempt), job.getUserId()))
+                .block();
+        return transactionTemplate.execute(status -> {
+            DiaryResponse diary = diaryService.applyAiDiaryModification(job.getUserId(), job.getDiaryId(), aiResponse);
+            completeOrRollback(job, attempt, diary.getId());
+            return diary.getId();
+        });
+    }
+
+    // 사용자가 기다리는 첫 실행은 대화형, 복구 스케줄러의 재실행은 백그라운드 우선순위로 보낸다.
+    private static Priority jobPriority(int attempt) {
+        return attempt <= 1 ? Priority.INTERACTIVE : Priority.BACKGROUND;
+    }
+
+    /**
+     * 결과 저장과 같은 트랜잭션에서 완료 표시한다. 그 사이 다른 실행기가 작업을 다시 맡았다면
+     * 예외로 롤백해 같은 작업의 결과가 두 번 반영되지 않게 한다.
+     */
+    private void completeOrRollback(AiDiaryJob job, int attempt, Long diaryId) {
+        if (aiDiaryJobRepository.markSucceeded(job.getId(), attempt, diaryId, LocalDateTime.now()) == 0) {
+            throw new IllegalStateException("AI 일기 작업 " + job.getId() + " 은 이미 다른 실행에서 처리되었습니다.");
+        }
+    }
+}
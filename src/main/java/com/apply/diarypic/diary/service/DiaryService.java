@@ -4,14 +4,13 @@ import com.apply.diarypic.ai.dto.AiDiaryGenerateRequestDto;
 import com.apply.diarypic.ai.dto.AiDiaryModifyRequestDto;
 import com.apply.diarypic.ai.dto.AiDiaryResponseDto;
 import com.apply.diarypic.ai.dto.ImageInfoDto;
-import com.apply.diarypic.ai.service.AiServerService;
 import com.apply.diarypic.album.repository.DiaryAlbumRepository;
 import com.apply.diarypic.album.service.AlbumService;
 import com.apply.diarypic.diary.dto.*;
 import com.apply.diarypic.diary.entity.Diary;
 import com.apply.diarypic.photo.entity.DiaryPhoto;
+import com.apply.diarypic.photo.service.PhotoBlobService;
 import com.apply.diarypic.diary.repository.DiaryRepository;
-import com.apply.diarypic.global.s3.S3Uploader;
 import com.apply.diarypic.keyword.entity.Keyword;
 import com.apply.diarypic.keyword.entity.PhotoKeyword;
 import com.apply.diarypic.keyword.entity.PhotoKeywordId;
@@ -47,8 +46,7 @@ public class DiaryService {
     private final DiaryRepository diaryRepository;
     private final UserRepository userRepository;
     private final PhotoRepository photoRepository;
-    private final AiServerService aiServerService;
-    private final S3Uploader s3Uploader;
+    private final PhotoBlobService photoBlobService;
     private final KeywordRepository keywordRepository;
     private final PhotoKeywordRepository photoKeywordRepository;
     private final AlbumService albumService;
@@ -109,15 +107,15 @@ public class DiaryService {
         return DiaryResponse.from(diaryRepository.save(diary));
     }
 
-    @Transactional
-    public DiaryResponse createDiaryWithAiAssistance(Long userId, AiDiaryCreateRequest aiDiaryCreateRequest) {
+    /**
+     * AI 일기 생성 1단계: 사진 소유권을 확인하고 AI 서버로 보낼 요청을 만든다. AI 호출은 트랜잭션 밖에서 한다.
+     */
+    @Transactional(readOnly = true)
+    public AiDiaryGenerateRequestDto prepareAiDiaryGeneration(Long userId, AiDiaryCreateRequest aiDiaryCreateRequest) {
         User user = userRepository.findById(userId).orElseThrow(() -> new EntityNotFoundException("User not found: " + userId));
         String userWritingStyle = user.getWritingStylePrompt();
         if (!StringUtils.hasText(userWritingStyle)) userWritingStyle = "오늘 있었던 일을 바탕으로 일기를 작성해줘.";
 
-        LocalDate diaryDate = aiDiaryCreateRequest.getDiaryDate();
-        if (diaryDate == null) diaryDate = LocalDate.now();
-
         List<AiDiaryCreateRequest.FinalizedPhotoPayload> finalizedPhotoPayloads = aiDiaryCreateRequest.getFinalizedPhotos();
         if (finalizedPhotoPayloads == null || finalizedPhotoPayloads.isEmpty() || finalizedPhotoPayloads.size() > 9) {
             throw new IllegalArgumentException("사진 정보가 올바르지 않습니다.");
@@ -133,12 +131,23 @@ public class DiaryService {
                             StringUtils.hasText(combinedAddress) ? combinedAddress : null, payload.getKeyword(), payload.getSequence());
                 }).collect(Collectors.toList());
 
-        AiDiaryGenerateRequestDto aiRequest = new AiDiaryGenerateRequestDto(userWritingStyle, imageInfoForAi);
-        AiDiaryResponseDto aiResponse = aiServerService.requestDiaryGeneration(aiRequest).block();
+        return new AiDiaryGenerateRequestDto(userWritingStyle, imageInfoForAi);
+    }
 
+    /**
+     * AI 일기 생성 2단계: AI 응답으로 일기, 사진 연결, 앨범을 짧은 트랜잭션 하나로 저장한다.
+     */
+    @Transactional
+    public DiaryResponse saveAiGeneratedDiary(Long userId, AiDiaryCreateRequest aiDiaryCreateRequest, AiDiaryResponseDto aiResponse) {
         if (aiResponse == null || !StringUtils.hasText(aiResponse.getDiary())) {
             throw new RuntimeException("AI 서버로부터 일기 내용을 생성하지 못했습니다.");
         }
+        User user = userRepository.findById(userId).orElseThrow(() -> new EntityNotFoundException("User not found: " + userId));
+
+        LocalDate diaryDate = aiDiaryCreateRequest.getDiaryDate();
+        if (diaryDate == null) diaryDate = LocalDate.now();
+
+        List<AiDiaryCreateRequest.FinalizedPhotoPayload> finalizedPhotoPayloads = aiDiaryCreateRequest.getFinalizedPhotos();
         String autoContent = aiResponse.getDiary();
         String autoEmoji = aiResponse.getEmoji();
 
@@ -167,41 +176,52 @@ public class DiaryService {
         List<DiaryPhoto> diaryPhotosForDiaryEntities = new ArrayList<>();
         if (finalizedPhotoPayloads != null) {
             finalizedPhotoPayloads.sort(Comparator.comparingInt(AiDiaryCreateRequest.FinalizedPhotoPayload::getSequence));
+
+            // 사진과 개인 키워드를 한 번에 조회하고, 사진-키워드 매핑은 모아서 배치 insert 한다.
+            Map<Long, DiaryPhoto> photosById = photoRepository.findAllById(finalizedPhotoPayloads.stream()
+                            .map(AiDiaryCreateRequest.FinalizedPhotoPayload::getPhotoId)
+                            .collect(Collectors.toList()))
+                    .stream()
+                    .collect(Collectors.toMap(DiaryPhoto::getId, Function.identity()));
+            Set<String> keywordNames = finalizedPhotoPayloads.stream()
+                    .flatMap(payload -> splitKeywords(payload.getKeyword()).stream())
+                    .collect(Collectors.toSet());
+            Map<String, Keyword> keywordsByName = keywordNames.isEmpty()
+                    ? Collections.emptyMap()
+                    : keywordRepository.findByUserAndNameIn(user, keywordNames).stream()
+                            .collect(Collectors.toMap(Keyword::getName, Function.identity(), (first, second) -> first));
+
+            // 같은 사진이 여러 번 와도 매핑은 (사진, 키워드) 당 하나만 만든다. PhotoKeyword 는 항상 새 엔티티로 insert 된다.
+            Map<PhotoKeywordId, PhotoKeyword> photoKeywords = new LinkedHashMap<>();
             for (AiDiaryCreateRequest.FinalizedPhotoPayload payload : finalizedPhotoPayloads) {
-                DiaryPhoto diaryPhoto = photoRepository.findById(payload.getPhotoId())
-                        .map(dp -> {
-                            if (!dp.getUserId().equals(userId)) {
-                                throw new SecurityException("해당 사진에 대한 접근 권한이 없습니다. Photo ID: " + payload.getPhotoId());
-                            }
-                            dp.setDiary(savedDiary);
-                            dp.setSequence(payload.getSequence());
-                            savedDiary.getDiaryPhotos().add(dp);
-                            return dp;
-                        }).orElseThrow(() -> new IllegalArgumentException("저장할 사진 정보를 찾을 수 없습니다. ID: " + payload.getPhotoId()));
-                diaryPhotosForDiaryEntities.add(diaryPhoto);
-
-                String keywordStringFromFrontend = payload.getKeyword();
-                if (StringUtils.hasText(keywordStringFromFrontend)) {
-                    Arrays.stream(keywordStringFromFrontend.split("\\s*,\\s*"))
-                            .map(String::trim)
-                            .filter(kwText -> !kwText.isEmpty())
-                            .forEach(kwText -> {
-                                Optional<Keyword> keywordEntityOpt = keywordRepository.findByNameAndUser(kwText, user);
-
-                                if (keywordEntityOpt.isPresent()) {
-                                    Keyword foundKeyword = keywordEntityOpt.get();
-                                    PhotoKeyword newPhotoKeyword = PhotoKeyword.builder()
-                                            .diaryPhoto(diaryPhoto)
-                                            .keyword(foundKeyword)
-                                            .build();
-                                    photoKeywordRepository.save(newPhotoKeyword);
-                                    log.debug("사진 ID {}에 기존 개인 키워드 '{}'(ID:{}) 매핑 저장 (중복 허용).", diaryPhoto.getId(), kwText, foundKeyword.getId());
-                                } else {
-                                    log.debug("사진 ID {}에 대한 자유 입력 키워드 '{}'는 사용자 {}의 개인 키워드 목록에 없으므로 DB에 매핑하지 않음. AI 전달용으로만 사용됨.", diaryPhoto.getId(), kwText, user.getId());
-                                }
-                            });
+                DiaryPhoto diaryPhoto = photosById.get(payload.getPhotoId());
+                if (diaryPhoto == null) {
+                    throw new IllegalArgumentException("저장할 사진 정보를 찾을 수 없습니다. ID: " + payload.getPhotoId());
+                }
+                if (!diaryPhoto.getUserId().equals(userId)) {
+                    throw new SecurityException("해당 사진에 대한 접근 권한이 없습니다. Photo ID: " + payload.getPhotoId());
+                }
+                if (diaryPhoto.getDiary() != savedDiary) {
+                    diaryPhoto.setDiary(savedDiary);
+                    diaryPhoto.setSequence(payload.getSequence());
+                    savedDiary.getDiaryPhotos().add(diaryPhoto);
+                    diaryPhotosForDiaryEntities.add(diaryPhoto);
+                }
+
+                for (String kwText : splitKeywords(payload.getKeyword())) {
+                    Keyword foundKeyword = keywordsByName.get(kwText);
+                    if (foundKeyword != null) {
+                        photoKeywords.putIfAbsent(new PhotoKeywordId(diaryPhoto.getId(), foundKeyword.getId()), PhotoKeyword.builder()
+                                .diaryPhoto(diaryPhoto)
+                                .keyword(foundKeyword)
+                                .build());
+                        log.debug("사진 ID {}에 기존 개인 키워드 '{}'(ID:{}) 매핑 저장.", diaryPhoto.getId(), kwText, foundKeyword.getId());
+                    } else {
+                        log.debug("사진 ID {}에 대한 자유 입력 키워드 '{}'는 사용자 {}의 개인 키워드 목록에 없으므로 DB에 매핑하지 않음. AI 전달용으로만 사용됨.", diaryPhoto.getId(), kwText, user.getId());
+                    }
                 }
             }
+            photoKeywordRepository.saveAll(photoKeywords.values());
         }
 
         if (!diaryPhotosForDiaryEntities.isEmpty()) {
@@ -211,6 +231,19 @@ public class DiaryService {
         return savedDiary;
     }
 
+    /**
+     * 프론트에서 쉼표로 이어 보낸 키워드 문자열을 나눈다. 같은 사진에 같은 키워드가 두 번 매핑되지 않도록 중복은 제거한다.
+     */
+    private static Set<String> splitKeywords(String keywordString) {
+        if (!StringUtils.hasText(keywordString)) {
+            return Collections.emptySet();
+        }
+        return Arrays.stream(keywordString.split("\\s*,\\s*"))
+                .map(String::trim)
+                .filter(kwText -> !kwText.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
     @Transactional
     public DiaryResponse updateDiaryManual(Long userId, Long diaryId, DiaryManualUpdateRequest request) {
         Diary diary = diaryRepository.findById(diaryId)
@@ -236,8 +269,11 @@ public class DiaryService {
         return DiaryResponse.from(diary);
     }
 
-    @Transactional
-    public DiaryResponse updateDiaryWithAiAssistance(Long userId, Long diaryId, DiaryAiUpdateRequest request) {
+    /**
+     * AI 일기 수정 1단계: 수정 권한을 확인하고 AI 서버로 보낼 요청을 만든다.
+     */
+    @Transactional(readOnly = true)
+    public AiDiaryModifyRequestDto prepareAiDiaryModification(Long userId, Long diaryId, DiaryAiUpdateRequest request) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("사용자를 찾을 수 없습니다. ID: " + userId));
         Diary diary = diaryRepository.findById(diaryId)
@@ -252,21 +288,29 @@ public class DiaryService {
             userWritingStyle = "오늘 있었던 일을 바탕으로 일기를 작성해줘.";
         }
 
-        AiDiaryModifyRequestDto aiModifyRequest = new AiDiaryModifyRequestDto(
+        return new AiDiaryModifyRequestDto(
                 userWritingStyle,
                 request.getMarkedDiaryContent(),
                 request.getUserRequest()
         );
+    }
 
-        // AI 서버에 수정 요청
-        AiDiaryResponseDto aiResponse = aiServerService.requestDiaryModification(aiModifyRequest).block();
-
+    /**
+     * AI 일기 수정 2단계: AI 서버로부터 받은 내용으로 일기를 갱신한다.
+     */
+    @Transactional
+    public DiaryResponse applyAiDiaryModification(Long userId, Long diaryId, AiDiaryResponseDto aiResponse) {
         if (aiResponse == null || !StringUtils.hasText(aiResponse.getDiary())) {
 
             throw new RuntimeException("AI 서버로부터 일기 수정 내용을 받지 못했습니다. 응답 내용: " + (aiResponse != null ? aiResponse.getDiary() : "null"));
         }
 
-        // AI 서버로부터 받은 내용으로 일기 업데이트
+        Diary diary = diaryRepository.findById(diaryId)
+                .orElseThrow(() -> new EntityNotFoundException("수정할 일기를 찾을 수 없습니다. ID: " + diaryId));
+        if (!diary.getUser().getId().equals(userId)) {
+            throw new SecurityException("해당 일기에 대한 수정 권한이 없습니다.");
+        }
+
         diary.setContent(aiResponse.getDiary());
         if (StringUtils.hasText(aiResponse.getEmoji())) {
             diary.setEmotionIcon(aiResponse.getEmoji());
@@ -356,7 +400,7 @@ public class DiaryService {
         if (!photosToDelete.isEmpty()) {
             for (DiaryPhoto photo : photosToDelete) {
                 log.info("S3 파일 삭제 시도: {}", photo.getPhotoUrl());
-                s3Uploader.deleteFileByUrl(photo.getPhotoUrl());
+                photoBlobService.release(photo);
             }
             diary.getDiaryPhotos().removeAll(photosToDelete);
         }
@@ -485,9 +529,7 @@ public class DiaryService {
 
         // 1. S3에서 사진 파일 삭제
         for (DiaryPhoto photo : diary.getDiaryPhotos()) {
-            if (StringUtils.hasText(photo.getPhotoUrl())) {
-                s3Uploader.deleteFileByUrl(photo.getPhotoUrl());
-            }
+            photoBlobService.release(photo);
         }
         log.info("일기 ID {}의 S3 사진 파일 삭제 완료.", diaryId);
 
@@ -512,9 +554,7 @@ public class DiaryService {
         for (Diary diary : trashedDiaries) {
             // S3 파일 삭제
             for (DiaryPhoto photo : diary.getDiaryPhotos()) {
-                if (StringUtils.hasText(photo.getPhotoUrl())) {
-                    s3Uploader.deleteFileByUrl(photo.getPhotoUrl());
-                }
+                photoBlobService.release(photo);
             }
             // DiaryAlbum 연결 삭제
             diaryAlbumRepository.deleteByDiary(diary);
@@ -545,9 +585,7 @@ public class DiaryService {
         for (Diary diary : oldTrashedDiaries) {
             // S3 파일 삭제
             for (DiaryPhoto photo : diary.getDiaryPhotos()) {
-                if (StringUtils.hasText(photo.getPhotoUrl())) {
-                    s3Uploader.deleteFileByUrl(photo.getPhotoUrl());
-                }
+                photoBlobService.release(photo);
             }
             // DiaryAlbum 연결 삭제
             diaryAlbumRepository.deleteByDiary(diary);
@@ -0,0 +1,134 @@
+package com.apply.diarypic.global.admission;
+
+import com.apply.diarypic.global.security.UserPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 사진 업로드 / AI 엔드포인트 앞단의 사용자별 입장 제어. 자리가 없으면 톰캣 스레드를 오래 잡지 않고
+ * 429 + Retry-After 로 돌려보낸다. 인증 이후에 실행되어야 하므로 Security 필터 체인 뒤에 등록한다.
+ */
+@Slf4j
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    public record Rule(String method, String pattern, UserAdmissionLimiter limiter) {
+    }
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<Rule> rules;
+    private final Duration retryAfter;
+    private final ObjectMapper objectMapper;
+
+    public AdmissionFilter(List<Rule> rules, Duration retryAfter, ObjectMapper objectMapper) {
+        this.rules = rules;
+        this.retryAfter = retryAfter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        UserAdmissionLimiter limiter = findLimiter(request);
+        Long userId = currentUserId();
+        if (limiter == null || userId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // 길이를 알 수 없는(chunked) 요청은 사용자 바이트 한도 전체를 차지한다.
+        long contentLength = request.getContentLengthLong();
+        long bytes = contentLength >= 0 ? contentLength : limiter.getMaxBytes();
+        UserAdmissionLimiter.Permit permit = limiter.acquire(userId, bytes);
+        if (permit == null) {
+            log.warn("요청 입장 거부 (429). group: {}, userId: {}, URI: {}", limiter.getGroup(), userId, request.getRequestURI());
+            reject(request, response);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(permit));
+            } else {
+                permit.release();
+            }
+        }
+    }
+
+    private UserAdmissionLimiter findLimiter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Rule rule : rules) {
+            if (rule.method().equalsIgnoreCase(request.getMethod()) && pathMatcher.match(rule.pattern(), path)) {
+                return rule.limiter();
+            }
+        }
+        return null;
+    }
+
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getUserId();
+        }
+        return null;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", System.currentTimeMillis());
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", "Too Many Requests");
+        body.put("message", "동시에 처리 중인 요청이 너무 많습니다. 잠시 후 다시 시도해주세요.");
+        body.put("path", request.getRequestURI());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, retryAfter.toSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private record ReleasingListener(UserAdmissionLimiter.Permit permit) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permit.release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            permit.release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.apply.diarypic.global.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 사용자별 동시 요청 수 / 처리 중인 바이트 수 상한. 락 없이 CAS 로만 자리를 잡는다.
+ * 자리가 없으면 queueTimeout 동안 짧게 재시도한 뒤 포기한다.
+ */
+public class UserAdmissionLimiter {
+
+    private static final int BYTES_BITS = 48;
+    private static final long BYTES_MASK = (1L << BYTES_BITS) - 1;
+    private static final long RETIRED = -1L;
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final String group;
+    private final int maxRequests;
+    private final long maxBytes;
+    private final long queueTimeoutNanos;
+
+    // 상위 16비트: 처리 중인 요청 수, 하위 48비트: 처리 중인 바이트 수
+    private final ConcurrentHashMap<Long, AtomicLong> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final Counter rejectedByRequests;
+    private final Counter rejectedByBytes;
+    private final Timer queueWait;
+
+    public UserAdmissionLimiter(String group, int maxRequests, long maxBytes, Duration queueTimeout, MeterRegistry meterRegistry) {
+        this.group = group;
+        this.maxRequests = Math.min(maxRequests, 0xFFFF);
+        this.maxBytes = Math.min(maxBytes, BYTES_MASK);
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+
+        Gauge.builder("diarypic.admission.queue.depth", waiting, AtomicInteger::get)
+                .description("자리를 기다리는 요청 수")
+                .tag("group", group)
+                .register(meterRegistry);
+        Gauge.builder("diarypic.admission.active.users", inFlight, ConcurrentHashMap::size)
+                .description("처리 중인 요청이 있는 사용자 수")
+                .tag("group", group)
+                .register(meterRegistry);
+        this.rejectedByRequests = Counter.builder("diarypic.admission.rejections")
+                .tag("group", group)
+                .tag("reason", "requests")
+                .register(meterRegistry);
+        this.rejectedByBytes = Counter.builder("diarypic.admission.rejections")
+                .tag("group", group)
+                .tag("reason", "bytes")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("diarypic.admission.queue.wait")
+                .tag("group", group)
+                .register(meterRegistry);
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * 자리를 얻으면 Permit 을, queueTimeout 안에 얻지 못하면 null 을 돌려준다.
+     * 진행 중인 요청이 없는 사용자는 maxBytes 보다 큰 요청도 하나는 받아준다.
+     */
+    public Permit acquire(Long userId, long bytes) {
+        long clampedBytes = Math.min(Math.max(bytes, 0L), maxBytes);
+        Rejection rejection = tryAcquire(userId, clampedBytes);
+        if (rejection == null) {
+            return new Permit(userId, clampedBytes);
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + queueTimeoutNanos;
+        long backoff = MIN_BACKOFF_NANOS;
+        waiting.incrementAndGet();
+        try {
+            while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(Math.min(backoff, Math.max(0L, deadline - System.nanoTime())));
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+                rejection = tryAcquire(userId, clampedBytes);
+                if (rejection == null) {
+                    queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return new Permit(userId, clampedBytes);
+                }
+            }
+        } finally {
+            waiting.decrementAndGet();
+        }
+
+        (rejection == Rejection.REQUESTS ? rejectedByRequests : rejectedByBytes).increment();
+        return null;
+    }
+
+    private enum Rejection { REQUESTS, BYTES }
+
+    private Rejection tryAcquire(Long userId, long bytes) {
+        while (true) {
+            AtomicLong state = inFlight.computeIfAbsent(userId, id -> new AtomicLong());
+            long current = state.get();
+            if (current == RETIRED) {
+                // release 가 막 비운 뒤 맵에서 빼는 중이다. 새 카운터로 다시 시도한다.
+                inFlight.remove(userId, state);
+                continue;
+            }
+            int requests = (int) (current >>> BYTES_BITS);
+            long usedBytes = current & BYTES_MASK;
+            if (requests >= maxRequests) {
+                return Rejection.REQUESTS;
+            }
+            if (requests > 0 && usedBytes + bytes > maxBytes) {
+                return Rejection.BYTES;
+            }
+            long next = ((long) (requests + 1) << BYTES_BITS) | (usedBytes + bytes);
+            if (state.compareAndSet(current, next)) {
+                return null;
+            }
+        }
+    }
+
+    private void release(Long userId, long bytes) {
+        AtomicLong state = inFlight.get(userId);
+        if (state == null) {
+            return;
+        }
+        long delta = (1L << BYTES_BITS) | bytes;
+        long next = state.addAndGet(-delta);
+        // 마지막 요청이 끝났으면 카운터를 RETIRED 로 표시하고 맵에서 뺀다. 그 사이에 새 요청이 들어왔다면 그대로 둔다.
+        if (next == 0 && state.compareAndSet(0L, RETIRED)) {
+            inFlight.remove(userId, state);
+        }
+    }
+
+    /**
+     * 요청 하나가 잡고 있는 자리. release 는 여러 번 호출해도 한 번만 반영된다.
+     */
+    public final class Permit {
+
+        private final Long userId;
+        private final long bytes;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Long userId, long bytes) {
+            this.userId = userId;
+            this.bytes = bytes;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                UserAdmissionLimiter.this.release(userId, bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.apply.diarypic.global.config;
+
+import com.apply.diarypic.global.admission.AdmissionFilter;
+import com.apply.diarypic.global.admission.UserAdmissionLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class AdmissionConfig {
+
+    /**
+     * 사진 업로드 계열 요청의 사용자별 상한. 바이트는 Content-Length 기준.
+     */
+    @Bean
+    public UserAdmissionLimiter uploadAdmissionLimiter(
+            @Value("${admission.upload.max-requests:2}") int maxRequests,
+            @Value("${admission.upload.max-bytes:150MB}") DataSize maxBytes,
+            @Value("${admission.upload.queue-timeout:500ms}") Duration queueTimeout,
+            MeterRegistry meterRegistry) {
+        return new UserAdmissionLimiter("upload", maxRequests, maxBytes.toBytes(), queueTimeout, meterRegistry);
+    }
+
+    /**
+     * AI 서버를 호출하는 요청(사진 추천, 일기 생성/수정)의 사용자별 상한.
+     */
+    @Bean
+    public UserAdmissionLimiter aiAdmissionLimiter(
+            @Value("${admission.ai.max-requests:2}") int maxRequests,
+            @Value("${admission.ai.max-bytes:10MB}") DataSize maxBytes,
+            @Value("${admission.ai.queue-timeout:500ms}") Duration queueTimeout,
+            MeterRegistry meterRegistry) {
+        return new UserAdmissionLimiter("ai", maxRequests, maxBytes.toBytes(), queueTimeout, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionFilter> admissionFilter(
+            UserAdmissionLimiter uploadAdmissionLimiter,
+            UserAdmissionLimiter aiAdmissionLimiter,
+            @Value("${admission.retry-after:2s}") Duration retryAfter,
+            ObjectMapper objectMapper) {
+        List<AdmissionFilter.Rule> rules = List.of(
+                new AdmissionFilter.Rule("POST", "/api/photos/upload", uploadAdmissionLimiter),
+                new AdmissionFilter.Rule("POST", "/api/photos/upload/stream", uploadAdmissionLimiter),
+                new AdmissionFilter.Rule("POST", "/api/photos/upload-sessions/confirm", uploadAdmissionLimiter),
+                new AdmissionFilter.Rule("POST", "/api/photos/dedup/claim", uploadAdmissionLimiter),
+                new AdmissionFilter.Rule("PUT", "/api/photos/resumable-uploads/*", uploadAdmissionLimiter),
+                new AdmissionFilter.Rule("POST", "/api/photos/selection/ai-recommend", aiAdmissionLimiter),
+                new AdmissionFilter.Rule("POST", "/api/diaries/auto", aiAdmissionLimiter),
+                new AdmissionFilter.Rule("POST", "/api/diaries/auto/jobs", aiAdmissionLimiter),
+                new AdmissionFilter.Rule("POST", "/api/diaries/auto/stream", aiAdmissionLimiter),
+                new AdmissionFilter.Rule("PATCH", "/api/diaries/*/ai-modify", aiAdmissionLimiter),
+                new AdmissionFilter.Rule("POST", "/api/diaries/*/ai-modify/jobs", aiAdmissionLimiter));
+
+        FilterRegistrationBean<AdmissionFilter> registration =
+                new FilterRegistrationBean<>(new AdmissionFilter(rules, retryAfter, objectMapper));
+        registration.addUrlPatterns("/api/*");
+        // Spring Security 필터 체인(-100) 이후에 실행되어 인증된 사용자를 알 수 있다.
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 10);
+        return registration;
+    }
+}
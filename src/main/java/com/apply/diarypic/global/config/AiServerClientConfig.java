@@ -0,0 +1,54 @@
+package com.apply.diarypic.global.config;
+
+import com.apply.diarypic.global.resilience.AdaptiveConcurrencyLimiter;
+import com.apply.diarypic.global.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class AiServerClientConfig {
+
+    // AI 서버 하나의 상태를 보므로 서킷은 모든 호출이 공유한다.
+    @Bean
+    public CircuitBreaker aiServerCircuitBreaker(
+            @Value("${ai-server.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${ai-server.circuit-breaker.minimum-calls:5}") int minimumCalls,
+            @Value("${ai-server.circuit-breaker.failure-rate-threshold:50}") double failureRateThreshold,
+            @Value("${ai-server.circuit-breaker.open-duration:30s}") Duration openDuration,
+            MeterRegistry meterRegistry) {
+        return new CircuitBreaker("ai-server", windowSize, minimumCalls, failureRateThreshold, openDuration, meterRegistry);
+    }
+
+    // 채점과 일기 생성은 응답 시간 규모가 달라 동시성 상한을 따로 조절한다.
+    @Bean
+    public AdaptiveConcurrencyLimiter aiScoreConcurrencyLimiter(
+            @Value("${ai-server.concurrency.score.initial-limit:8}") int initialLimit,
+            @Value("${ai-server.concurrency.score.max-limit:32}") int maxLimit,
+            @Value("${ai-server.concurrency.min-limit:1}") int minLimit,
+            @Value("${ai-server.concurrency.tolerance:2.0}") double tolerance,
+            @Value("${ai-server.concurrency.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${ai-server.concurrency.probe-samples:200}") int probeSamples,
+            @Value("${ai-server.scheduler.max-wait:10s}") Duration maxWait,
+            MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter("ai-score", initialLimit, minLimit, maxLimit,
+                tolerance, backoffRatio, probeSamples, maxWait, meterRegistry);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter aiDiaryConcurrencyLimiter(
+            @Value("${ai-server.concurrency.diary.initial-limit:4}") int initialLimit,
+            @Value("${ai-server.concurrency.diary.max-limit:16}") int maxLimit,
+            @Value("${ai-server.concurrency.min-limit:1}") int minLimit,
+            @Value("${ai-server.concurrency.tolerance:2.0}") double tolerance,
+            @Value("${ai-server.concurrency.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${ai-server.concurrency.probe-samples:200}") int probeSamples,
+            @Value("${ai-server.scheduler.max-wait:10s}") Duration maxWait,
+            MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter("ai-diary", initialLimit, minLimit, maxLimit,
+                tolerance, backoffRatio, probeSamples, maxWait, meterRegistry);
+    }
+}
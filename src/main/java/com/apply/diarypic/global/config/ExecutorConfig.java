@@ -0,0 +1,64 @@
+package com.apply.diarypic.global.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * 사진 업로드 시 파일별 S3 업로드를 병렬로 처리하는 풀.
+     * 큐가 가득 차면 요청 스레드에서 직접 실행되어 자연스럽게 속도가 조절된다.
+     */
+    @Bean(name = "photoIngestExecutor")
+    public ThreadPoolTaskExecutor photoIngestExecutor(
+            @Value("${photo.ingest.pool-size:16}") int poolSize,
+            @Value("${photo.ingest.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("photo-ingest-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * 썸네일 생성(디코딩 / 리사이즈 / JPEG 인코딩) 전용 CPU 풀.
+     * 큐가 가득 차면 작업을 버리고, 누락분은 백필 스케줄러가 다시 처리한다.
+     */
+    @Bean(name = "photoDerivativeExecutor")
+    public ThreadPoolTaskExecutor photoDerivativeExecutor(
+            @Value("${photo.derivative.pool-size:2}") int poolSize,
+            @Value("${photo.derivative.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("photo-derivative-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    /**
+     * AI 일기 생성/수정 작업 실행 풀. 스레드 수가 AI 서버로 동시에 보내는 요청 수의 상한이다.
+     * 큐가 가득 차면 작업은 PENDING 으로 남고, 복구 스케줄러가 다시 넣는다.
+     */
+    @Bean(name = "aiDiaryExecutor")
+    public ThreadPoolTaskExecutor aiDiaryExecutor(
+            @Value("${ai.diary-job.pool-size:4}") int poolSize,
+            @Value("${ai.diary-job.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ai-diary-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,65 @@
+package com.apply.diarypic.global.config;
+
+import com.apply.diarypic.global.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class GeocodingClientConfig {
+
+    /**
+     * Google Geocoding API 전용 클라이언트. 커넥션을 keep-alive 로 재사용하고,
+     * 풀 대기 / 연결 / 응답 시간을 모두 제한해 API 가 멈춰도 호출 스레드가 묶이지 않게 한다.
+     */
+    @Bean
+    public RestTemplate geocodingRestTemplate(
+            @Value("${geocoding.http.max-connections:20}") int maxConnections,
+            @Value("${geocoding.http.connect-timeout:1s}") Duration connectTimeout,
+            @Value("${geocoding.http.read-timeout:3s}") Duration readTimeout,
+            @Value("${geocoding.http.pool-timeout:500ms}") Duration poolTimeout,
+            @Value("${geocoding.http.keep-alive:60s}") Duration keepAlive) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections) // 호출 대상이 maps.googleapis.com 하나뿐이다.
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(keepAlive))
+                        .build())
+                .build();
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(poolTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(keepAlive))
+                .build();
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    @Bean
+    public CircuitBreaker geocodingCircuitBreaker(
+            @Value("${geocoding.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${geocoding.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${geocoding.circuit-breaker.failure-rate-threshold:50}") double failureRateThreshold,
+            @Value("${geocoding.circuit-breaker.open-duration:30s}") Duration openDuration,
+            MeterRegistry meterRegistry) {
+        return new CircuitBreaker("geocoding", windowSize, minimumCalls, failureRateThreshold, openDuration, meterRegistry);
+    }
+}
@@ -0,0 +1,46 @@
+package com.apply.diarypic.global.config;
+
+import com.apply.diarypic.global.idempotency.IdempotencyFilter;
+import com.apply.diarypic.global.idempotency.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class IdempotencyConfig {
+
+    /**
+     * 재시도 시 AI 생성이나 업로드가 다시 실행되면 비용이 큰 요청. SSE 스트리밍(/auto/stream)은 응답을 저장할 수 없어 제외한다.
+     */
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyService idempotencyService,
+            @Value("${idempotency.max-request-size:1MB}") DataSize maxRequestSize,
+            @Value("${idempotency.max-response-size:1MB}") DataSize maxResponseSize,
+            @Value("${idempotency.retry-after:5s}") Duration retryAfter,
+            ObjectMapper objectMapper) {
+        List<IdempotencyFilter.Rule> rules = List.of(
+                new IdempotencyFilter.Rule("POST", "/api/diaries"),
+                new IdempotencyFilter.Rule("POST", "/api/diaries/auto"),
+                new IdempotencyFilter.Rule("POST", "/api/diaries/auto/jobs"),
+                new IdempotencyFilter.Rule("PATCH", "/api/diaries/*/ai-modify"),
+                new IdempotencyFilter.Rule("POST", "/api/diaries/*/ai-modify/jobs"),
+                new IdempotencyFilter.Rule("POST", "/api/photos/upload", IdempotencyFilter.Body.PARTS),
+                new IdempotencyFilter.Rule("POST", "/api/photos/upload/stream", IdempotencyFilter.Body.STREAM));
+
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(rules, idempotencyService, maxRequestSize.toBytes(), maxResponseSize.toBytes(),
+                        retryAfter, objectMapper));
+        registration.addUrlPatterns("/api/*");
+        // 입장 제어(AdmissionFilter) 이후. 본문 비교를 위해 multipart 파트를 받아 두거나 본문을 읽는 일은 입장한 요청만 한다.
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 5);
+        return registration;
+    }
+}
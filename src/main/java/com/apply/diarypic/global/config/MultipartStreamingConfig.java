@@ -0,0 +1,27 @@
+package com.apply.diarypic.global.config;
+
+import org.apache.commons.fileupload2.core.DiskFileItem;
+import org.apache.commons.fileupload2.core.DiskFileItemFactory;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+public class MultipartStreamingConfig {
+
+    /**
+     * multipart 본문을 파트 단위로 순회하는 스트리밍 파서. 파일 파트를 메모리나 임시 파일에 모으지 않는다.
+     * 크기 제한은 일반 업로드와 같은 spring.servlet.multipart 설정을 따른다.
+     */
+    @Bean
+    public JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> streamingFileUpload(
+            @Value("${spring.servlet.multipart.max-file-size:10MB}") DataSize maxFileSize,
+            @Value("${spring.servlet.multipart.max-request-size:100MB}") DataSize maxRequestSize) {
+        JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> fileUpload = new JakartaServletFileUpload<>();
+        fileUpload.setFileSizeMax(maxFileSize.toBytes());
+        fileUpload.setSizeMax(maxRequestSize.toBytes());
+        return fileUpload;
+    }
+}
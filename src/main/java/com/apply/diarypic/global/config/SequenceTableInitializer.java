@@ -0,0 +1,56 @@
+package com.apply.diarypic.global.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * MySQL 에는 시퀀스가 없어 Hibernate 가 {테이블}_seq 테이블로 pooled 시퀀스를 흉내낸다.
+ * IDENTITY 로 쌓인 기존 id 와 겹치지 않도록, 요청을 받기 전에 시퀀스 값을 기존 최대 id 보다 크게 맞춘다.
+ */
+@Slf4j
+@Component
+public class SequenceTableInitializer {
+
+    // 엔티티의 @SequenceGenerator allocationSize 와 같아야 한다.
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCE_TABLES = Map.of(
+            "diary_photos_seq", "diary_photos",
+            "diaries_seq", "diaries",
+            "albums_seq", "albums",
+            "keywords_seq", "keywords",
+            "photo_blobs_seq", "photo_blobs",
+            "photo_ai_scores_seq", "photo_ai_scores",
+            "ai_diary_jobs_seq", "ai_diary_jobs",
+            "idempotency_keys_seq", "idempotency_keys",
+            "geocode_cache_seq", "geocode_cache",
+            "resumable_uploads_seq", "resumable_uploads");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // EntityManagerFactory 생성(ddl-auto 스키마 반영) 이후에 실행되도록 의존성으로 받는다.
+    public SequenceTableInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void alignSequences() {
+        SEQUENCE_TABLES.forEach((sequenceTable, entityTable) -> {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + entityTable, Long.class);
+            // pooled 옵티마이저는 읽은 값 기준 [값 - allocationSize + 1, 값] 범위를 쓰므로 그만큼 여유를 둔다.
+            long floor = maxId + ALLOCATION_SIZE + 1;
+            Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + sequenceTable, Integer.class);
+            if (rows == null || rows == 0) {
+                jdbcTemplate.update("INSERT INTO " + sequenceTable + " (next_val) VALUES (?)", floor);
+            } else {
+                jdbcTemplate.update("UPDATE " + sequenceTable + " SET next_val = ? WHERE next_val < ?", floor, floor);
+            }
+            log.info("시퀀스 테이블 {} 정렬 완료 (기존 최대 id: {})", sequenceTable, maxId);
+        });
+    }
+}
@@ -0,0 +1,53 @@
+package com.apply.diarypic.global.geocoding;
+
+/**
+ * 위경도를 geohash 문자열로 바꾼다. 같은 접두어를 공유하는 좌표는 같은 격자 셀에 속한다.
+ * precision 6 ≈ 1.2km × 0.6km, 7 ≈ 153m × 153m, 8 ≈ 38m × 19m.
+ */
+public final class GeoHash {
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private GeoHash() {
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        if (precision < 1 || precision > 12) {
+            throw new IllegalArgumentException("geohash precision 은 1~12 사이여야 합니다: " + precision);
+        }
+        double minLat = -90, maxLat = 90;
+        double minLng = -180, maxLng = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true; // 짝수 번째 비트는 경도, 홀수 번째 비트는 위도
+        int bit = 0;
+        int ch = 0;
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLng + maxLng) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLng = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash.append(BASE32[ch]);
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+}
@@ -0,0 +1,44 @@
+package com.apply.diarypic.global.geocoding;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 역지오코딩 결과의 영속 캐시. geohash 셀 하나에 주소 하나를 저장하며 재시작 후에도 유지된다.
+ */
+@Entity
+@Table(name = "geocode_cache", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"cell"})
+})
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class GeocodeCacheEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "geocode_cache_seq")
+    @SequenceGenerator(name = "geocode_cache_seq", sequenceName = "geocode_cache_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 12)
+    private String cell;
+
+    @Column(length = 512)
+    private String formattedAddress;
+
+    @Column(length = 100)
+    private String countryName;
+
+    @Column(length = 100)
+    private String adminAreaLevel1;
+
+    @Column(length = 100)
+    private String locality;
+
+    @Column(nullable = false)
+    private LocalDateTime fetchedAt;
+}
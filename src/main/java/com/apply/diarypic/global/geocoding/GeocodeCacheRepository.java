@@ -0,0 +1,9 @@
+package com.apply.diarypic.global.geocoding;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface GeocodeCacheRepository extends JpaRepository<GeocodeCacheEntry, Long> {
+    Optional<GeocodeCacheEntry> findByCell(String cell);
+}
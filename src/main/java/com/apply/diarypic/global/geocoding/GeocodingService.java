@@ -1,29 +1,111 @@
 package com.apply.diarypic.global.geocoding;
 
+import com.apply.diarypic.global.resilience.CircuitBreaker;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate; // 또는 WebClient
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 public class GeocodingService {
 
     private final RestTemplate restTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final OfflineReverseGeocoder offlineReverseGeocoder;
+    private final GeocodeCacheRepository geocodeCacheRepository;
+    private final int cellPrecision;
+    private final Duration dbTtl;
+
+    // 같은 셀의 좌표는 같은 주소로 본다. 오프라인 경계 인덱스 → 메모리 → DB → Google API 순으로 조회한다.
+    private final Cache<String, ParsedAddress> memoryCache;
+
+    // 셀별로 진행 중인 DB/API 조회. 같은 셀을 동시에 찾는 요청은 먼저 온 요청의 결과를 함께 기다린다.
+    private final ConcurrentHashMap<String, CompletableFuture<ParsedAddress>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter offlineHits;
+    private final Counter memoryHits;
+    private final Counter dbHits;
+    private final Counter apiCalls;
+    private final Counter apiFailures;
+    private final Counter coalesced;
+    private final Timer apiLatencyOk;
+    private final Timer apiLatencyNoResult;
+    private final Timer apiLatencyError;
 
     @Value("${google.maps.api.key}")
     private String apiKey;
 
     private static final String GEOCODING_API_URL = "https://maps.googleapis.com/maps/api/geocode/json";
 
-    public GeocodingService(RestTemplate restTemplate) { // RestTemplate 주입받도록 변경
+    public GeocodingService(@Qualifier("geocodingRestTemplate") RestTemplate restTemplate,
+                            @Qualifier("geocodingCircuitBreaker") CircuitBreaker circuitBreaker,
+                            OfflineReverseGeocoder offlineReverseGeocoder,
+                            GeocodeCacheRepository geocodeCacheRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${geocoding.cache.precision:7}") int cellPrecision,
+                            @Value("${geocoding.cache.memory-max-size:10000}") long memoryMaxSize,
+                            @Value("${geocoding.cache.memory-ttl:24h}") Duration memoryTtl,
+                            @Value("${geocoding.cache.db-ttl:90d}") Duration dbTtl) {
         this.restTemplate = restTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.offlineReverseGeocoder = offlineReverseGeocoder;
+        this.geocodeCacheRepository = geocodeCacheRepository;
+        this.cellPrecision = cellPrecision;
+        this.dbTtl = dbTtl;
+        this.memoryCache = Caffeine.newBuilder()
+                .maximumSize(memoryMaxSize)
+                .expireAfterWrite(memoryTtl)
+                .build();
+
+        this.offlineHits = lookupCounter(meterRegistry, "offline");
+        this.memoryHits = lookupCounter(meterRegistry, "memory");
+        this.dbHits = lookupCounter(meterRegistry, "db");
+        this.apiCalls = lookupCounter(meterRegistry, "api");
+        this.apiFailures = Counter.builder("diarypic.geocoding.api.failures")
+                .description("주소를 얻지 못한 Google Geocoding API 호출 수 (결과 없음 + 일시적 실패)")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("diarypic.geocoding.coalesced")
+                .description("진행 중인 같은 셀 조회에 합류해 DB/API 호출을 생략한 조회 수")
+                .register(meterRegistry);
+        this.apiLatencyOk = apiLatencyTimer(meterRegistry, "ok");
+        this.apiLatencyNoResult = apiLatencyTimer(meterRegistry, "no_result");
+        this.apiLatencyError = apiLatencyTimer(meterRegistry, "error");
+    }
+
+    private static Timer apiLatencyTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("diarypic.geocoding.api.latency")
+                .description("Google Geocoding API 호출 시간")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("diarypic.geocoding.lookups")
+                .description("역지오코딩 조회 수 (응답한 계층별)")
+                .tag("source", source)
+                .register(meterRegistry);
     }
 
     @Getter
@@ -36,7 +118,144 @@ public class GeocodingService {
         private final String locality;         // 시/군/구 또는 도시 (한국어)
     }
 
+    /**
+     * 오프라인 경계 인덱스가 커버하는 좌표는 JVM 안에서 바로 답한다.
+     * 그 밖의 좌표는 geohash 셀 캐시를 거쳐, 캐시에 없을 때만 Google API 를 호출한다. 실패한 조회(null)는 캐시하지 않는다.
+     */
     public ParsedAddress getParsedAddressFromCoordinates(double latitude, double longitude) {
+        try {
+            return resolveAddress(latitude, longitude);
+        } catch (GeocodingUnavailableException e) {
+            return null;
+        }
+    }
+
+    /**
+     * JVM 안에서 바로 답할 수 있는 경우(오프라인 인덱스, 메모리 캐시)에만 주소를 돌려주고, 그 외에는 null.
+     * DB 나 외부 API 를 기다리면 안 되는 업로드 경로에서 쓴다.
+     */
+    public ParsedAddress findLocalAddress(double latitude, double longitude) {
+        ParsedAddress offline = offlineReverseGeocoder.lookup(latitude, longitude);
+        if (offline != null) {
+            offlineHits.increment();
+            return offline;
+        }
+        ParsedAddress cached = memoryCache.getIfPresent(GeoHash.encode(latitude, longitude, cellPrecision));
+        if (cached != null) {
+            memoryHits.increment();
+        }
+        return cached;
+    }
+
+    /**
+     * getParsedAddressFromCoordinates 와 같지만, 일시적인 실패는 GeocodingUnavailableException 으로 알려준다.
+     * null 은 해당 좌표에 주소가 없다는 뜻이므로 다시 시도할 필요가 없다.
+     */
+    public ParsedAddress resolveAddress(double latitude, double longitude) {
+        ParsedAddress local = findLocalAddress(latitude, longitude);
+        if (local != null) {
+            return local;
+        }
+
+        String cell = GeoHash.encode(latitude, longitude, cellPrecision);
+
+        CompletableFuture<ParsedAddress> call = new CompletableFuture<>();
+        CompletableFuture<ParsedAddress> existing = inFlight.putIfAbsent(cell, call);
+        if (existing != null) {
+            coalesced.increment();
+            return awaitInFlight(existing);
+        }
+        try {
+            ParsedAddress address = lookupRemote(cell, latitude, longitude);
+            call.complete(address);
+            return address;
+        } catch (RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            // 메모리 캐시에 넣은 뒤에 빠지므로, 이후 요청은 캐시에서 바로 찾는다.
+            inFlight.remove(cell, call);
+        }
+    }
+
+    private static ParsedAddress awaitInFlight(CompletableFuture<ParsedAddress> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private ParsedAddress lookupRemote(String cell, double latitude, double longitude) {
+        Optional<GeocodeCacheEntry> stored = findStored(cell);
+        if (stored.isPresent()) {
+            GeocodeCacheEntry entry = stored.get();
+            ParsedAddress address = new ParsedAddress(entry.getFormattedAddress(), entry.getCountryName(),
+                    entry.getAdminAreaLevel1(), entry.getLocality());
+            memoryCache.put(cell, address);
+            dbHits.increment();
+            return address;
+        }
+
+        // 오류율이 높으면 API 를 부르지 않고 바로 "지금은 주소 없음" 으로 처리한다.
+        if (!circuitBreaker.tryAcquire()) {
+            throw new GeocodingUnavailableException("Geocoding API 서킷이 열려 있습니다.");
+        }
+        apiCalls.increment();
+        long start = System.nanoTime();
+        ParsedAddress address;
+        try {
+            address = fetchFromApi(latitude, longitude);
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure();
+            apiFailures.increment();
+            apiLatencyError.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        circuitBreaker.onSuccess();
+        if (address == null) {
+            apiFailures.increment();
+            apiLatencyNoResult.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return null;
+        }
+        apiLatencyOk.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        memoryCache.put(cell, address);
+        store(cell, address);
+        return address;
+    }
+
+    private Optional<GeocodeCacheEntry> findStored(String cell) {
+        try {
+            return geocodeCacheRepository.findByCell(cell)
+                    .filter(entry -> entry.getFetchedAt().isAfter(LocalDateTime.now().minus(dbTtl)));
+        } catch (Exception e) {
+            log.warn("주소 캐시 조회 실패, API 로 조회합니다: cell={}, 오류={}", cell, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void store(String cell, ParsedAddress address) {
+        try {
+            GeocodeCacheEntry entry = geocodeCacheRepository.findByCell(cell)
+                    .orElseGet(() -> GeocodeCacheEntry.builder().cell(cell).build());
+            entry.setFormattedAddress(address.getFormattedAddress());
+            entry.setCountryName(address.getCountryName());
+            entry.setAdminAreaLevel1(address.getAdminAreaLevel1());
+            entry.setLocality(address.getLocality());
+            entry.setFetchedAt(LocalDateTime.now());
+            geocodeCacheRepository.save(entry);
+        } catch (DataIntegrityViolationException e) {
+            // 같은 셀을 다른 요청이 먼저 저장했다. 어느 쪽 주소든 셀 대표값으로 충분하다.
+            log.debug("주소 캐시 동시 저장 무시: cell={}", cell);
+        } catch (Exception e) {
+            log.warn("주소 캐시 저장 실패: cell={}, 오류={}", cell, e.getMessage());
+        }
+    }
+
+    private ParsedAddress fetchFromApi(double latitude, double longitude) {
         UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(GEOCODING_API_URL)
                 .queryParam("latlng", latitude + "," + longitude)
                 .queryParam("key", apiKey)
@@ -76,13 +295,20 @@ public class GeocodingService {
                         formattedAddress, country, adminArea1, local);
                 return new ParsedAddress(formattedAddress, country, adminArea1, local);
             } else {
+                String status = response != null ? response.getStatus() : "N/A";
                 log.warn("Geocoding API로부터 유효한 주소를 받지 못했습니다. Status: {}, Lat: {}, Lng: {}",
-                        response != null ? response.getStatus() : "N/A", latitude, longitude);
-                return null;
+                        status, latitude, longitude);
+                // ZERO_RESULTS / INVALID_REQUEST 는 다시 물어도 같은 결과다. 그 외(쿼터 초과, 서버 오류 등)는 재시도 대상.
+                if ("ZERO_RESULTS".equals(status) || "INVALID_REQUEST".equals(status)) {
+                    return null;
+                }
+                throw new GeocodingUnavailableException("Geocoding API 응답 상태: " + status);
             }
+        } catch (GeocodingUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Geocoding API 호출 중 오류 발생: Lat={}, Lng={}", latitude, longitude, e);
-            return null;
+            throw new GeocodingUnavailableException("Geocoding API 호출 실패", e);
         }
     }
 }
\ No newline at end of file
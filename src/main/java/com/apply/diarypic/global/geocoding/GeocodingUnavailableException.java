@@ -0,0 +1,15 @@
+package com.apply.diarypic.global.geocoding;
+
+/**
+ * 주소를 "알 수 없는" 것이 아니라 지금 조회할 수 없는 경우 (네트워크 오류, 쿼터 초과 등). 나중에 다시 시도할 수 있다.
+ */
+public class GeocodingUnavailableException extends RuntimeException {
+
+    public GeocodingUnavailableException(String message) {
+        super(message);
+    }
+
+    public GeocodingUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,239 @@
+package com.apply.diarypic.global.geocoding;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 행정구역 경계 GeoJSON 을 메모리 격자 인덱스로 올려두고 점이 속한 구역을 찾는다.
+ * 격자 칸 → 후보 구역 → bbox → 점-다각형 판정 순서라 조회 한 번에 다각형 몇 개만 검사한다.
+ * 경계 파일이 없거나 읽지 못하면 항상 null 을 돌려주고, 호출자는 원격 API 로 넘어간다.
+ */
+@Slf4j
+@Component
+public class OfflineReverseGeocoder {
+
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+
+    @Value("${geocoding.offline.boundaries:classpath:geo/kr-sigungu.geojson}")
+    private String boundariesLocation;
+
+    @Value("${geocoding.offline.grid-cell-degrees:0.05}")
+    private double cellDegrees;
+
+    @Value("${geocoding.offline.default-country:대한민국}")
+    private String defaultCountry;
+
+    @Value("${geocoding.offline.properties.country:country}")
+    private String countryProperty;
+
+    @Value("${geocoding.offline.properties.admin-area-level1:adminAreaLevel1}")
+    private String adminAreaLevel1Property;
+
+    @Value("${geocoding.offline.properties.locality:locality}")
+    private String localityProperty;
+
+    private volatile List<Region> regions = List.of();
+    private volatile Map<Long, int[]> grid = Map.of();
+
+    public OfflineReverseGeocoder(ResourceLoader resourceLoader, ObjectMapper objectMapper) {
+        this.resourceLoader = resourceLoader;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 구역 하나. rings 는 외곽선과 구멍을 구분하지 않고 [lng0, lat0, lng1, lat1, ...] 로 담으며 even-odd 규칙으로 판정한다.
+     */
+    private record Region(GeocodingService.ParsedAddress address, List<double[]> rings,
+                          double minLng, double minLat, double maxLng, double maxLat) {
+
+        boolean contains(double lng, double lat) {
+            if (lng < minLng || lng > maxLng || lat < minLat || lat > maxLat) {
+                return false;
+            }
+            boolean inside = false;
+            for (double[] ring : rings) {
+                int n = ring.length / 2;
+                for (int i = 0, j = n - 1; i < n; j = i++) {
+                    double xi = ring[2 * i], yi = ring[2 * i + 1];
+                    double xj = ring[2 * j], yj = ring[2 * j + 1];
+                    if ((yi > lat) != (yj > lat) && lng < (xj - xi) * (lat - yi) / (yj - yi) + xi) {
+                        inside = !inside;
+                    }
+                }
+            }
+            return inside;
+        }
+
+        double bboxArea() {
+            return (maxLng - minLng) * (maxLat - minLat);
+        }
+    }
+
+    @PostConstruct
+    void load() {
+        if (!StringUtils.hasText(boundariesLocation)) {
+            log.info("오프라인 역지오코더: 경계 파일이 설정되지 않아 비활성화합니다.");
+            return;
+        }
+        Resource resource = resourceLoader.getResource(boundariesLocation);
+        if (!resource.exists()) {
+            // 기본 위치(classpath)는 파일을 빌드에 넣었을 때만 있다.
+            if (boundariesLocation.startsWith(ResourceLoader.CLASSPATH_URL_PREFIX)) {
+                log.info("오프라인 역지오코더: 경계 파일이 포함되지 않아 비활성화합니다: {}", boundariesLocation);
+            } else {
+                log.warn("오프라인 역지오코더: 경계 파일을 찾을 수 없습니다: {}", boundariesLocation);
+            }
+            return;
+        }
+
+        long start = System.nanoTime();
+        try (InputStream in = resource.getInputStream()) {
+            JsonNode features = objectMapper.readTree(in).path("features");
+            List<Region> loaded = new ArrayList<>();
+            for (JsonNode feature : features) {
+                Region region = toRegion(feature);
+                if (region != null) {
+                    loaded.add(region);
+                }
+            }
+            Map<Long, int[]> index = buildGrid(loaded);
+            this.regions = List.copyOf(loaded);
+            this.grid = index;
+            log.info("오프라인 역지오코더: 구역 {}개, 격자 칸 {}개 로드 ({}ms)",
+                    loaded.size(), index.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.error("오프라인 역지오코더: 경계 파일 로드 실패: {}", boundariesLocation, e);
+        }
+    }
+
+    public boolean isLoaded() {
+        return !regions.isEmpty();
+    }
+
+    /**
+     * 좌표가 속한 구역의 주소. 커버리지 밖이면 null. 구역이 겹치면 bbox 가 가장 작은(가장 세밀한) 구역을 고른다.
+     */
+    public GeocodingService.ParsedAddress lookup(double latitude, double longitude) {
+        int[] candidates = grid.get(cellKey(longitude, latitude));
+        if (candidates == null) {
+            return null;
+        }
+        List<Region> snapshot = regions;
+        Region best = null;
+        for (int idx : candidates) {
+            Region region = snapshot.get(idx);
+            if (region.contains(longitude, latitude) && (best == null || region.bboxArea() < best.bboxArea())) {
+                best = region;
+            }
+        }
+        return best != null ? best.address() : null;
+    }
+
+    private Region toRegion(JsonNode feature) {
+        JsonNode geometry = feature.path("geometry");
+        List<double[]> rings = new ArrayList<>();
+        switch (geometry.path("type").asText()) {
+            case "Polygon" -> addRings(geometry.path("coordinates"), rings);
+            case "MultiPolygon" -> geometry.path("coordinates").forEach(polygon -> addRings(polygon, rings));
+            default -> {
+                return null;
+            }
+        }
+        if (rings.isEmpty()) {
+            return null;
+        }
+
+        double minLng = Double.MAX_VALUE, minLat = Double.MAX_VALUE;
+        double maxLng = -Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+        for (double[] ring : rings) {
+            for (int i = 0; i < ring.length; i += 2) {
+                minLng = Math.min(minLng, ring[i]);
+                maxLng = Math.max(maxLng, ring[i]);
+                minLat = Math.min(minLat, ring[i + 1]);
+                maxLat = Math.max(maxLat, ring[i + 1]);
+            }
+        }
+
+        JsonNode properties = feature.path("properties");
+        String country = textOrNull(properties, countryProperty);
+        if (country == null) {
+            country = defaultCountry;
+        }
+        String adminAreaLevel1 = textOrNull(properties, adminAreaLevel1Property);
+        String locality = textOrNull(properties, localityProperty);
+        String formattedAddress = Stream.of(country, adminAreaLevel1, locality)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.joining(" "));
+
+        GeocodingService.ParsedAddress address =
+                new GeocodingService.ParsedAddress(formattedAddress, country, adminAreaLevel1, locality);
+        return new Region(address, rings, minLng, minLat, maxLng, maxLat);
+    }
+
+    private static void addRings(JsonNode polygon, List<double[]> rings) {
+        for (JsonNode ring : polygon) {
+            double[] coords = new double[ring.size() * 2];
+            for (int i = 0; i < ring.size(); i++) {
+                coords[2 * i] = ring.get(i).get(0).asDouble();
+                coords[2 * i + 1] = ring.get(i).get(1).asDouble();
+            }
+            if (coords.length >= 6) {
+                rings.add(coords);
+            }
+        }
+    }
+
+    private static String textOrNull(JsonNode properties, String name) {
+        JsonNode value = properties.get(name);
+        return value != null && StringUtils.hasText(value.asText()) ? value.asText() : null;
+    }
+
+    private Map<Long, int[]> buildGrid(List<Region> loaded) {
+        Map<Long, List<Integer>> cells = new HashMap<>();
+        for (int idx = 0; idx < loaded.size(); idx++) {
+            Region region = loaded.get(idx);
+            long minCol = column(region.minLng()), maxCol = column(region.maxLng());
+            long minRow = row(region.minLat()), maxRow = row(region.maxLat());
+            for (long r = minRow; r <= maxRow; r++) {
+                for (long c = minCol; c <= maxCol; c++) {
+                    cells.computeIfAbsent(key(r, c), k -> new ArrayList<>()).add(idx);
+                }
+            }
+        }
+        Map<Long, int[]> index = new HashMap<>(cells.size() * 2);
+        cells.forEach((k, list) -> index.put(k, list.stream().mapToInt(Integer::intValue).toArray()));
+        return index;
+    }
+
+    private long cellKey(double lng, double lat) {
+        return key(row(lat), column(lng));
+    }
+
+    private long column(double lng) {
+        return (long) Math.floor((lng + 180.0) / cellDegrees);
+    }
+
+    private long row(double lat) {
+        return (long) Math.floor((lat + 90.0) / cellDegrees);
+    }
+
+    private static long key(long row, long column) {
+        return (row << 32) | column;
+    }
+}
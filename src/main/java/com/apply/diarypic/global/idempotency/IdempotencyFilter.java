@@ -0,0 +1,410 @@
+package com.apply.diarypic.global.idempotency;
+
+import com.apply.diarypic.global.security.UserPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 비용이 큰 생성 요청(AI 일기 생성/수정, 사진 업로드)의 Idempotency-Key 처리. 같은 키로 다시 온 요청은
+ * 실행하지 않고 처음 요청의 응답을 그대로 돌려받으며, 처음 요청이 아직 실행 중이면 409 + Retry-After 를 받는다.
+ * 성공(2xx) 응답만 저장한다. 실패하면 키를 놓아 재시도가 다시 실행되게 한다.
+ *
+ * 같은 키로 다른 요청을 보내면 422 를 돌려준다. 요청 비교에는 메서드, 경로, 본문을 쓴다. 본문은 규칙마다 읽는 방법이
+ * 다르다 (Rule.Body). 응답을 버퍼에 모아 저장하므로 SSE 같은 비동기 응답에는 등록하지 않는다.
+ * 본문을 읽기 전에 입장 제어(AdmissionFilter)를 통과하도록 그 뒤에 등록한다.
+ */
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 100;
+
+    /**
+     * 본문 해시 방법. CONTENT 는 본문을 메모리에 읽어 해시한다 (maxRequestBytes 를 넘으면 413). PARTS 는 서블릿 컨테이너가 임시 파일로 받아 둔
+     * multipart 파트를 하나씩 읽어 해시한다. STREAM 은 컨트롤러가 본문을 직접 스트리밍하므로 미리 읽지 않고,
+     * 실행하면서 흘러가는 바이트를 해시한다. 이 경우 같은 키의 재요청은 본문을 끝까지 읽어 저장된 해시와 비교한다.
+     */
+    public enum Body { CONTENT, PARTS, STREAM }
+
+    public record Rule(String method, String pattern, Body body) {
+        public Rule(String method, String pattern) {
+            this(method, pattern, Body.CONTENT);
+        }
+    }
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<Rule> rules;
+    private final IdempotencyService idempotencyService;
+    private final long maxRequestBytes;
+    private final long maxResponseBytes;
+    private final Duration retryAfter;
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyFilter(List<Rule> rules, IdempotencyService idempotencyService, long maxRequestBytes,
+                             long maxResponseBytes, Duration retryAfter, ObjectMapper objectMapper) {
+        this.rules = rules;
+        this.idempotencyService = idempotencyService;
+        this.maxRequestBytes = maxRequestBytes;
+        this.maxResponseBytes = maxResponseBytes;
+        this.retryAfter = retryAfter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getHeader(KEY_HEADER);
+        Long userId = currentUserId();
+        Rule rule = key == null || key.isBlank() || userId == null ? null : match(request);
+        if (rule == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST, KEY_HEADER + " 는 " + MAX_KEY_LENGTH + "자 이하여야 합니다.");
+            return;
+        }
+
+        MessageDigest digest = requestDigest(request);
+        HttpServletRequest target = request;
+        switch (rule.body()) {
+            case CONTENT -> {
+                byte[] body = readBody(request);
+                if (body == null) {
+                    writeError(request, response, HttpStatus.PAYLOAD_TOO_LARGE,
+                            "요청 본문이 너무 큽니다. 최대 " + maxRequestBytes + " 바이트까지 허용됩니다.");
+                    return;
+                }
+                digest.update(body);
+                target = new CachedBodyRequest(request, body);
+            }
+            case PARTS -> {
+                try {
+                    digestParts(request, digest);
+                } catch (IllegalStateException e) {
+                    // 서블릿 컨테이너의 multipart 크기 제한 초과
+                    writeError(request, response, HttpStatus.PAYLOAD_TOO_LARGE, "업로드 크기 제한을 초과했습니다.");
+                    return;
+                } catch (ServletException e) {
+                    writeError(request, response, HttpStatus.BAD_REQUEST, "multipart 요청을 해석할 수 없습니다.");
+                    return;
+                }
+            }
+            case STREAM -> {
+                // 본문은 실행하면서 해시한다. 여기서는 본문을 뺀 임시 해시로 키를 잡는다.
+                String provisionalHash = hex(requestDigest(request));
+                begin(userId, key, provisionalHash, false, request, new HashingRequest(request, digest), digest, response, filterChain);
+                return;
+            }
+        }
+        begin(userId, key, hex(digest), true, request, target, null, response, filterChain);
+    }
+
+    private void begin(Long userId, String key, String requestHash, boolean hashed, HttpServletRequest request,
+                       HttpServletRequest target, MessageDigest streamDigest, HttpServletResponse response,
+                       FilterChain filterChain) throws ServletException, IOException {
+        IdempotencyService.Decision decision = idempotencyService.begin(userId, key, requestHash, hashed);
+        if (decision.outcome() == IdempotencyService.Outcome.VERIFY) {
+            drain(target);
+            decision = idempotencyService.verify(decision.record(), hex(streamDigest));
+        }
+        switch (decision.outcome()) {
+            case REPLAY -> replay(decision.record(), response);
+            case MISMATCH -> writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "같은 " + KEY_HEADER + " 로 다른 요청을 보냈습니다. 새 요청에는 새 키를 사용해주세요.");
+            case CONFLICT -> {
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, retryAfter.toSeconds())));
+                writeError(request, response, HttpStatus.CONFLICT, "같은 요청을 아직 처리 중입니다. 잠시 후 다시 시도해주세요.");
+            }
+            case EXECUTE -> execute(decision.record(), hashed ? requestHash : null, target, streamDigest, response, filterChain);
+            case VERIFY -> throw new IllegalStateException("verify 후에는 VERIFY 가 나올 수 없습니다.");
+        }
+    }
+
+    /**
+     * requestHash 가 null 이면 실행하며 흘러간 본문으로 해시를 구한다. 컨트롤러가 읽지 않은 나머지(마지막 경계 뒤 등)도
+     * 재요청과 같은 값이 되도록 끝까지 읽어 해시에 넣는다.
+     */
+    private void execute(IdempotencyRecord record, String requestHash, HttpServletRequest request, MessageDigest streamDigest,
+                         HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (requestHash == null && isStorable(request, wrapper)) {
+                drain(request);
+                requestHash = hex(streamDigest);
+            }
+            stored = store(record, requestHash, request, wrapper);
+            wrapper.copyBodyToResponse();
+        } finally {
+            if (!stored) {
+                idempotencyService.release(record);
+            }
+        }
+    }
+
+    private static boolean isStorable(HttpServletRequest request, ContentCachingResponseWrapper wrapper) {
+        int status = wrapper.getStatus();
+        return !request.isAsyncStarted() && status >= 200 && status < 300;
+    }
+
+    private boolean store(IdempotencyRecord record, String requestHash, HttpServletRequest request,
+                          ContentCachingResponseWrapper wrapper) {
+        if (requestHash == null || !isStorable(request, wrapper)) {
+            return false;
+        }
+        byte[] body = wrapper.getContentAsByteArray();
+        if (body.length > maxResponseBytes) {
+            log.warn("응답이 너무 커서 Idempotency-Key 응답을 저장하지 않습니다. URI: {}, 크기: {}", request.getRequestURI(), body.length);
+            return false;
+        }
+        try {
+            idempotencyService.complete(record, requestHash, wrapper.getStatus(), wrapper.getContentType(), body);
+            return true;
+        } catch (Exception e) {
+            log.error("Idempotency-Key 응답 저장 실패. URI: {}, 오류: {}", request.getRequestURI(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void replay(IdempotencyRecord record, HttpServletResponse response) throws IOException {
+        byte[] body = record.getResponseBody() != null ? record.getResponseBody() : new byte[0];
+        response.setStatus(record.getResponseStatus());
+        if (record.getResponseContentType() != null) {
+            response.setContentType(record.getResponseContentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private Rule match(HttpServletRequest request) {
+        String path = path(request);
+        for (Rule rule : rules) {
+            if (rule.method().equalsIgnoreCase(request.getMethod()) && pathMatcher.match(rule.pattern(), path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static MessageDigest requestDigest(HttpServletRequest request) {
+        MessageDigest digest = sha256();
+        digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+        digest.update(path(request).getBytes(StandardCharsets.UTF_8));
+        return digest;
+    }
+
+    /**
+     * 본문을 maxRequestBytes 까지만 읽는다. 넘으면 null. Content-Length 가 이미 넘으면 읽지 않는다.
+     */
+    private byte[] readBody(HttpServletRequest request) throws IOException {
+        if (request.getContentLengthLong() > maxRequestBytes) {
+            return null;
+        }
+        byte[] body = request.getInputStream().readNBytes((int) Math.min(Integer.MAX_VALUE - 8, maxRequestBytes + 1));
+        return body.length > maxRequestBytes ? null : body;
+    }
+
+    /**
+     * 파트마다 이름, 파일명, Content-Type, 내용을 순서대로 해시한다. 파트는 컨테이너가 이미 임시 파일로 받아 두었으므로
+     * 메모리에 올리지 않고 스트림으로 읽는다. 컨트롤러는 같은 파트를 다시 받는다.
+     */
+    private static void digestParts(HttpServletRequest request, MessageDigest digest) throws IOException, ServletException {
+        for (Part part : request.getParts()) {
+            for (String field : new String[]{part.getName(), part.getSubmittedFileName(), part.getContentType()}) {
+                digest.update(String.valueOf(field).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            try (InputStream in = part.getInputStream()) {
+                in.transferTo(new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+            }
+            digest.update((byte) 0);
+        }
+    }
+
+    private static void drain(HttpServletRequest request) throws IOException {
+        request.getInputStream().transferTo(OutputStream.nullOutputStream());
+    }
+
+    private static String hex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getUserId();
+        }
+        return null;
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response,
+                            HttpStatus status, String message) throws IOException {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", System.currentTimeMillis());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+        body.put("path", request.getRequestURI());
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    /**
+     * 컨트롤러가 읽는 본문 바이트를 그대로 해시에 넣는다.
+     */
+    private static final class HashingRequest extends HttpServletRequestWrapper {
+
+        private final MessageDigest digest;
+        private ServletInputStream inputStream;
+
+        private HashingRequest(HttpServletRequest request, MessageDigest digest) {
+            super(request);
+            this.digest = digest;
+        }
+
+        @Override
+        public synchronized ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                ServletInputStream in = super.getInputStream();
+                inputStream = new ServletInputStream() {
+                    @Override
+                    public boolean isFinished() {
+                        return in.isFinished();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return in.isReady();
+                    }
+
+                    @Override
+                    public void setReadListener(ReadListener readListener) {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    public int read() throws IOException {
+                        int b = in.read();
+                        if (b != -1) {
+                            digest.update((byte) b);
+                        }
+                        return b;
+                    }
+
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        int read = in.read(b, off, len);
+                        if (read > 0) {
+                            digest.update(b, off, read);
+                        }
+                        return read;
+                    }
+                };
+            }
+            return inputStream;
+        }
+    }
+
+    /**
+     * 요청 비교를 위해 미리 읽은 본문을 컨트롤러가 다시 읽을 수 있게 한다.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
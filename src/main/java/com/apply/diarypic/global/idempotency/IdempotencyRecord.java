@@ -0,0 +1,66 @@
+package com.apply.diarypic.global.idempotency;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency-Key 하나의 실행 기록. 처음 도착한 요청이 IN_PROGRESS 로 만들고, 성공 응답을 저장하며 COMPLETED 가 된다.
+ * 같은 키로 다시 온 요청은 저장된 응답을 그대로 돌려받는다. 키는 사용자 단위이다.
+ */
+@Entity
+@Table(name = "idempotency_keys", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"user_id", "idempotency_key"})
+})
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    public enum Status { IN_PROGRESS, COMPLETED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "idempotency_key_seq")
+    @SequenceGenerator(name = "idempotency_key_seq", sequenceName = "idempotency_keys_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 100)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash; // 메서드 + 경로 + 본문의 SHA-256. 같은 키로 다른 요청을 보내면 거절한다 (스트리밍 요청은 완료 시 채운다)
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    private Integer responseStatus;
+
+    @Column(length = 100)
+    private String responseContentType;
+
+    @Lob
+    @Column(columnDefinition = "LONGBLOB")
+    private byte[] responseBody;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+}
@@ -0,0 +1,48 @@
+package com.apply.diarypic.global.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    /**
+     * 실행 중인 채로 오래 멈춘 기록(서버 중단 등)을 가져온다. 여러 요청이 동시에 시도해도 하나만 성공한다.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE IdempotencyRecord r SET r.updatedAt = :now, r.expiresAt = :expiresAt " +
+            "WHERE r.id = :id AND r.status = 'IN_PROGRESS' AND r.updatedAt < :staleBefore")
+    int takeOver(@Param("id") Long id, @Param("now") LocalDateTime now,
+                 @Param("expiresAt") LocalDateTime expiresAt, @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE IdempotencyRecord r SET r.status = 'COMPLETED', r.requestHash = :requestHash, r.responseStatus = :status, " +
+            "r.responseContentType = :contentType, r.responseBody = :body, r.updatedAt = :now " +
+            "WHERE r.id = :id AND r.status = 'IN_PROGRESS'")
+    int complete(@Param("id") Long id, @Param("requestHash") String requestHash, @Param("status") int status,
+                 @Param("contentType") String contentType, @Param("body") byte[] body, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.status = 'IN_PROGRESS'")
+    int release(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.expiresAt < :now")
+    int deleteIfExpired(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,156 @@
+package com.apply.diarypic.global.idempotency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Idempotency-Key 의 실행권을 나눠 준다. 키마다 처음 온 요청 하나만 실행한다. 그동안 같은 키로 온 요청은
+ * 기다리지 않고 바로 CONFLICT 를 받아 Retry-After 뒤 다시 시도하며, 실행이 끝난 뒤에는 저장된 응답을 받는다.
+ *
+ * 본문을 미리 읽을 수 없는 스트리밍 요청은 본문 해시 없이(hashed=false) 시작한다. 실행한 요청의 본문 해시는
+ * complete 에서 저장하고, 다시 온 요청은 VERIFY 를 받아 본문을 읽은 뒤 verify 로 저장된 해시와 비교한다.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public enum Outcome {
+        EXECUTE,  // 이 요청이 실행한다. 끝나면 complete 또는 release 를 호출해야 한다
+        REPLAY,   // 저장된 응답을 돌려준다
+        VERIFY,   // 저장된 응답이 있다. 본문 해시를 구해 verify 를 호출해야 한다 (hashed=false 로 begin 한 경우)
+        MISMATCH, // 같은 키로 다른 요청이 왔다
+        CONFLICT  // 먼저 온 요청이 아직 실행 중이다
+    }
+
+    public record Decision(Outcome outcome, IdempotencyRecord record) {
+    }
+
+    private final IdempotencyRecordRepository repository;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter mismatched;
+    private final Counter conflicted;
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              MeterRegistry meterRegistry,
+                              @Value("${idempotency.ttl:24h}") Duration ttl,
+                              @Value("${idempotency.lock-timeout:5m}") Duration lockTimeout) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+
+        this.executed = requestCounter(meterRegistry, "executed");
+        this.replayed = requestCounter(meterRegistry, "replayed");
+        this.mismatched = requestCounter(meterRegistry, "mismatch");
+        this.conflicted = requestCounter(meterRegistry, "conflict");
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("diarypic.idempotency.requests")
+                .description("Idempotency-Key 가 붙은 요청 수 (처리 결과별)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 실행권을 얻거나 저장된 응답을 찾는다. 요청 스레드를 막지 않는다.
+     * hashed 가 false 면 requestHash 는 본문을 뺀 임시 해시다. 해시 비교를 미루고, 완료된 키에는 VERIFY 를 준다.
+     */
+    public Decision begin(Long userId, String key, String requestHash, boolean hashed) {
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            Optional<IdempotencyRecord> existing = repository.findByUserIdAndIdempotencyKey(userId, key);
+            if (existing.isEmpty()) {
+                IdempotencyRecord created = tryInsert(userId, key, requestHash, now);
+                if (created != null) {
+                    return execute(created);
+                }
+                continue; // 같은 키의 다른 요청이 먼저 만들었다
+            }
+
+            IdempotencyRecord record = existing.get();
+            if (record.getExpiresAt().isBefore(now)) {
+                repository.deleteIfExpired(record.getId(), now); // 정리 스케줄러가 지우기 전의 만료 기록
+                continue;
+            }
+            if (record.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                return hashed ? verify(record, requestHash) : new Decision(Outcome.VERIFY, record);
+            }
+            if (hashed && !record.getRequestHash().equals(requestHash)) {
+                mismatched.increment();
+                return new Decision(Outcome.MISMATCH, record);
+            }
+            if (record.getUpdatedAt().isBefore(now.minus(lockTimeout))
+                    && repository.takeOver(record.getId(), now, now.plus(ttl), now.minus(lockTimeout)) == 1) {
+                log.warn("{} 넘게 처리 중인 Idempotency-Key 를 다시 실행합니다. userId: {}, key: {}", lockTimeout, userId, key);
+                return execute(record);
+            }
+            conflicted.increment();
+            return new Decision(Outcome.CONFLICT, record);
+        }
+    }
+
+    /**
+     * 완료된 기록과 요청 해시를 비교해 저장된 응답을 돌려줄지 정한다.
+     */
+    public Decision verify(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            mismatched.increment();
+            return new Decision(Outcome.MISMATCH, record);
+        }
+        replayed.increment();
+        return new Decision(Outcome.REPLAY, record);
+    }
+
+    /**
+     * 성공 응답과 실행한 요청의 해시를 저장한다.
+     */
+    public void complete(IdempotencyRecord record, String requestHash, int status, String contentType, byte[] body) {
+        repository.complete(record.getId(), requestHash, status, contentType, body, LocalDateTime.now());
+    }
+
+    /**
+     * 응답을 저장하지 않고 키를 놓는다. 같은 키로 다시 오면 처음부터 실행한다.
+     */
+    public void release(IdempotencyRecord record) {
+        try {
+            repository.release(record.getId());
+        } catch (Exception e) {
+            log.error("Idempotency-Key 해제 실패 (lock-timeout 후 다시 실행 가능). id: {}, 오류: {}", record.getId(), e.getMessage());
+        }
+    }
+
+    public int deleteExpired() {
+        return repository.deleteExpired(LocalDateTime.now());
+    }
+
+    private IdempotencyRecord tryInsert(Long userId, String key, String requestHash, LocalDateTime now) {
+        try {
+            return repository.saveAndFlush(IdempotencyRecord.builder()
+                    .userId(userId)
+                    .idempotencyKey(key)
+                    .requestHash(requestHash)
+                    .status(IdempotencyRecord.Status.IN_PROGRESS)
+                    .expiresAt(now.plus(ttl))
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            return null;
+        }
+    }
+
+    private Decision execute(IdempotencyRecord record) {
+        executed.increment();
+        return new Decision(Outcome.EXECUTE, record);
+    }
+}
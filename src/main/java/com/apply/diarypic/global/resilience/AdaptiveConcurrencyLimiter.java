@@ -0,0 +1,246 @@
+package com.apply.diarypic.global.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 관측한 응답 시간으로 동시 호출 상한을 조절한다 (AIMD).
+ * 응답 시간이 무부하 응답 시간의 tolerance 배 이내면 상한을 조금씩(호출마다 1/limit) 올리고,
+ * 그보다 느리거나 호출이 실패(타임아웃, 5xx)하면 backoffRatio 를 곱해 줄인다. 줄이는 것은 응답 시간 한 번에 한 번까지만.
+ * 무부하 응답 시간은 관측한 최소값이고, probeSamples 번마다 최근 구간의 최소값으로 다시 잡아 서버 성능 변화를 따라간다.
+ *
+ * 상한에 걸린 호출은 거절하지 않고 도착 순서대로 기다린다. AiWorkScheduler 보다 앞에 있어서, 기다리는 호출은
+ * 전역 실행 자리를 잡지 않는다. maxWait 안에 자리를 받지 못하면 TimeoutException 으로 끝난다.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final int probeSamples;
+    private final Duration maxWait;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // 자리를 기다리는 호출 (FIFO). inFlight 증가와 함께 waiters 로 동기화
+    private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+
+    // 아래 필드는 synchronized 로 갱신
+    private long noLoadRttNanos = Long.MAX_VALUE;
+    private long windowMinRttNanos = Long.MAX_VALUE;
+    private int windowSamples;
+    private long lastDecreaseAt;
+
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    private static final class Waiter {
+        private final MonoSink<Long> sink;
+        private final long enqueuedAt = System.nanoTime();
+        private final AtomicBoolean settled = new AtomicBoolean();
+        private Disposable expiry;
+
+        private Waiter(MonoSink<Long> sink) {
+            this.sink = sink;
+        }
+    }
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double tolerance, double backoffRatio, int probeSamples, Duration maxWait,
+                                      MeterRegistry meterRegistry) {
+        this.name = name;
+        this.minLimit = Math.max(minLimit, 1);
+        this.maxLimit = Math.max(maxLimit, this.minLimit);
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.probeSamples = Math.max(probeSamples, 1);
+        this.maxWait = maxWait;
+        this.limit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+        this.lastDecreaseAt = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+
+        Gauge.builder("diarypic.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("현재 동시 호출 상한")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("diarypic.concurrency.inflight", inFlight, AtomicInteger::get)
+                .description("처리 중인 호출 수")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("diarypic.concurrency.queued", this, AdaptiveConcurrencyLimiter::getQueued)
+                .description("상한에 걸려 자리를 기다리는 호출 수")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("diarypic.concurrency.wait")
+                .description("상한에 걸려 자리를 받기까지 기다린 시간")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("diarypic.concurrency.rejected")
+                .description("대기 시간 안에 자리를 받지 못해 거절된 호출 수")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 자리를 받으면 받은 시각(System.nanoTime)을 내보낸다. 자리가 없으면 먼저 기다린 호출부터 차례로 받는다.
+     * 값을 받은 호출자는 반드시 onSuccess / onDropped / onIgnored 중 하나를 호출해야 한다.
+     * 기다리는 중 취소하면 대기열에서 빠지고, 자리를 받는 순간 취소된 경우엔 자리를 돌려준다.
+     */
+    public Mono<Long> acquire() {
+        return Mono.<Long>create(sink -> {
+            Waiter waiter = new Waiter(sink);
+            boolean granted;
+            synchronized (waiters) {
+                granted = waiters.isEmpty() && inFlight.get() < getLimit();
+                if (granted) {
+                    inFlight.incrementAndGet();
+                    waiter.settled.set(true);
+                } else {
+                    waiters.addLast(waiter);
+                }
+            }
+            if (granted) {
+                waitTimer.record(0, TimeUnit.NANOSECONDS);
+                sink.success(System.nanoTime());
+                return;
+            }
+            sink.onCancel(() -> withdraw(waiter));
+            waiter.expiry = Schedulers.parallel().schedule(() -> {
+                if (withdraw(waiter)) {
+                    rejected.increment();
+                    log.warn("동시성 제한 [{}]: {} 동안 자리를 받지 못해 포기합니다.", name, maxWait);
+                    sink.error(new TimeoutException("동시성 제한 [" + name + "] 대기 시간을 초과했습니다."));
+                }
+            }, maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        }).doOnDiscard(Long.class, grantedAt -> onIgnored());
+    }
+
+    /**
+     * 아직 자리를 받지 않은 대기를 뺀다. 뺐으면 true.
+     */
+    private boolean withdraw(Waiter waiter) {
+        if (!waiter.settled.compareAndSet(false, true)) {
+            return false;
+        }
+        synchronized (waiters) {
+            waiters.remove(waiter);
+        }
+        if (waiter.expiry != null) {
+            waiter.expiry.dispose();
+        }
+        return true;
+    }
+
+    /**
+     * 정상 응답. rttNanos 로 상한을 조절한다.
+     */
+    public void onSuccess(long rttNanos) {
+        synchronized (this) {
+            sample(rttNanos);
+            if (rttNanos > noLoadRttNanos * tolerance) {
+                decrease(rttNanos);
+            } else {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        }
+        release();
+    }
+
+    /**
+     * 과부하로 보이는 실패 (타임아웃, 5xx, 연결 오류).
+     */
+    public void onDropped() {
+        synchronized (this) {
+            decrease(noLoadRttNanos == Long.MAX_VALUE ? 0 : noLoadRttNanos);
+        }
+        release();
+    }
+
+    /**
+     * 서버 상태와 무관하게 끝난 호출 (취소, 4xx). 자리만 돌려준다.
+     */
+    public void onIgnored() {
+        release();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getQueued() {
+        synchronized (waiters) {
+            return waiters.size();
+        }
+    }
+
+    /**
+     * 자리를 돌려주고, 상한 안에서 기다리던 호출에 차례로 넘긴다. 상한이 올랐으면 여러 개를 넘길 수 있다.
+     */
+    private void release() {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (waiters) {
+            inFlight.decrementAndGet();
+            while (!waiters.isEmpty() && inFlight.get() < getLimit()) {
+                Waiter next = waiters.pollFirst();
+                if (next.settled.compareAndSet(false, true)) {
+                    inFlight.incrementAndGet();
+                    granted.add(next);
+                }
+            }
+        }
+        long now = System.nanoTime();
+        for (Waiter waiter : granted) {
+            if (waiter.expiry != null) {
+                waiter.expiry.dispose();
+            }
+            waitTimer.record(now - waiter.enqueuedAt, TimeUnit.NANOSECONDS);
+            waiter.sink.success(now);
+        }
+    }
+
+    private void sample(long rttNanos) {
+        noLoadRttNanos = Math.min(noLoadRttNanos, rttNanos);
+        windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+        if (++windowSamples >= probeSamples) {
+            noLoadRttNanos = windowMinRttNanos;
+            windowMinRttNanos = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+    }
+
+    private void decrease(long rttNanos) {
+        long now = System.nanoTime();
+        if (now - lastDecreaseAt < rttNanos) {
+            return; // 같은 혼잡으로 몰려 온 응답들에 여러 번 줄이지 않는다.
+        }
+        lastDecreaseAt = now;
+        double previous = limit;
+        limit = Math.max(minLimit, limit * backoffRatio);
+        if ((int) previous != (int) limit) {
+            log.info("동시성 제한 [{}]: 상한 {} -> {}", name, (int) previous, (int) limit);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.apply.diarypic.global.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * 최근 windowSize 번의 호출 중 실패 비율이 임계값을 넘으면 openDuration 동안 호출을 막는다.
+ * 그 뒤 시험 호출 하나만 통과시켜(HALF_OPEN) 성공하면 닫고, 실패하면 다시 연다.
+ * 호출 빈도가 낮은 외부 API 용이라 상태 변경은 synchronized 로 단순하게 처리한다.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+
+    // 최근 호출 결과 링 버퍼 (true = 실패)
+    private final boolean[] outcomes;
+    private int position;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    private final Counter rejected;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.outcomes = new boolean[Math.max(windowSize, 1)];
+        this.minimumCalls = Math.min(Math.max(minimumCalls, 1), outcomes.length);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+
+        Gauge.builder("diarypic.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .description("서킷 상태 (0=CLOSED, 1=OPEN, 2=HALF_OPEN)")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("diarypic.circuit.rejected")
+                .description("서킷이 열려 있어 바로 실패 처리한 호출 수")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 호출해도 되면 true. true 를 받은 호출자는 반드시 onSuccess / onFailure / onIgnored 중 하나를 호출해야 한다.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openDurationNanos) {
+                rejected.increment();
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+            log.info("서킷 [{}] HALF_OPEN: 시험 호출을 허용합니다.", name);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                rejected.increment();
+                return false;
+            }
+            probeInFlight = true;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            log.info("서킷 [{}] CLOSED: 시험 호출 성공.", name);
+            reset(State.CLOSED);
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            log.warn("서킷 [{}] OPEN: 시험 호출 실패.", name);
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recorded >= minimumCalls
+                && (double) failures / recorded * 100.0 >= failureRateThreshold) {
+            log.warn("서킷 [{}] OPEN: 최근 {}회 중 {}회 실패.", name, recorded, failures);
+            open();
+        }
+    }
+
+    /**
+     * 서버 상태를 판단할 수 없이 끝난 호출 (취소, 4xx). 시험 호출이었다면 다음 시험 호출을 허용한다.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * OPEN 이면 시험 호출을 허용하기까지 남은 시간, 아니면 0.
+     */
+    public synchronized Duration getRemainingOpen() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        long remaining = openDurationNanos - (System.nanoTime() - openedAt);
+        return remaining > 0 ? Duration.ofNanos(remaining) : Duration.ZERO;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == outcomes.length) {
+            if (outcomes[position]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % outcomes.length;
+    }
+
+    private void open() {
+        reset(State.OPEN);
+        openedAt = System.nanoTime();
+    }
+
+    private void reset(State next) {
+        state = next;
+        probeInFlight = false;
+        position = 0;
+        recorded = 0;
+        failures = 0;
+        Arrays.fill(outcomes, false);
+    }
+}
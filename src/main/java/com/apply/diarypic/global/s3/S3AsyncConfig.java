@@ -0,0 +1,67 @@
+package com.apply.diarypic.global.s3;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.regions.providers.AwsRegionProvider;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
+
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class S3AsyncConfig {
+
+    /**
+     * 비동기 S3 클라이언트. threshold 를 넘는 객체는 자동으로 병렬 multipart 업로드된다.
+     * 인증 정보 / 리전은 spring-cloud-aws 가 만든 provider 를 그대로 사용한다.
+     */
+    @Bean(destroyMethod = "close")
+    public S3AsyncClient s3AsyncClient(AwsCredentialsProvider credentialsProvider,
+                                       AwsRegionProvider regionProvider,
+                                       @Value("${spring.cloud.aws.s3.endpoint:}") String endpoint,
+                                       @Value("${photo.s3.multipart.threshold:8MB}") DataSize threshold,
+                                       @Value("${photo.s3.multipart.part-size:5MB}") DataSize partSize) {
+        S3AsyncClientBuilder builder = S3AsyncClient.builder()
+                .credentialsProvider(credentialsProvider)
+                .region(regionProvider.getRegion())
+                .multipartEnabled(true)
+                .multipartConfiguration(MultipartConfiguration.builder()
+                        .thresholdInBytes(threshold.toBytes())
+                        .minimumPartSizeInBytes(partSize.toBytes())
+                        .build());
+        if (StringUtils.hasText(endpoint)) {
+            // 로컬 S3 호환 서버(MinIO 등) 사용 시
+            builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 업로드 파일의 InputStream 을 비동기 클라이언트 버퍼로 옮겨 담는 스레드 풀.
+     * 실제 네트워크 전송은 SDK 의 이벤트 루프에서 처리된다. 읽기 작업을 SDK 스레드가 제출하므로
+     * 가득 찼을 때 제출한 스레드가 직접 읽게 하면 이벤트 루프가 블로킹 읽기에 묶인다.
+     * 동시 업로드 수는 S3Uploader 가 시작 전에 풀 크기로 묶고, 그래도 넘치면 거절해 업로드를 실패시킨다.
+     */
+    @Bean(name = "s3TransferExecutor", destroyMethod = "shutdown")
+    public ExecutorService s3TransferExecutor(@Value("${photo.s3.transfer-pool-size:8}") int poolSize) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(poolSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "s3-transfer-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
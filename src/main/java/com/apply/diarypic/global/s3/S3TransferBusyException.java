@@ -0,0 +1,22 @@
+package com.apply.diarypic.global.s3;
+
+import java.time.Duration;
+
+/**
+ * 동시에 진행 중인 S3 업로드가 상한에 차서 새 업로드를 시작하지 못한 경우.
+ * retryAfter 는 다시 시도해 볼 만한 시점까지의 시간.
+ */
+public class S3TransferBusyException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public S3TransferBusyException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter != null && retryAfter.compareTo(Duration.ofSeconds(1)) >= 0
+                ? retryAfter : Duration.ofSeconds(1);
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -1,29 +1,82 @@
 package com.apply.diarypic.global.s3;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListPartsRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 import software.amazon.awssdk.core.sync.RequestBody;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
-@RequiredArgsConstructor
 @Component
 public class S3Uploader {
 
     private final S3Client s3Client;
+    private final S3Presigner s3Presigner;
+    private final S3AsyncClient s3AsyncClient;
+    private final ExecutorService s3TransferExecutor;
+    // 스트림 업로드는 끝날 때까지 전송 스레드 하나를 잡으므로 시작 전에 풀 크기만큼만 자리를 내준다.
+    private final Semaphore transferPermits;
+    private final Duration transferWait;
 
     @Value("${spring.cloud.aws.s3.bucket}")
     private String bucket;
 
+    @Value("${photo.s3.multipart.part-size:5MB}")
+    private DataSize multipartPartSize;
+
+    public S3Uploader(S3Client s3Client,
+                      S3Presigner s3Presigner,
+                      S3AsyncClient s3AsyncClient,
+                      @Qualifier("s3TransferExecutor") ExecutorService s3TransferExecutor,
+                      @Value("${photo.s3.transfer-pool-size:8}") int transferPoolSize,
+                      @Value("${photo.s3.transfer-wait:10s}") Duration transferWait) {
+        this.s3Client = s3Client;
+        this.s3Presigner = s3Presigner;
+        this.s3AsyncClient = s3AsyncClient;
+        this.s3TransferExecutor = s3TransferExecutor;
+        this.transferPermits = new Semaphore(transferPoolSize, true);
+        this.transferWait = transferWait;
+    }
+
     public String upload(MultipartFile file, String dirName) throws IOException {
-        String fileName = dirName + "/" + UUID.randomUUID();
+        String fileName = createObjectKey(dirName);
         PutObjectRequest putObjectRequest = PutObjectRequest.builder()
                 .bucket(bucket)
                 .key(fileName)
@@ -35,14 +88,310 @@ public class S3Uploader {
         return getS3Url(fileName);
     }
 
-    public void delete(String fileUrl) {
+    /**
+     * S3AsyncClient 기반 비동기 업로드. 호출 스레드를 잡지 않고 완료 시 S3 URL 을 돌려준다.
+     * 크기와 관계없이 파일 스트림을 길이와 함께 넘기므로 힙에 파일 전체를 복사하지 않는다.
+     * threshold 이하 파일은 단일 PUT, 초과 파일은 클라이언트가 병렬 multipart 업로드한다.
+     */
+    public CompletableFuture<String> uploadAsync(MultipartFile file, String dirName) {
+        return uploadAsyncToKey(file, createObjectKey(dirName));
+    }
+
+    public CompletableFuture<String> uploadAsyncToKey(MultipartFile file, String fileName) {
+        InputStream inputStream;
+        try {
+            inputStream = file.getInputStream();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return uploadAsyncToKey(inputStream, file.getSize(), fileName, file.getContentType());
+    }
+
+    /**
+     * 길이를 아는 스트림을 비동기로 업로드한다. 스트림은 업로드가 끝나면(실패 포함) 닫는다.
+     * 호출자는 스트림을 감싸 읽히는 바이트로 해시 등을 함께 계산할 수 있다.
+     * 동시 업로드가 상한에 차 있으면 호출 스레드에서 transfer-wait 까지 자리를 기다리고,
+     * 그래도 자리가 없으면 S3TransferBusyException 으로 실패한 future 를 돌려준다. SDK 스레드에서 호출하지 않는다.
+     */
+    public CompletableFuture<String> uploadAsyncToKey(InputStream inputStream, long size, String fileName, String contentType) {
+        if (!acquireTransferPermit()) {
+            closeQuietly(inputStream, fileName);
+            return CompletableFuture.failedFuture(new S3TransferBusyException(
+                    "업로드 요청이 많아 잠시 후 다시 시도해주세요.", transferWait, null));
+        }
+
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(fileName)
+                .contentType(contentType)
+                .contentLength(size)
+                .build();
+
+        CompletableFuture<PutObjectResponse> upload;
+        try {
+            AsyncRequestBody requestBody = AsyncRequestBody.fromInputStream(inputStream, size, s3TransferExecutor);
+            upload = s3AsyncClient.putObject(putObjectRequest, requestBody);
+        } catch (RuntimeException e) {
+            transferPermits.release();
+            closeQuietly(inputStream, fileName);
+            return CompletableFuture.failedFuture(e);
+        }
+        return upload
+                .whenComplete((response, error) -> {
+                    transferPermits.release();
+                    closeQuietly(inputStream, fileName);
+                })
+                .handle((response, error) -> {
+                    if (error == null) {
+                        return getS3Url(fileName);
+                    }
+                    if (isTransferRejected(error)) {
+                        // 자리를 잡고 시작했는데도 전송 스레드가 모자란 경우. 블로킹 읽기를 SDK 스레드로 넘기지 않고 실패시킨다.
+                        throw new S3TransferBusyException("업로드 요청이 많아 잠시 후 다시 시도해주세요.", transferWait, error);
+                    }
+                    throw error instanceof CompletionException completionException
+                            ? completionException
+                            : new CompletionException(error);
+                });
+    }
+
+    private boolean acquireTransferPermit() {
+        try {
+            return transferPermits.tryAcquire(transferWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean isTransferRejected(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RejectedExecutionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void closeQuietly(InputStream inputStream, String fileName) {
+        try {
+            inputStream.close();
+        } catch (IOException e) {
+            log.debug("업로드 스트림 닫기 실패: key={}, 오류={}", fileName, e.getMessage());
+        }
+    }
+
+    /**
+     * 길이를 모르는 스트림을 part-size 버퍼로 잘라 multipart 업로드한다. part 하나를 비동기로 올리는 동안 다음 part 를
+     * 다른 버퍼에 읽으므로 메모리 사용량은 part-size 의 두 배로 고정되고 파일 크기와 무관하다.
+     * 첫 버퍼를 다 채우지 못한 작은 파일은 단일 PUT 으로 보낸다. 업로드한 전체 바이트 수를 돌려준다.
+     */
+    public long uploadStream(InputStream inputStream, String key, String contentType) throws IOException {
+        byte[] first = new byte[(int) multipartPartSize.toBytes()];
+        int read = inputStream.readNBytes(first, 0, first.length);
+        if (read < first.length) {
+            s3Client.putObject(PutObjectRequest.builder()
+                            .bucket(bucket)
+                            .key(key)
+                            .contentType(contentType)
+                            .build(),
+                    RequestBody.fromInputStream(new ByteArrayInputStream(first, 0, read), read));
+            return read;
+        }
+
+        byte[][] buffers = {first, new byte[first.length]};
+        String uploadId = createMultipartUpload(key, contentType);
+        List<CompletableFuture<CompletedPart>> uploads = new ArrayList<>();
+        try {
+            long total = 0;
+            while (read > 0) {
+                int partNumber = uploads.size() + 1;
+                uploads.add(uploadPartAsync(key, uploadId, partNumber, buffers[(partNumber - 1) % 2], read));
+                total += read;
+                // 다음 part 를 읽을 버퍼는 두 part 전에 쓰던 것이므로 그 업로드가 끝나야 덮어쓸 수 있다.
+                if (uploads.size() >= 2) {
+                    awaitPart(uploads.get(uploads.size() - 2));
+                }
+                read = inputStream.readNBytes(buffers[partNumber % 2], 0, first.length);
+            }
+            List<CompletedPart> parts = new ArrayList<>(uploads.size());
+            for (CompletableFuture<CompletedPart> upload : uploads) {
+                parts.add(awaitPart(upload));
+            }
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+            return total;
+        } catch (IOException | RuntimeException e) {
+            uploads.forEach(upload -> upload.cancel(true));
+            abortMultipartUpload(key, uploadId);
+            throw e;
+        }
+    }
+
+    private CompletableFuture<CompletedPart> uploadPartAsync(String key, String uploadId, int partNumber, byte[] buffer, int length) {
+        return s3AsyncClient.uploadPart(UploadPartRequest.builder()
+                                .bucket(bucket)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) length)
+                                .build(),
+                        // 버퍼를 복사하지 않는다. 업로드가 끝날 때까지 호출자가 버퍼를 덮어쓰지 않는다.
+                        AsyncRequestBody.fromByteBufferUnsafe(ByteBuffer.wrap(buffer, 0, length)))
+                .thenApply(response -> CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build());
+    }
+
+    private static CompletedPart awaitPart(CompletableFuture<CompletedPart> upload) {
+        try {
+            return upload.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public String createMultipartUpload(String key, String contentType) {
+        return s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .build()).uploadId();
+    }
+
+    /**
+     * 스트림에서 정확히 length 바이트를 읽어 part 하나로 올리고 ETag 를 돌려준다. 같은 partNumber 로 다시 올리면 덮어쓴다.
+     */
+    public String uploadPart(String key, String uploadId, int partNumber, InputStream inputStream, long length) {
+        return s3Client.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength(length)
+                        .build(),
+                RequestBody.fromInputStream(inputStream, length)).eTag();
+    }
+
+    /**
+     * S3 에 올라가 있는 part 목록으로 multipart 업로드를 마무리한다. 재시도로 같은 part 가 여러 번 올라왔어도 마지막 것이 쓰인다.
+     */
+    public void completeMultipartUpload(String key, String uploadId) {
+        List<CompletedPart> parts = new ArrayList<>();
+        s3Client.listPartsPaginator(ListPartsRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .build())
+                .parts()
+                .forEach(part -> parts.add(CompletedPart.builder()
+                        .partNumber(part.partNumber())
+                        .eTag(part.eTag())
+                        .build()));
+        s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                .build());
+    }
+
+    public void abortMultipartUpload(String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (Exception e) {
+            log.warn("multipart 업로드 취소 실패: key={}, uploadId={}, 오류={}", key, uploadId, e.getMessage());
+        }
+    }
+
+    public String createObjectKey(String dirName) {
+        return dirName + "/" + UUID.randomUUID();
+    }
+
+    /**
+     * 클라이언트가 S3에 직접 PUT 할 수 있는 presigned URL 발급.
+     * 업로드 시 요청 헤더의 Content-Type은 여기서 지정한 값과 같아야 한다.
+     */
+    public URL createPresignedPutUrl(String key, String contentType, Duration expiration) {
+        return createPresignedPutUrl(key, contentType, null, null, expiration);
+    }
+
+    /**
+     * checksumSha256Base64 를 지정하면 클라이언트는 x-amz-checksum-sha256 헤더를 함께 보내야 하고,
+     * S3 가 실제 내용과 해시가 일치하는지 검증한다. contentLength 를 지정하면 Content-Length 가 서명에 들어가
+     * 다른 크기의 PUT 은 거절된다. 둘 다 null 이면 서명하지 않는다.
+     */
+    public URL createPresignedPutUrl(String key, String contentType, String checksumSha256Base64, Long contentLength,
+                                     Duration expiration) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .checksumSHA256(checksumSha256Base64)
+                .contentLength(contentLength)
+                .build();
+        PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder()
+                .signatureDuration(expiration)
+                .putObjectRequest(putObjectRequest)
+                .build();
+        return s3Presigner.presignPutObject(presignRequest).url();
+    }
+
+    /**
+     * 객체 메타데이터 조회. 객체가 없으면 empty.
+     */
+    public Optional<HeadObjectResponse> head(String key) {
+        try {
+            return Optional.of(s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .build()));
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    public byte[] download(String key) {
+        return s3Client.getObjectAsBytes(GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .build()).asByteArray();
+    }
+
+    public String putBytes(String key, byte[] bytes, String contentType) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .build();
+        s3Client.putObject(putObjectRequest, RequestBody.fromBytes(bytes));
+        return getS3Url(key);
+    }
+
+    public String extractKey(String fileUrl) {
         // fileUrl 예: https://{bucket}.s3.ap-northeast-2.amazonaws.com/{fileName}
         String prefix = String.format("https://%s.s3.ap-northeast-2.amazonaws.com/", bucket);
         if (!fileUrl.startsWith(prefix)) {
             log.error("파일 URL 형식이 올바르지 않습니다: {}", fileUrl);
             throw new IllegalArgumentException("파일 URL 형식이 올바르지 않습니다.");
         }
-        String key = fileUrl.replace(prefix, "");
+        return fileUrl.substring(prefix.length());
+    }
+
+    public void delete(String fileUrl) {
+        String key = extractKey(fileUrl);
         DeleteObjectRequest deleteRequest = DeleteObjectRequest.builder()
                 .bucket(bucket)
                 .key(key)
@@ -51,10 +400,7 @@ public class S3Uploader {
         log.info("S3에서 파일 삭제: key={}", key);
     }
 
-    private String getS3Url(String fileName) {
+    public String getS3Url(String fileName) {
         return String.format("https://%s.s3.ap-northeast-2.amazonaws.com/%s", bucket, fileName);
     }
-
-    public void deleteFileByUrl(String photoUrl) {
-    }
 }
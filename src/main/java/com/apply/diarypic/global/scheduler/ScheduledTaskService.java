@@ -1,6 +1,11 @@
 package com.apply.diarypic.global.scheduler;
 
+import com.apply.diarypic.diary.service.AiDiaryService;
 import com.apply.diarypic.diary.service.DiaryService;
+import com.apply.diarypic.global.idempotency.IdempotencyService;
+import com.apply.diarypic.photo.service.GeocodeBackfillService;
+import com.apply.diarypic.photo.service.PhotoDerivativeService;
+import com.apply.diarypic.photo.service.ResumableUploadService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -12,6 +17,11 @@ import org.springframework.stereotype.Service;
 public class ScheduledTaskService {
 
     private final DiaryService diaryService;
+    private final PhotoDerivativeService photoDerivativeService;
+    private final ResumableUploadService resumableUploadService;
+    private final GeocodeBackfillService geocodeBackfillService;
+    private final AiDiaryService aiDiaryService;
+    private final IdempotencyService idempotencyService;
 
     // 매일 새벽 3시에 실행
     // 초 분 시 일 월 요일 (년도 생략 가능)
@@ -26,4 +36,67 @@ public class ScheduledTaskService {
             log.error("자동 영구 삭제 스케줄러 실행 중 오류 발생", e);
         }
     }
-}
\ No newline at end of file
+
+    // 매일 새벽 4시에 썸네일이 없는 사진의 변환본 생성
+    @Scheduled(cron = "0 0 4 * * ?")
+    public void backfillPhotoDerivatives() {
+        log.info("썸네일 백필 스케줄러: 썸네일이 없는 사진 처리 시작...");
+        try {
+            photoDerivativeService.backfillMissingDerivatives();
+            log.info("썸네일 백필 스케줄러: 작업 완료.");
+        } catch (Exception e) {
+            log.error("썸네일 백필 스케줄러 실행 중 오류 발생", e);
+        }
+    }
+
+    // 매시 30분에 만료된 이어받기 업로드 세션 정리
+    @Scheduled(cron = "0 30 * * * ?")
+    public void abortExpiredResumableUploads() {
+        log.info("이어받기 업로드 정리 스케줄러: 만료된 세션 정리 시작...");
+        try {
+            resumableUploadService.abortExpiredUploads();
+            log.info("이어받기 업로드 정리 스케줄러: 작업 완료.");
+        } catch (Exception e) {
+            log.error("이어받기 업로드 정리 스케줄러 실행 중 오류 발생", e);
+        }
+    }
+
+    // 이전 실행이 끝난 뒤 poll-interval 마다 주소 변환 대기 사진 처리
+    @Scheduled(fixedDelayString = "${photo.geocode.poll-interval:10s}")
+    public void backfillPendingAddresses() {
+        try {
+            int processed = geocodeBackfillService.backfillPendingAddresses();
+            if (processed > 0) {
+                log.info("주소 백필 스케줄러: 사진 {}장 처리 완료.", processed);
+            }
+        } catch (Exception e) {
+            log.error("주소 백필 스케줄러 실행 중 오류 발생", e);
+        }
+    }
+
+    // 1분마다 실행되지 못했거나 멈춘 AI 일기 작업을 다시 실행
+    @Scheduled(cron = "0 * * * * ?")
+    public void resubmitStalledAiDiaryJobs() {
+        try {
+            int resubmitted = aiDiaryService.resubmitStalledJobs();
+            if (resubmitted > 0) {
+                log.info("AI 일기 작업 복구 스케줄러: 작업 {}개 재실행.", resubmitted);
+            }
+        } catch (Exception e) {
+            log.error("AI 일기 작업 복구 스케줄러 실행 중 오류 발생", e);
+        }
+    }
+
+    // 매시 45분에 보관 기간이 지난 Idempotency-Key 응답 정리
+    @Scheduled(cron = "0 45 * * * ?")
+    public void deleteExpiredIdempotencyKeys() {
+        try {
+            int deleted = idempotencyService.deleteExpired();
+            if (deleted > 0) {
+                log.info("Idempotency-Key 정리 스케줄러: 만료된 기록 {}개 삭제.", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Idempotency-Key 정리 스케줄러 실행 중 오류 발생", e);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.apply.diarypic.global.security;
 import com.apply.diarypic.global.security.jwt.JwtAuthenticationFilter;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -23,6 +24,9 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
 
@@ -41,6 +45,10 @@ public class SecurityConfig {
                                 "/oauth2/**",
                                 "/api/auth/login")
                         .permitAll()
+                        /* 운영 지표는 내부 관리 포트로 들어온 요청만 허용 */
+                        .requestMatchers(request -> request.getLocalPort() == managementPort
+                                && request.getRequestURI().startsWith("/actuator/"))
+                        .permitAll()
                         /* 나머지는 인증 */
                         .anyRequest().authenticated()
                 )
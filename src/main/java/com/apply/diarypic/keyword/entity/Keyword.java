@@ -20,7 +20,8 @@ import java.util.Set;
 public class Keyword {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "keyword_seq")
+    @SequenceGenerator(name = "keyword_seq", sequenceName = "keywords_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 50)
@@ -3,6 +3,7 @@ package com.apply.diarypic.keyword.entity;
 import com.apply.diarypic.photo.entity.DiaryPhoto;
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 
@@ -14,7 +15,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @IdClass(PhotoKeywordId.class)
-public class PhotoKeyword {
+public class PhotoKeyword implements Persistable<PhotoKeywordId> {
 
     @Id
     @ManyToOne(fetch = FetchType.LAZY)
@@ -29,8 +30,31 @@ public class PhotoKeyword {
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // 복합키라 Spring Data 가 새 엔티티인지 판단하지 못해 merge(SELECT 후 INSERT) 하므로 직접 알려준다.
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newEntity = true;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
     }
+
+    @PostPersist
+    @PostLoad
+    protected void markNotNew() {
+        this.newEntity = false;
+    }
+
+    @Override
+    public PhotoKeywordId getId() {
+        return new PhotoKeywordId(diaryPhoto.getId(), keyword.getId());
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
 }
\ No newline at end of file
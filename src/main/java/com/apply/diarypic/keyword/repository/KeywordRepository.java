@@ -4,6 +4,7 @@ import com.apply.diarypic.keyword.entity.Keyword;
 import com.apply.diarypic.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +12,8 @@ public interface KeywordRepository extends JpaRepository<Keyword, Long> {
 
     Optional<Keyword> findByNameAndUser(String name, User user);
 
+    List<Keyword> findByUserAndNameIn(User user, Collection<String> names);
+
     List<Keyword> findByUserOrderByNameAsc(User user);
 
     void deleteAllByUser(User user);
@@ -8,6 +8,7 @@ import com.apply.diarypic.photo.dto.FinalizePhotoSelectionRequest;
 import com.apply.diarypic.photo.dto.PhotoResponse;
 import com.apply.diarypic.photo.service.PhotoRecommendationService;
 import com.apply.diarypic.photo.service.PhotoSelectionService;
+import com.apply.diarypic.photo.service.SpeculativeRecommendationService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
@@ -26,6 +27,7 @@ public class PhotoSelectionController {
 
     private final PhotoSelectionService photoSelectionService;
     private final PhotoRecommendationService photoRecommendationService;
+    private final SpeculativeRecommendationService speculativeRecommendationService;
 
     @Operation(summary = "임시 업로드 사진 조회")
     @GetMapping("/temp")
@@ -40,6 +42,12 @@ public class PhotoSelectionController {
                                                                                   @CurrentUser UserPrincipal userPrincipal,
                                                                                   @Valid @RequestBody AiPhotoRecommendRequest request) {
 
+        List<Long> precomputed = speculativeRecommendationService.findPrecomputed(
+                userPrincipal.getUserId(), request.getUploadedPhotoIds(), request.getMandatoryPhotoIds());
+        if (precomputed != null) {
+            return Mono.just(ResponseEntity.ok(new AiPhotoRecommendResponse(precomputed)));
+        }
+
         return photoRecommendationService.getRecommendedPhotosFromAI(
                 userPrincipal.getUserId(),
                 request.getUploadedPhotoIds(),
@@ -2,16 +2,30 @@ package com.apply.diarypic.photo.controller;
 
 import com.apply.diarypic.global.security.CurrentUser;
 import com.apply.diarypic.global.security.UserPrincipal;
+import com.apply.diarypic.photo.dto.PhotoDedupClaimRequest;
+import com.apply.diarypic.photo.dto.PhotoDedupPreflightRequest;
+import com.apply.diarypic.photo.dto.PhotoDedupPreflightResponse;
 import com.apply.diarypic.photo.dto.PhotoResponse;
+import com.apply.diarypic.photo.dto.PhotoUploadConfirmRequest;
 import com.apply.diarypic.photo.dto.PhotoUploadItemDto;
+import com.apply.diarypic.photo.dto.PhotoUploadSessionRequest;
+import com.apply.diarypic.photo.dto.PhotoUploadSessionResponse;
 import com.apply.diarypic.photo.service.PhotoService;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.fileupload2.core.DiskFileItem;
+import org.apache.commons.fileupload2.core.DiskFileItemFactory;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 
 @RequiredArgsConstructor
@@ -21,6 +35,7 @@ public class PhotoUploadController {
 
     private final ObjectMapper objectMapper;
     private final PhotoService photoService;
+    private final JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> streamingFileUpload;
 
     @PostMapping("/upload")
     public ResponseEntity<List<PhotoResponse>> uploadPhotos(
@@ -47,4 +62,50 @@ public class PhotoUploadController {
 
         return ResponseEntity.ok(responses);
     }
-}
+
+    @Operation(summary = "사진 스트리밍 업로드 (metadata 파트를 files 파트보다 먼저 전송)")
+    @PostMapping(value = "/upload/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<List<PhotoResponse>> uploadPhotosStreaming(
+            @CurrentUser UserPrincipal user,
+            HttpServletRequest request
+    ) throws IOException {
+        return ResponseEntity.ok(photoService.uploadPhotosStreaming(
+                streamingFileUpload.getItemIterator(request), user.getUserId()));
+    }
+
+    @Operation(summary = "S3 직접 업로드용 presigned URL 발급")
+    @PostMapping("/upload-sessions")
+    public ResponseEntity<PhotoUploadSessionResponse> createUploadSession(
+            @CurrentUser UserPrincipal user,
+            @Valid @RequestBody PhotoUploadSessionRequest request
+    ) {
+        return ResponseEntity.ok(photoService.createUploadSession(user.getUserId(), request));
+    }
+
+    @Operation(summary = "S3 직접 업로드 완료 확정 (메타데이터로 사진 등록)")
+    @PostMapping("/upload-sessions/confirm")
+    public ResponseEntity<List<PhotoResponse>> confirmUploadSession(
+            @CurrentUser UserPrincipal user,
+            @Valid @RequestBody PhotoUploadConfirmRequest request
+    ) {
+        return ResponseEntity.ok(photoService.confirmDirectUploads(user.getUserId(), request));
+    }
+
+    @Operation(summary = "업로드 전 콘텐츠 해시 중복 확인")
+    @PostMapping("/dedup/preflight")
+    public ResponseEntity<PhotoDedupPreflightResponse> preflight(
+            @CurrentUser UserPrincipal user,
+            @Valid @RequestBody PhotoDedupPreflightRequest request
+    ) {
+        return ResponseEntity.ok(photoService.preflight(user.getUserId(), request.getContentHashes()));
+    }
+
+    @Operation(summary = "이미 업로드된 콘텐츠를 전송 없이 사진으로 등록")
+    @PostMapping("/dedup/claim")
+    public ResponseEntity<List<PhotoResponse>> claimExisting(
+            @CurrentUser UserPrincipal user,
+            @Valid @RequestBody PhotoDedupClaimRequest request
+    ) {
+        return ResponseEntity.ok(photoService.claimExisting(user.getUserId(), request));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.apply.diarypic.photo.controller;
+
+import com.apply.diarypic.global.security.CurrentUser;
+import com.apply.diarypic.global.security.UserPrincipal;
+import com.apply.diarypic.photo.dto.PhotoResponse;
+import com.apply.diarypic.photo.dto.PhotoUploadItemDto;
+import com.apply.diarypic.photo.dto.ResumableUploadCreateRequest;
+import com.apply.diarypic.photo.dto.ResumableUploadResponse;
+import com.apply.diarypic.photo.service.ResumableUploadService;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/photos/resumable-uploads")
+public class ResumableUploadController {
+
+    private final ResumableUploadService resumableUploadService;
+
+    @Operation(summary = "이어받기 업로드 세션 생성")
+    @PostMapping
+    public ResponseEntity<ResumableUploadResponse> create(
+            @CurrentUser UserPrincipal user,
+            @Valid @RequestBody ResumableUploadCreateRequest request
+    ) {
+        return ResponseEntity.ok(resumableUploadService.create(user.getUserId(), request));
+    }
+
+    @Operation(summary = "이어받기 업로드 진행 상태 조회 (재개할 offset 확인)")
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<ResumableUploadResponse> getStatus(
+            @CurrentUser UserPrincipal user,
+            @PathVariable Long uploadId
+    ) {
+        return ResponseEntity.ok(resumableUploadService.getStatus(user.getUserId(), uploadId));
+    }
+
+    @Operation(summary = "청크 전송 (본문은 offset 위치의 원본 바이트). 서버 offset 과 맞지 않으면 409")
+    @PutMapping(value = "/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ResumableUploadResponse> appendChunk(
+            @CurrentUser UserPrincipal user,
+            @PathVariable Long uploadId,
+            @RequestParam long offset,
+            HttpServletRequest request
+    ) throws IOException {
+        long length = request.getContentLengthLong();
+        if (length <= 0) {
+            throw new IllegalArgumentException("청크 요청에는 Content-Length가 필요합니다.");
+        }
+        ResumableUploadResponse response = resumableUploadService.appendChunk(
+                user.getUserId(), uploadId, offset, length, request.getInputStream());
+        if (response.getReceivedBytes() < offset) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "이어받기 업로드 완료 (메타데이터로 사진 등록)")
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<List<PhotoResponse>> complete(
+            @CurrentUser UserPrincipal user,
+            @PathVariable Long uploadId,
+            @RequestBody(required = false) PhotoUploadItemDto metadata
+    ) {
+        PhotoUploadItemDto metadataItem = metadata != null ? metadata : new PhotoUploadItemDto();
+        return ResponseEntity.ok(resumableUploadService.complete(user.getUserId(), uploadId, metadataItem));
+    }
+
+    @Operation(summary = "이어받기 업로드 취소")
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Void> abort(
+            @CurrentUser UserPrincipal user,
+            @PathVariable Long uploadId
+    ) {
+        resumableUploadService.abort(user.getUserId(), uploadId);
+        return ResponseEntity.noContent().build();
+    }
+}
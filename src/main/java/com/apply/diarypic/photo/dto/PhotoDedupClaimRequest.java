@@ -0,0 +1,33 @@
+package com.apply.diarypic.photo.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoDedupClaimRequest {
+
+    @Valid
+    @NotEmpty(message = "등록할 목록은 비어있을 수 없습니다.")
+    private List<ClaimItem> items;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ClaimItem {
+        @NotBlank(message = "contentHash는 필수입니다.")
+        private String contentHash;
+
+        private PhotoUploadItemDto metadata;
+    }
+}
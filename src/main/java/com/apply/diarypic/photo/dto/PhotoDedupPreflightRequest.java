@@ -0,0 +1,21 @@
+package com.apply.diarypic.photo.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoDedupPreflightRequest {
+
+    @NotEmpty(message = "확인할 해시 목록은 비어있을 수 없습니다.")
+    @Size(max = 500, message = "한 번에 최대 500개까지 확인할 수 있습니다.")
+    private List<String> contentHashes; // 원본 SHA-256 (소문자 hex)
+}
@@ -0,0 +1,18 @@
+package com.apply.diarypic.photo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoDedupPreflightResponse {
+
+    private List<String> existingHashes; // 업로드 없이 /dedup/claim 으로 등록 가능
+    private List<String> missingHashes;  // 업로드 필요
+}
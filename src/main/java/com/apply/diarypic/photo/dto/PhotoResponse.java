@@ -15,6 +15,8 @@ import java.time.LocalDateTime;
 public class PhotoResponse {
     private Long id;
     private String photoUrl;
+    private String thumbnailUrl; // 256px, 아직 생성 전이면 null
+    private String mediumUrl;    // 1024px, 아직 생성 전이면 null
     private LocalDateTime shootingDateTime;
     private String location; // 위도,경도 문자열 (원본 GPS)
 
@@ -31,6 +33,8 @@ public class PhotoResponse {
         return PhotoResponse.builder()
                 .id(diaryPhoto.getId())
                 .photoUrl(diaryPhoto.getPhotoUrl())
+                .thumbnailUrl(diaryPhoto.getThumbnailUrl())
+                .mediumUrl(diaryPhoto.getMediumUrl())
                 .shootingDateTime(diaryPhoto.getShootingDateTime())
                 .location(diaryPhoto.getLocation())
                 .countryName(diaryPhoto.getCountryName())
@@ -0,0 +1,33 @@
+package com.apply.diarypic.photo.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoUploadConfirmRequest {
+
+    @Valid
+    @NotEmpty(message = "확정할 업로드 목록은 비어있을 수 없습니다.")
+    private List<ConfirmItem> items;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ConfirmItem {
+        @NotBlank(message = "objectKey는 필수입니다.")
+        private String objectKey;
+
+        private PhotoUploadItemDto metadata;
+    }
+}
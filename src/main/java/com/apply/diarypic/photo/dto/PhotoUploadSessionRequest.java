@@ -0,0 +1,39 @@
+package com.apply.diarypic.photo.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoUploadSessionRequest {
+
+    @Valid
+    @NotEmpty(message = "업로드할 파일 목록은 비어있을 수 없습니다.")
+    @Size(max = 100, message = "한 번에 최대 100장까지 업로드할 수 있습니다.")
+    private List<FileSpec> files;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FileSpec {
+        @NotBlank(message = "파일의 Content-Type은 필수입니다.")
+        private String contentType;
+
+        private String contentHash; // 선택. 원본 SHA-256 (소문자 hex). 보내면 중복 업로드를 건너뛸 수 있다.
+
+        @Positive(message = "파일 크기는 양수여야 합니다.")
+        private Long contentLength; // 선택. 바이트 수. 보내면 presigned URL 에 서명되어 다른 크기의 PUT 은 S3 가 거절한다.
+    }
+}
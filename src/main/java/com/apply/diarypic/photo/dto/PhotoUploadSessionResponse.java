@@ -0,0 +1,30 @@
+package com.apply.diarypic.photo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoUploadSessionResponse {
+
+    private List<PresignedUpload> uploads;
+    private LocalDateTime expiresAt;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PresignedUpload {
+        private String objectKey;
+        private String uploadUrl;   // 이 URL로 파일을 직접 PUT
+        private String contentType; // PUT 요청의 Content-Type 헤더와 일치해야 함
+        private boolean alreadyUploaded; // true 면 이미 서버에 있는 콘텐츠이므로 PUT 없이 바로 confirm
+    }
+}
@@ -0,0 +1,21 @@
+package com.apply.diarypic.photo.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumableUploadCreateRequest {
+
+    @NotBlank(message = "파일의 Content-Type은 필수입니다.")
+    private String contentType;
+
+    @Positive(message = "파일 크기는 0보다 커야 합니다.")
+    private long totalSize;
+}
@@ -0,0 +1,36 @@
+package com.apply.diarypic.photo.dto;
+
+import com.apply.diarypic.photo.entity.ResumableUpload;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumableUploadResponse {
+
+    private Long uploadId;
+    private String status;
+    private long totalSize;
+    private int chunkSize;      // 마지막 청크를 제외한 모든 청크는 정확히 이 크기여야 함
+    private long receivedBytes; // 다음 청크의 offset. 연결이 끊기면 이 값부터 이어서 전송
+    private LocalDateTime expiresAt;
+
+    public static ResumableUploadResponse from(ResumableUpload upload) {
+        return ResumableUploadResponse.builder()
+                .uploadId(upload.getId())
+                .status(upload.getStatus().name())
+                .totalSize(upload.getTotalSize())
+                .chunkSize(upload.getChunkSize())
+                .receivedBytes(upload.getReceivedBytes())
+                .expiresAt(upload.getExpiresAt())
+                .build();
+    }
+}
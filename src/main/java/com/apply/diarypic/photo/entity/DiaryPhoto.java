@@ -17,13 +17,31 @@ import java.util.Set;
 @Builder
 public class DiaryPhoto {
 
+    public enum GeocodeStatus { PENDING, DONE }
+
+    public enum DerivativeStatus { UNSUPPORTED }
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "diary_photo_seq")
+    @SequenceGenerator(name = "diary_photo_seq", sequenceName = "diary_photos_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String photoUrl;
 
+    @Column(length = 512)
+    private String thumbnailUrl; // 256px 썸네일
+
+    @Column(length = 512)
+    private String mediumUrl;    // 1024px 중간 크기
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private DerivativeStatus derivativeStatus; // 변환본을 만들 수 없는 사진 표시 (백필 대상에서 제외)
+
+    @Column(length = 64)
+    private String contentHash;  // 원본 SHA-256 (hex), PhotoBlob 참조 키
+
     private LocalDateTime shootingDateTime;
 
     @Column(length = 100)
@@ -37,6 +55,14 @@ public class DiaryPhoto {
 
     private String location;
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private GeocodeStatus geocodeStatus;  // 위치가 있는 사진의 주소 변환 상태 (위치가 없으면 null)
+
+    private Integer geocodeAttempts;
+
+    private LocalDateTime geocodeNextAttemptAt;
+
     private Integer sequence;
 
     @Column(nullable = false, updatable = false)
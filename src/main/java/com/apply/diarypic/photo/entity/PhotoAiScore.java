@@ -0,0 +1,50 @@
+package com.apply.diarypic.photo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * AI 서버가 매긴 사진별 점수와 임베딩. 채점은 항상 reference_images 없이 요청하므로 점수는 필수 사진과 무관하고,
+ * 같은 콘텐츠는 같은 점수를 받는다. 그래서 콘텐츠 해시가 있으면 "sha256:{hash}", 없으면 "photo:{id}" 만 키로 쓴다.
+ * 모델이 바뀌면 modelVersion 을 올려 새로 채점한다.
+ * 임베딩은 길이 1 로 정규화한 float32 배열을 little-endian 바이트로 담는다 (512차원 = 2KB).
+ */
+@Entity
+@Table(name = "photo_ai_scores", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"cache_key", "model_version"})
+})
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class PhotoAiScore {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "photo_ai_score_seq")
+    @SequenceGenerator(name = "photo_ai_score_seq", sequenceName = "photo_ai_scores_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "cache_key", nullable = false, length = 80)
+    private String cacheKey;
+
+    @Column(name = "model_version", nullable = false, length = 50)
+    private String modelVersion;
+
+    @Column(nullable = false)
+    private double score;
+
+    @Lob
+    @Column(columnDefinition = "BLOB")
+    private byte[] embedding; // AI 서버가 보내지 않으면 null
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
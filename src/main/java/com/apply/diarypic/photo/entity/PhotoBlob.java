@@ -0,0 +1,52 @@
+package com.apply.diarypic.photo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 사용자별 콘텐츠 주소(SHA-256) 기반 S3 객체. 같은 내용의 사진은 하나의 객체를 공유하고
+ * refCount 로 이 객체를 참조하는 DiaryPhoto 수를 센다.
+ */
+@Entity
+@Table(name = "photo_blobs", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"user_id", "content_hash"})
+})
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class PhotoBlob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "photo_blob_seq")
+    @SequenceGenerator(name = "photo_blob_seq", sequenceName = "photo_blobs_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(nullable = false, length = 512)
+    private String objectKey;
+
+    @Column(length = 100)
+    private String contentType;
+
+    private Long size;
+
+    @Column(nullable = false)
+    private int refCount;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
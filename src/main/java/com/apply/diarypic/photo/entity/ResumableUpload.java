@@ -0,0 +1,63 @@
+package com.apply.diarypic.photo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 이어받기 업로드 세션. 청크 하나가 S3 multipart 의 part 하나에 대응하고,
+ * receivedBytes 는 앞에서부터 빠짐없이 받은 바이트 수(다음 청크의 offset)다.
+ */
+@Entity
+@Table(name = "resumable_uploads")
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class ResumableUpload {
+
+    public enum Status { IN_PROGRESS, COMPLETED, ABORTED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "resumable_upload_seq")
+    @SequenceGenerator(name = "resumable_upload_seq", sequenceName = "resumable_uploads_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 512)
+    private String objectKey;
+
+    @Column(nullable = false, length = 1024)
+    private String s3UploadId;
+
+    @Column(nullable = false, length = 100)
+    private String contentType;
+
+    @Column(nullable = false)
+    private long totalSize;
+
+    @Column(nullable = false)
+    private int chunkSize;
+
+    @Column(nullable = false)
+    private long receivedBytes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,11 @@
+package com.apply.diarypic.photo.repository;
+
+import com.apply.diarypic.photo.entity.PhotoAiScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PhotoAiScoreRepository extends JpaRepository<PhotoAiScore, Long> {
+    List<PhotoAiScore> findByModelVersionAndCacheKeyIn(String modelVersion, Collection<String> cacheKeys);
+}
@@ -0,0 +1,29 @@
+package com.apply.diarypic.photo.repository;
+
+import com.apply.diarypic.photo.entity.PhotoBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PhotoBlobRepository extends JpaRepository<PhotoBlob, Long> {
+    Optional<PhotoBlob> findByUserIdAndContentHash(Long userId, String contentHash);
+    List<PhotoBlob> findByUserIdAndContentHashIn(Long userId, Collection<String> contentHashes);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM PhotoBlob b WHERE b.userId = :userId AND b.contentHash = :contentHash")
+    Optional<PhotoBlob> findForUpdate(@Param("userId") Long userId, @Param("contentHash") String contentHash);
+
+    // 행이 없으면(마지막 참조가 해제되어 지워졌으면) 0 을 돌려준다.
+    @Transactional
+    @Modifying
+    @Query("UPDATE PhotoBlob b SET b.refCount = b.refCount + :delta WHERE b.userId = :userId AND b.contentHash = :contentHash")
+    int addReferences(@Param("userId") Long userId, @Param("contentHash") String contentHash, @Param("delta") int delta);
+}
@@ -1,9 +1,61 @@
 package com.apply.diarypic.photo.repository;
 
 import com.apply.diarypic.photo.entity.DiaryPhoto;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface PhotoRepository extends JpaRepository<DiaryPhoto, Long> {
     List<DiaryPhoto> findByDiaryIsNullAndUserId(Long userId);
+    List<DiaryPhoto> findByPhotoUrlIn(Collection<String> photoUrls);
+
+    Optional<DiaryPhoto> findFirstByUserIdAndContentHashAndThumbnailUrlIsNotNull(Long userId, String contentHash);
+
+    // 썸네일 백필 대상 (id 커서 기반 페이징). 디코딩할 수 없는 사진은 제외
+    List<DiaryPhoto> findTop100ByThumbnailUrlIsNullAndDerivativeStatusIsNullAndIdGreaterThanOrderByIdAsc(Long lastId);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE DiaryPhoto p SET p.thumbnailUrl = :thumbnailUrl, p.mediumUrl = :mediumUrl WHERE p.id = :id")
+    int updateDerivativeUrls(@Param("id") Long id,
+                             @Param("thumbnailUrl") String thumbnailUrl,
+                             @Param("mediumUrl") String mediumUrl);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE DiaryPhoto p SET p.derivativeStatus = :status WHERE p.id = :id")
+    int updateDerivativeStatus(@Param("id") Long id, @Param("status") DiaryPhoto.DerivativeStatus status);
+
+    // 주소 변환 대기 사진 (재시도 시각이 지난 것부터)
+    @Query("SELECT p FROM DiaryPhoto p WHERE p.geocodeStatus = 'PENDING' AND p.geocodeNextAttemptAt <= :now " +
+            "ORDER BY p.geocodeNextAttemptAt ASC")
+    List<DiaryPhoto> findGeocodePending(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE DiaryPhoto p SET p.countryName = :countryName, p.adminAreaLevel1 = :adminAreaLevel1, " +
+            "p.locality = :locality, p.geocodeStatus = 'DONE' WHERE p.id IN :ids AND p.geocodeStatus = 'PENDING'")
+    int completeGeocoding(@Param("ids") Collection<Long> ids,
+                          @Param("countryName") String countryName,
+                          @Param("adminAreaLevel1") String adminAreaLevel1,
+                          @Param("locality") String locality);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE DiaryPhoto p SET p.geocodeAttempts = :attempts, p.geocodeNextAttemptAt = :nextAttemptAt " +
+            "WHERE p.id IN :ids AND p.geocodeStatus = 'PENDING'")
+    int postponeGeocoding(@Param("ids") Collection<Long> ids,
+                          @Param("attempts") int attempts,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    @Query("SELECT DISTINCT p.diary.id FROM DiaryPhoto p WHERE p.id IN :ids AND p.diary IS NOT NULL")
+    List<Long> findDiaryIdsByPhotoIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,30 @@
+package com.apply.diarypic.photo.repository;
+
+import com.apply.diarypic.photo.entity.ResumableUpload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ResumableUploadRepository extends JpaRepository<ResumableUpload, Long> {
+
+    List<ResumableUpload> findTop100ByStatusAndExpiresAtBefore(ResumableUpload.Status status, LocalDateTime now);
+
+    /**
+     * 같은 offset 의 청크가 동시에 들어와도 한 번만 진행되도록 현재 offset 이 일치할 때만 갱신한다.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ResumableUpload u SET u.receivedBytes = :receivedBytes " +
+            "WHERE u.id = :id AND u.receivedBytes = :expectedOffset AND u.status = 'IN_PROGRESS'")
+    int advance(@Param("id") Long id, @Param("expectedOffset") long expectedOffset, @Param("receivedBytes") long receivedBytes);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ResumableUpload u SET u.status = :status WHERE u.id = :id AND u.status = 'IN_PROGRESS'")
+    int finish(@Param("id") Long id, @Param("status") ResumableUpload.Status status);
+}
@@ -0,0 +1,23 @@
+package com.apply.diarypic.photo.service;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * presigned URL 로 올라온 객체 중 확정할 수 없는 것이 있을 때 던진다. 항목별 사유를 함께 담으며,
+ * 이 경우 요청의 어떤 사진도 등록하지 않는다. 응답은 GlobalExceptionHandler 가 400 으로 만든다.
+ */
+@Getter
+public class DirectUploadRejectedException extends IllegalArgumentException {
+
+    public record Failure(String objectKey, String reason) {
+    }
+
+    private final List<Failure> failures;
+
+    public DirectUploadRejectedException(List<Failure> failures) {
+        super("확정할 수 없는 업로드가 " + failures.size() + "개 있습니다.");
+        this.failures = List.copyOf(failures);
+    }
+}
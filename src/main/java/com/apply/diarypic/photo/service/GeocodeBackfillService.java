@@ -0,0 +1,149 @@
+package com.apply.diarypic.photo.service;
+
+import com.apply.diarypic.album.service.AlbumService;
+import com.apply.diarypic.global.geocoding.GeocodingService;
+import com.apply.diarypic.global.geocoding.GeocodingUnavailableException;
+import com.apply.diarypic.photo.entity.DiaryPhoto;
+import com.apply.diarypic.photo.repository.PhotoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 업로드 때 주소를 바로 얻지 못한 사진(geocodeStatus = PENDING)의 주소를 배치로 채운다.
+ * 대기 상태는 diary_photos 에 남아 있으므로 재시작이나 지오코더 장애로 잃어버리지 않는다.
+ * 일시적 실패는 지수 백오프로 미루고, 주소가 채워진 사진이 속한 일기는 앨범 연결을 다시 계산한다.
+ */
+@Slf4j
+@Service
+public class GeocodeBackfillService {
+
+    private final PhotoRepository photoRepository;
+    private final GeocodingService geocodingService;
+    private final AlbumService albumService;
+
+    @Value("${photo.geocode.batch-size:100}")
+    private int batchSize;
+
+    @Value("${photo.geocode.initial-backoff:1m}")
+    private Duration initialBackoff;
+
+    @Value("${photo.geocode.max-backoff:6h}")
+    private Duration maxBackoff;
+
+    public GeocodeBackfillService(PhotoRepository photoRepository,
+                                  GeocodingService geocodingService,
+                                  AlbumService albumService) {
+        this.photoRepository = photoRepository;
+        this.geocodingService = geocodingService;
+        this.albumService = albumService;
+    }
+
+    /**
+     * 재시도 시각이 지난 대기 사진을 배치 단위로 모두 처리한다. 처리한 사진 수를 돌려준다.
+     */
+    public int backfillPendingAddresses() {
+        int total = 0;
+        while (true) {
+            List<DiaryPhoto> batch = photoRepository.findGeocodePending(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return total;
+            }
+            total += batch.size();
+            if (!processBatch(batch) || batch.size() < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * 같은 좌표의 사진은 한 번만 조회한다. 지오코더가 일시적으로 실패하면 남은 좌표도 호출하지 않고 함께 미룬다.
+     * 장애 없이 끝났으면 true.
+     */
+    private boolean processBatch(List<DiaryPhoto> batch) {
+        Map<String, List<DiaryPhoto>> byLocation = batch.stream()
+                .collect(Collectors.groupingBy(DiaryPhoto::getLocation, LinkedHashMap::new, Collectors.toList()));
+
+        List<Long> resolvedIds = new ArrayList<>();
+        boolean available = true;
+        for (Map.Entry<String, List<DiaryPhoto>> entry : byLocation.entrySet()) {
+            List<Long> ids = entry.getValue().stream().map(DiaryPhoto::getId).collect(Collectors.toList());
+            double[] coordinates = parseLocation(entry.getKey());
+            if (coordinates == null) {
+                log.warn("주소 백필: 위치 형식이 올바르지 않아 주소 없이 완료 처리합니다: location={}, photoIds={}", entry.getKey(), ids);
+                photoRepository.completeGeocoding(ids, null, null, null);
+                continue;
+            }
+            if (!available) {
+                postpone(entry.getValue());
+                continue;
+            }
+            try {
+                GeocodingService.ParsedAddress address = geocodingService.resolveAddress(coordinates[0], coordinates[1]);
+                photoRepository.completeGeocoding(ids,
+                        address != null ? address.getCountryName() : null,
+                        address != null ? address.getAdminAreaLevel1() : null,
+                        address != null ? address.getLocality() : null);
+                if (address != null) {
+                    resolvedIds.addAll(ids);
+                }
+            } catch (GeocodingUnavailableException e) {
+                log.warn("주소 백필: 지오코더를 사용할 수 없어 남은 사진을 미룹니다: {}", e.getMessage());
+                available = false;
+                postpone(entry.getValue());
+            }
+        }
+
+        refreshAlbums(resolvedIds);
+        log.info("주소 백필: 사진 {}장 중 {}장 주소 반영", batch.size(), resolvedIds.size());
+        return available;
+    }
+
+    private void postpone(List<DiaryPhoto> photos) {
+        // 시도 횟수가 같은 사진끼리 묶어 한 번에 갱신한다.
+        Map<Integer, List<Long>> byAttempts = photos.stream()
+                .collect(Collectors.groupingBy(photo -> photo.getGeocodeAttempts() != null ? photo.getGeocodeAttempts() + 1 : 1,
+                        Collectors.mapping(DiaryPhoto::getId, Collectors.toList())));
+        byAttempts.forEach((attempts, ids) ->
+                photoRepository.postponeGeocoding(ids, attempts, LocalDateTime.now().plus(backoff(attempts))));
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void refreshAlbums(List<Long> photoIds) {
+        if (photoIds.isEmpty()) {
+            return;
+        }
+        for (Long diaryId : photoRepository.findDiaryIdsByPhotoIds(photoIds)) {
+            try {
+                albumService.refreshDiaryAlbums(diaryId);
+            } catch (Exception e) {
+                log.error("주소 백필: 일기 ID {} 앨범 갱신 실패", diaryId, e);
+            }
+        }
+    }
+
+    private static double[] parseLocation(String location) {
+        String[] parts = location.split(",");
+        if (parts.length != 2) {
+            return null;
+        }
+        try {
+            return new double[]{Double.parseDouble(parts[0].trim()), Double.parseDouble(parts[1].trim())};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.apply.diarypic.photo.service;
+
+import com.apply.diarypic.ai.dto.AiImageScoringResponseDto;
+import com.apply.diarypic.photo.entity.DiaryPhoto;
+import com.apply.diarypic.photo.entity.PhotoAiScore;
+import com.apply.diarypic.photo.repository.PhotoAiScoreRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 사진별 AI 점수 영속 캐시. 한 번 채점된 콘텐츠는 다음 추천 요청에서 AI 서버로 다시 보내지 않는다.
+ * 여기 넣는 점수는 reference_images 없이 받은 것이어야 한다. 키에 필수 사진 구성이 들어가지 않기 때문이다.
+ */
+@Slf4j
+@Component
+public class PhotoAiScoreCache {
+
+    private final PhotoAiScoreRepository photoAiScoreRepository;
+
+    @Value("${ai.scoring.model-version:v1}")
+    private String modelVersion;
+
+    public PhotoAiScoreCache(PhotoAiScoreRepository photoAiScoreRepository) {
+        this.photoAiScoreRepository = photoAiScoreRepository;
+    }
+
+    /**
+     * 점수와 길이 1 로 정규화한 임베딩(없으면 null). 임베딩끼리의 내적이 곧 코사인 유사도다.
+     */
+    public record CachedScore(double score, float[] embedding) {
+    }
+
+    static String cacheKey(DiaryPhoto photo) {
+        return photo.getContentHash() != null
+                ? "sha256:" + photo.getContentHash()
+                : "photo:" + photo.getId();
+    }
+
+    /**
+     * 캐시에 점수가 있는 사진만 photoId → 점수로 돌려준다.
+     */
+    public Map<Long, CachedScore> findAll(List<DiaryPhoto> photos) {
+        Map<String, List<Long>> photoIdsByKey = photos.stream()
+                .collect(Collectors.groupingBy(PhotoAiScoreCache::cacheKey,
+                        Collectors.mapping(DiaryPhoto::getId, Collectors.toList())));
+        Map<Long, CachedScore> result = new HashMap<>();
+        for (PhotoAiScore entry : photoAiScoreRepository.findByModelVersionAndCacheKeyIn(modelVersion, photoIdsByKey.keySet())) {
+            CachedScore score = new CachedScore(entry.getScore(), unpack(entry.getEmbedding()));
+            photoIdsByKey.get(entry.getCacheKey()).forEach(photoId -> result.put(photoId, score));
+        }
+        return result;
+    }
+
+    /**
+     * AI 서버가 새로 매긴 점수를 저장하고 photoId → 점수로 돌려준다. 저장에 실패해도 이번 요청에는 그대로 쓴다.
+     */
+    public Map<Long, CachedScore> saveAll(List<DiaryPhoto> photos, List<AiImageScoringResponseDto.PhotoScore> scores) {
+        Map<String, DiaryPhoto> photosByIdString = photos.stream()
+                .collect(Collectors.toMap(photo -> String.valueOf(photo.getId()), Function.identity(), (first, second) -> first));
+
+        Map<Long, CachedScore> result = new HashMap<>();
+        Map<String, PhotoAiScore> toSave = new HashMap<>();
+        for (AiImageScoringResponseDto.PhotoScore photoScore : scores) {
+            DiaryPhoto photo = photosByIdString.get(photoScore.getId());
+            if (photo == null || photoScore.getScore() == null) {
+                continue;
+            }
+            float[] embedding = normalize(photoScore.getFeatures());
+            result.put(photo.getId(), new CachedScore(photoScore.getScore(), embedding));
+            toSave.putIfAbsent(cacheKey(photo), PhotoAiScore.builder()
+                    .cacheKey(cacheKey(photo))
+                    .modelVersion(modelVersion)
+                    .score(photoScore.getScore())
+                    .embedding(pack(embedding))
+                    .build());
+        }
+
+        if (!toSave.isEmpty()) {
+            // 다른 요청이 먼저 저장한 키는 건너뛴다.
+            Set<String> existing = photoAiScoreRepository.findByModelVersionAndCacheKeyIn(modelVersion, toSave.keySet()).stream()
+                    .map(PhotoAiScore::getCacheKey)
+                    .collect(Collectors.toSet());
+            List<PhotoAiScore> newEntries = new ArrayList<>();
+            toSave.forEach((key, entry) -> {
+                if (!existing.contains(key)) {
+                    newEntries.add(entry);
+                }
+            });
+            try {
+                photoAiScoreRepository.saveAll(newEntries);
+            } catch (DataIntegrityViolationException e) {
+                log.debug("AI 점수 캐시 동시 저장 무시: {}", e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    private static float[] normalize(List<Float> features) {
+        if (features == null || features.isEmpty()) {
+            return null;
+        }
+        float[] array = new float[features.size()];
+        double norm = 0;
+        for (int i = 0; i < array.length; i++) {
+            array[i] = features.get(i) != null ? features.get(i) : 0f;
+            norm += array[i] * array[i];
+        }
+        if (norm == 0) {
+            return null;
+        }
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < array.length; i++) {
+            array[i] *= scale;
+        }
+        return array;
+    }
+
+    private static byte[] pack(float[] embedding) {
+        if (embedding == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(embedding.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(embedding);
+        return buffer.array();
+    }
+
+    private static float[] unpack(byte[] bytes) {
+        if (bytes == null || bytes.length == 0 || bytes.length % Float.BYTES != 0) {
+            return null;
+        }
+        float[] embedding = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(embedding);
+        return embedding;
+    }
+}
@@ -0,0 +1,239 @@
+package com.apply.diarypic.photo.service;
+
+import com.apply.diarypic.global.s3.S3Uploader;
+import com.apply.diarypic.photo.entity.DiaryPhoto;
+import com.apply.diarypic.photo.entity.PhotoBlob;
+import com.apply.diarypic.photo.repository.PhotoBlobRepository;
+import com.apply.diarypic.photo.repository.PhotoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 콘텐츠 해시 기반 사진 중복 제거. 같은 사용자가 같은 사진을 다시 올리면 S3 객체를 새로 만들지 않고
+ * 기존 PhotoBlob 을 참조하도록 한다.
+ *
+ * 참조(refCount)는 사진을 저장하기 전, 기존 객체를 쓰기로 정하는 순간에 잡는다. 마지막 참조 해제와 겹치면
+ * acquire 가 실패하므로 호출자는 새로 업로드한다. 새 객체는 항상 고유한 키에 올리므로, 커밋 후로 미뤄진
+ * 이전 객체 삭제가 새 업로드를 지우는 일은 없다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PhotoBlobService {
+
+    private static final Pattern SHA256_HEX = Pattern.compile("^[0-9a-f]{64}$");
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int HASH_LENGTH = 64;
+
+    private final PhotoBlobRepository photoBlobRepository;
+    private final PhotoRepository photoRepository;
+    private final S3Uploader s3Uploader;
+
+    public static String contentKeyPrefix(Long userId) {
+        return "photos/" + userId + "/sha256/";
+    }
+
+    /**
+     * 콘텐츠 주소 키 photos/{userId}/sha256/{hash}/{uuid}. 같은 해시라도 업로드마다 다른 키를 쓴다.
+     */
+    public static String newContentKey(Long userId, String contentHash) {
+        return contentKeyPrefix(userId) + contentHash + "/" + UUID.randomUUID();
+    }
+
+    /**
+     * 콘텐츠 주소 키에서 해시를 꺼낸다. 콘텐츠 주소 키가 아니거나 형식이 틀리면 null.
+     * 이전 형식(photos/{userId}/sha256/{hash})도 받는다.
+     */
+    public static String contentHashOf(Long userId, String objectKey) {
+        String prefix = contentKeyPrefix(userId);
+        if (objectKey == null || !objectKey.startsWith(prefix)) {
+            return null;
+        }
+        String rest = objectKey.substring(prefix.length());
+        if (rest.length() > HASH_LENGTH + 1 && rest.charAt(HASH_LENGTH) == '/'
+                && rest.indexOf('/', HASH_LENGTH + 1) < 0) {
+            rest = rest.substring(0, HASH_LENGTH);
+        }
+        return isValidHash(rest) ? rest : null;
+    }
+
+    public static boolean isValidHash(String contentHash) {
+        return contentHash != null && SHA256_HEX.matcher(contentHash).matches();
+    }
+
+    /**
+     * 스트림을 끝까지 읽으며 SHA-256 을 계산한다. 스트림은 호출자가 닫는다.
+     */
+    public static String sha256Hex(InputStream inputStream) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<PhotoBlob> find(Long userId, String contentHash) {
+        return photoBlobRepository.findByUserIdAndContentHash(userId, contentHash);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, PhotoBlob> findAll(Long userId, Collection<String> contentHashes) {
+        return photoBlobRepository.findByUserIdAndContentHashIn(userId, contentHashes).stream()
+                .collect(Collectors.toMap(PhotoBlob::getContentHash, blob -> blob));
+    }
+
+    /**
+     * 기존 콘텐츠에 참조 하나를 잡는다. 그 사이 마지막 참조가 해제되어 지워졌다면 empty 이고,
+     * 호출자는 바이트를 새로 올려야 한다.
+     */
+    public Optional<PhotoBlob> acquire(Long userId, String contentHash) {
+        if (photoBlobRepository.addReferences(userId, contentHash, 1) == 0) {
+            return Optional.empty();
+        }
+        return find(userId, contentHash);
+    }
+
+    /**
+     * S3 업로드가 끝난 객체를 참조 하나와 함께 등록한다. 같은 콘텐츠가 이미 있으면 그 객체에 참조를 잡아 돌려주며,
+     * 이때 호출자가 올린 객체(objectKey)는 아무도 참조하지 않으므로 호출자가 지운다.
+     */
+    public PhotoBlob register(Long userId, String contentHash, String objectKey, String contentType, Long size) {
+        Optional<PhotoBlob> existing = acquire(userId, contentHash);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        try {
+            return photoBlobRepository.saveAndFlush(PhotoBlob.builder()
+                    .userId(userId)
+                    .contentHash(contentHash)
+                    .objectKey(objectKey)
+                    .contentType(contentType)
+                    .size(size)
+                    .refCount(1)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // 같은 해시가 동시에 등록되었다.
+            return acquire(userId, contentHash)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    /**
+     * 사진을 저장한다. 참조는 업로드 단계(acquire / register)에서 이미 잡혀 있다.
+     * 이미 변환본이 있는 콘텐츠라면 썸네일 URL 을 그대로 재사용한다.
+     */
+    @Transactional
+    public List<DiaryPhoto> savePhotos(List<DiaryPhoto> photos) {
+        for (DiaryPhoto photo : photos) {
+            if (photo.getContentHash() != null && photo.getThumbnailUrl() == null) {
+                photoRepository.findFirstByUserIdAndContentHashAndThumbnailUrlIsNotNull(photo.getUserId(), photo.getContentHash())
+                        .ifPresent(previous -> {
+                            photo.setThumbnailUrl(previous.getThumbnailUrl());
+                            photo.setMediumUrl(previous.getMediumUrl());
+                        });
+            }
+        }
+        return photoRepository.saveAll(photos);
+    }
+
+    /**
+     * 저장에 실패한 사진들이 업로드 단계에서 잡은 참조를 돌려준다.
+     */
+    public void releaseUnsaved(List<DiaryPhoto> photos) {
+        for (DiaryPhoto photo : photos) {
+            if (photo.getContentHash() == null) {
+                continue;
+            }
+            try {
+                release(photo);
+            } catch (Exception e) {
+                log.error("저장 실패한 사진의 참조 해제 실패 (hash={}): {}", photo.getContentHash(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 사진 삭제 시 호출. 마지막 참조가 사라진 경우에만 S3 객체(원본 + 변환본)를 지운다.
+     * S3 삭제는 커밋 후에 한다. 롤백되면 행과 객체가 모두 남는다.
+     */
+    @Transactional
+    public void release(DiaryPhoto photo) {
+        if (photo.getContentHash() == null) {
+            deleteObjectsAfterCommit(photo);
+            return;
+        }
+
+        Optional<PhotoBlob> blob = photoBlobRepository.findForUpdate(photo.getUserId(), photo.getContentHash());
+        if (blob.isEmpty()) {
+            deleteObjectsAfterCommit(photo);
+            return;
+        }
+
+        PhotoBlob photoBlob = blob.get();
+        photoBlob.setRefCount(photoBlob.getRefCount() - 1);
+        if (photoBlob.getRefCount() > 0) {
+            log.info("사진 ID {}의 콘텐츠(hash={})는 다른 사진 {}장이 참조 중이므로 S3 객체를 유지합니다.",
+                    photo.getId(), photo.getContentHash(), photoBlob.getRefCount());
+            return;
+        }
+        photoBlobRepository.delete(photoBlob);
+        deleteObjectsAfterCommit(photo);
+    }
+
+    private void deleteObjectsAfterCommit(DiaryPhoto photo) {
+        List<String> urls = Stream.of(photo.getPhotoUrl(), photo.getThumbnailUrl(), photo.getMediumUrl())
+                .filter(StringUtils::hasText)
+                .collect(Collectors.toList());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deleteObjects(urls);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteObjects(urls);
+            }
+        });
+    }
+
+    private void deleteObjects(List<String> urls) {
+        for (String url : urls) {
+            try {
+                s3Uploader.delete(url);
+            } catch (Exception e) {
+                log.error("S3 사진 삭제 실패: {}", url, e);
+            }
+        }
+    }
+}
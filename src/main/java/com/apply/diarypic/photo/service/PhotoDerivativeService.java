@@ -0,0 +1,224 @@
+package com.apply.diarypic.photo.service;
+
+import com.apply.diarypic.album.repository.AlbumRepository;
+import com.apply.diarypic.global.s3.S3Uploader;
+import com.apply.diarypic.photo.entity.DiaryPhoto;
+import com.apply.diarypic.photo.repository.PhotoRepository;
+import com.drew.imaging.ImageMetadataReader;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.exif.ExifIFD0Directory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 업로드된 원본 사진으로부터 목록 화면용 썸네일(256px)과 중간 크기(1024px) 이미지를 만든다.
+ * 변환본은 원본 S3 키 옆에 {원본키}_256.jpg / {원본키}_1024.jpg 로 저장된다.
+ * 디코딩할 수 없는 형식(HEIC 등)은 UNSUPPORTED 로 표시해 백필이 매번 다시 내려받지 않게 한다.
+ */
+@Slf4j
+@Service
+public class PhotoDerivativeService {
+
+    static final int THUMBNAIL_SIZE = 256;
+    static final int MEDIUM_SIZE = 1024;
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private final S3Uploader s3Uploader;
+    private final PhotoRepository photoRepository;
+    private final AlbumRepository albumRepository;
+    private final Executor photoDerivativeExecutor;
+
+    public PhotoDerivativeService(S3Uploader s3Uploader,
+                                  PhotoRepository photoRepository,
+                                  AlbumRepository albumRepository,
+                                  @Qualifier("photoDerivativeExecutor") Executor photoDerivativeExecutor) {
+        this.s3Uploader = s3Uploader;
+        this.photoRepository = photoRepository;
+        this.albumRepository = albumRepository;
+        this.photoDerivativeExecutor = photoDerivativeExecutor;
+    }
+
+    /**
+     * 저장이 끝난 사진들의 변환본 생성을 CPU 풀에 맡긴다. 요청 스레드는 기다리지 않는다.
+     */
+    public void generateAsync(List<DiaryPhoto> photos) {
+        for (DiaryPhoto photo : photos) {
+            submit(photo.getId(), photo.getPhotoUrl());
+        }
+    }
+
+    /**
+     * 썸네일이 없는 기존 사진들을 id 순서대로 훑으며 변환본을 만든다.
+     */
+    public void backfillMissingDerivatives() {
+        long lastId = 0L;
+        int processed = 0;
+        while (true) {
+            List<DiaryPhoto> page = photoRepository.findTop100ByThumbnailUrlIsNullAndDerivativeStatusIsNullAndIdGreaterThanOrderByIdAsc(lastId);
+            if (page.isEmpty()) {
+                break;
+            }
+            List<CompletableFuture<Void>> batch = new ArrayList<>(page.size());
+            for (DiaryPhoto photo : page) {
+                batch.add(submit(photo.getId(), photo.getPhotoUrl()));
+            }
+            CompletableFuture.allOf(batch.toArray(new CompletableFuture[0])).join();
+            processed += page.size();
+            lastId = page.get(page.size() - 1).getId();
+        }
+        log.info("썸네일 백필 완료. 대상 사진 {}장", processed);
+    }
+
+    private CompletableFuture<Void> submit(Long photoId, String photoUrl) {
+        try {
+            return CompletableFuture.runAsync(() -> generate(photoId, photoUrl), photoDerivativeExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("썸네일 생성 대기열이 가득 차 건너뜁니다 (백필 시 재처리). Photo ID: {}", photoId);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private void generate(Long photoId, String photoUrl) {
+        try {
+            String originalKey = s3Uploader.extractKey(photoUrl);
+            byte[] original = s3Uploader.download(originalKey);
+
+            BufferedImage source = decode(original);
+            if (source == null) {
+                log.warn("디코딩할 수 없는 이미지 형식이라 썸네일을 만들지 않습니다. Photo ID: {}", photoId);
+                photoRepository.updateDerivativeStatus(photoId, DiaryPhoto.DerivativeStatus.UNSUPPORTED);
+                return;
+            }
+            int orientation = readExifOrientation(original);
+
+            String thumbnailUrl = s3Uploader.putBytes(originalKey + "_" + THUMBNAIL_SIZE + ".jpg",
+                    encodeProgressiveJpeg(resize(source, THUMBNAIL_SIZE, orientation)), "image/jpeg");
+            String mediumUrl = s3Uploader.putBytes(originalKey + "_" + MEDIUM_SIZE + ".jpg",
+                    encodeProgressiveJpeg(resize(source, MEDIUM_SIZE, orientation)), "image/jpeg");
+
+            photoRepository.updateDerivativeUrls(photoId, thumbnailUrl, mediumUrl);
+            albumRepository.replaceCoverImageUrl(photoUrl, thumbnailUrl);
+            log.debug("썸네일 생성 완료. Photo ID: {}", photoId);
+        } catch (Exception e) {
+            log.error("썸네일 생성 실패. Photo ID: {}, 오류: {}", photoId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 지원하지 않는 형식이거나 손상된 파일이면 null. 네트워크 오류 등 다시 시도할 만한 실패와 구분한다.
+     */
+    private BufferedImage decode(byte[] original) throws IOException {
+        try {
+            return ImageIO.read(new ByteArrayInputStream(original));
+        } catch (IIOException e) {
+            log.debug("이미지 디코딩 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 긴 변이 maxSize 가 되도록 축소하고 EXIF 회전 정보를 적용한다. 원본보다 크게 늘리지는 않는다.
+     * 결과는 JPEG 로 저장하므로 PNG 등의 투명한 영역은 흰 배경으로 채운다.
+     */
+    private BufferedImage resize(BufferedImage source, int maxSize, int orientation) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxSize / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        // 큰 비율로 한 번에 줄이면 계단 현상이 생기므로 절반씩 단계적으로 줄인다.
+        BufferedImage current = source;
+        int currentWidth = width;
+        int currentHeight = height;
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+            BufferedImage step = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = step.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, currentWidth, currentHeight, Color.WHITE, null);
+            g.dispose();
+            current = step;
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+
+        return applyOrientation(current, orientation);
+    }
+
+    private BufferedImage applyOrientation(BufferedImage image, int orientation) {
+        if (orientation <= 1 || orientation > 8) {
+            return image;
+        }
+        int w = image.getWidth();
+        int h = image.getHeight();
+        boolean swap = orientation >= 5;
+        AffineTransform t = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { t.translate(w, 0); t.scale(-1, 1); }
+            case 3 -> { t.translate(w, h); t.rotate(Math.PI); }
+            case 4 -> { t.translate(0, h); t.scale(1, -1); }
+            case 5 -> { t.rotate(Math.PI / 2); t.scale(1, -1); }
+            case 6 -> { t.translate(h, 0); t.rotate(Math.PI / 2); }
+            case 7 -> { t.translate(h, w); t.scale(-1, -1); t.rotate(Math.PI / 2); t.scale(1, -1); }
+            case 8 -> { t.translate(0, w); t.rotate(-Math.PI / 2); }
+            default -> { }
+        }
+        BufferedImage oriented = new BufferedImage(swap ? h : w, swap ? w : h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = oriented.createGraphics();
+        g.drawImage(image, t, null);
+        g.dispose();
+        return oriented;
+    }
+
+    private int readExifOrientation(byte[] original) {
+        try {
+            Metadata metadata = ImageMetadataReader.readMetadata(new ByteArrayInputStream(original));
+            ExifIFD0Directory directory = metadata.getFirstDirectoryOfType(ExifIFD0Directory.class);
+            if (directory != null && directory.containsTag(ExifIFD0Directory.TAG_ORIENTATION)) {
+                return directory.getInt(ExifIFD0Directory.TAG_ORIENTATION);
+            }
+        } catch (Exception e) {
+            log.debug("EXIF orientation 읽기 실패: {}", e.getMessage());
+        }
+        return 1;
+    }
+
+    private byte[] encodeProgressiveJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+        param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,82 @@
+package com.apply.diarypic.photo.service;
+
+import java.util.Arrays;
+
+/**
+ * MMR(Maximal Marginal Relevance) 선택. 매 단계 lambda * 관련도 - (1 - lambda) * (이미 고른 사진과의 최대 유사도)
+ * 가 가장 큰 사진을 고른다. 임베딩은 n x dim 평면 배열에 길이 1 로 정규화되어 있어야 하며 (내적 = 코사인 유사도),
+ * 임베딩이 없는 행은 0 으로 채워 두면 유사도 0 으로 취급된다. 선택 루프 안에서는 객체를 만들지 않는다.
+ */
+final class PhotoDiversitySelector {
+
+    private PhotoDiversitySelector() {
+    }
+
+    /**
+     * @param relevance  사진별 관련도 (길이 n)
+     * @param embeddings n x dim 평면 배열
+     * @param seeds      이미 선택된 것으로 보는 사진 인덱스 (필수 사진). 결과에는 포함하지 않는다.
+     * @param k          고를 개수
+     * @return 고른 인덱스 (선택 순서, 최대 k 개)
+     */
+    static int[] select(double[] relevance, float[] embeddings, int dim, int[] seeds, int k, double lambda) {
+        int n = relevance.length;
+        boolean[] taken = new boolean[n];
+        double[] maxSimilarity = new double[n];
+        Arrays.fill(maxSimilarity, Double.NEGATIVE_INFINITY);
+
+        for (int seed : seeds) {
+            taken[seed] = true;
+            updateMaxSimilarity(seed, embeddings, dim, taken, maxSimilarity);
+        }
+
+        int[] picked = new int[Math.min(k, n)];
+        int count = 0;
+        while (count < picked.length) {
+            int best = -1;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                if (taken[i]) {
+                    continue;
+                }
+                double redundancy = maxSimilarity[i] == Double.NEGATIVE_INFINITY ? 0 : maxSimilarity[i];
+                double value = lambda * relevance[i] - (1 - lambda) * redundancy;
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            taken[best] = true;
+            picked[count++] = best;
+            updateMaxSimilarity(best, embeddings, dim, taken, maxSimilarity);
+        }
+        return count == picked.length ? picked : Arrays.copyOf(picked, count);
+    }
+
+    /**
+     * 두 행의 내적.
+     */
+    static double dot(float[] embeddings, int dim, int a, int b) {
+        int offsetA = a * dim;
+        int offsetB = b * dim;
+        double sum = 0;
+        for (int j = 0; j < dim; j++) {
+            sum += embeddings[offsetA + j] * embeddings[offsetB + j];
+        }
+        return sum;
+    }
+
+    private static void updateMaxSimilarity(int chosen, float[] embeddings, int dim, boolean[] taken, double[] maxSimilarity) {
+        for (int i = 0; i < maxSimilarity.length; i++) {
+            if (!taken[i]) {
+                double similarity = dot(embeddings, dim, chosen, i);
+                if (similarity > maxSimilarity[i]) {
+                    maxSimilarity[i] = similarity;
+                }
+            }
+        }
+    }
+}
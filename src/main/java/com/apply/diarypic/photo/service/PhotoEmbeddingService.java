@@ -0,0 +1,63 @@
+package com.apply.diarypic.photo.service;
+
+import com.apply.diarypic.ai.dto.AiPhotoInputDto;
+import com.apply.diarypic.ai.service.AiWorkScheduler;
+import com.apply.diarypic.ai.service.AiWorkScheduler.Priority;
+import com.apply.diarypic.photo.entity.DiaryPhoto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 업로드가 끝난 사진을 바로 AI 서버에 보내 점수와 임베딩을 받아 둔다. 추천 요청 시에는 저장된 값만으로
+ * 고르므로 AI 서버를 거치지 않는다. 실패하거나 건너뛴 사진은 추천 요청 때 그 사진만 채점된다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PhotoEmbeddingService {
+
+    private final PhotoRecommendationService photoRecommendationService;
+    private final PhotoAiScoreCache photoAiScoreCache;
+
+    @Value("${ai.scoring.at-ingest:true}")
+    private boolean enabled;
+
+    /**
+     * 아직 점수가 없는 사진만 채점을 요청한다. 요청 스레드는 기다리지 않는다.
+     * 큰 업로드도 추천 요청과 같이 chunk-size 장씩 나눠 보낸다.
+     */
+    public void scoreAsync(List<DiaryPhoto> photos) {
+        if (!enabled || photos.isEmpty()) {
+            return;
+        }
+        Map<Long, PhotoAiScoreCache.CachedScore> cached = photoAiScoreCache.findAll(photos);
+        List<DiaryPhoto> unscored = photos.stream()
+                .filter(photo -> !cached.containsKey(photo.getId()))
+                .collect(Collectors.toList());
+        if (unscored.isEmpty()) {
+            return;
+        }
+
+        List<AiPhotoInputDto> images = unscored.stream()
+                .map(photo -> new AiPhotoInputDto(String.valueOf(photo.getId()), photo.getPhotoUrl()))
+                .collect(Collectors.toList());
+        photoRecommendationService.scoreInChunks(images)
+                .publishOn(Schedulers.boundedElastic()) // 점수 저장(JPA)은 블로킹
+                .contextWrite(AiWorkScheduler.context(Priority.BACKGROUND, unscored.get(0).getUserId()))
+                .subscribe(response -> {
+                    if (response == null || response.getScores() == null || response.getScores().isEmpty()) {
+                        log.debug("업로드 시 채점 결과 없음. 추천 요청 때 다시 채점합니다. 사진 {}장", unscored.size());
+                        return;
+                    }
+                    int saved = photoAiScoreCache.saveAll(unscored, response.getScores()).size();
+                    log.debug("업로드 시 채점 완료. 사진 {}장 중 {}장", unscored.size(), saved);
+                }, error -> log.warn("업로드 시 채점 실패 (추천 요청 때 다시 채점): {}", error.getMessage()));
+    }
+}
@@ -0,0 +1,159 @@
+package com.apply.diarypic.photo.service;
+
+import com.drew.imaging.FileType;
+import com.drew.imaging.FileTypeDetector;
+import com.drew.imaging.heif.HeifMetadataReader;
+import com.drew.imaging.jpeg.JpegMetadataReader;
+import com.drew.lang.GeoLocation;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.exif.ExifReader;
+import com.drew.metadata.exif.ExifSubIFDDirectory;
+import com.drew.metadata.exif.GpsDirectory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * 업로드 스트림의 앞부분(JPEG APP 세그먼트 / HEIF meta 박스)만 읽어 촬영 시각과 GPS 좌표를 꺼낸다.
+ * 읽은 만큼은 mark/reset 으로 되돌리므로 호출자는 같은 스트림을 이어서 끝까지 소비할 수 있다.
+ */
+@Slf4j
+@Component
+public class PhotoExifExtractor {
+
+    private static final DateTimeFormatter EXIF_DATE_TIME = DateTimeFormatter.ofPattern("yyyy:MM:dd HH:mm:ss");
+
+    @Value("${photo.exif.max-header-bytes:256KB}")
+    private DataSize maxHeaderBytes;
+
+    public record ExifData(LocalDateTime shootingDateTime, Double latitude, Double longitude) {
+
+        static final ExifData EMPTY = new ExifData(null, null, null);
+
+        public boolean hasLocation() {
+            return latitude != null && longitude != null;
+        }
+    }
+
+    /**
+     * 스트림 앞쪽 최대 max-header-bytes 만 읽어 EXIF 를 파싱한 뒤 스트림을 처음 위치로 되돌린다.
+     * 지원하지 않는 형식이거나 헤더가 한도를 넘으면 빈 결과를 돌려준다.
+     */
+    public ExifData extract(BufferedInputStream in) throws IOException {
+        int limit = (int) maxHeaderBytes.toBytes();
+        in.mark(limit);
+        try {
+            FileType fileType = FileTypeDetector.detectFileType(in);
+            // detectFileType 이 내부에서 mark 를 다시 걸기 때문에 한도를 복구한다.
+            in.mark(limit);
+            InputStream header = new BoundedInputStream(in, limit);
+            Metadata metadata = switch (fileType) {
+                case Jpeg -> JpegMetadataReader.readMetadata(header, List.of(new ExifReader()));
+                case Heif -> HeifMetadataReader.readMetadata(header);
+                default -> null;
+            };
+            return metadata != null ? toExifData(metadata) : ExifData.EMPTY;
+        } catch (Exception e) {
+            log.debug("EXIF 헤더 파싱 실패 (무시): {}", e.getMessage());
+            return ExifData.EMPTY;
+        } finally {
+            in.reset();
+        }
+    }
+
+    private ExifData toExifData(Metadata metadata) {
+        LocalDateTime shootingDateTime = null;
+        ExifSubIFDDirectory exifDir = metadata.getFirstDirectoryOfType(ExifSubIFDDirectory.class);
+        if (exifDir != null) {
+            String original = exifDir.getString(ExifSubIFDDirectory.TAG_DATETIME_ORIGINAL);
+            if (original != null) {
+                try {
+                    // EXIF 촬영 시각은 타임존 없는 현지 시각이므로 그대로 LocalDateTime 으로 해석한다.
+                    shootingDateTime = LocalDateTime.parse(original.trim(), EXIF_DATE_TIME);
+                } catch (DateTimeParseException e) {
+                    log.debug("EXIF 촬영 시각 형식 오류: {}", original);
+                }
+            }
+        }
+
+        Double latitude = null;
+        Double longitude = null;
+        GpsDirectory gpsDir = metadata.getFirstDirectoryOfType(GpsDirectory.class);
+        if (gpsDir != null) {
+            GeoLocation geo = gpsDir.getGeoLocation();
+            if (geo != null && !geo.isZero()) {
+                latitude = geo.getLatitude();
+                longitude = geo.getLongitude();
+            }
+        }
+        return new ExifData(shootingDateTime, latitude, longitude);
+    }
+
+    /**
+     * limit 바이트 이후로는 EOF 처럼 동작하고, close 는 하위 스트림에 전달하지 않는다.
+     */
+    private static final class BoundedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b != -1) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
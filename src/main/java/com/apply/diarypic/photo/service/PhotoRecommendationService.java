@@ -1,20 +1,33 @@
 package com.apply.diarypic.photo.service;
 
 import com.apply.diarypic.ai.dto.AiImageScoringRequestDto;
+import com.apply.diarypic.ai.dto.AiImageScoringResponseDto;
 import com.apply.diarypic.ai.dto.AiPhotoInputDto;
-import com.apply.diarypic.ai.service.AiServerService;
+import com.apply.diarypic.ai.service.AiScoringBatcher;
+import com.apply.diarypic.ai.service.AiWorkScheduler;
+import com.apply.diarypic.ai.service.AiWorkScheduler.Priority;
 import com.apply.diarypic.photo.entity.DiaryPhoto;
 import com.apply.diarypic.photo.repository.PhotoRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -23,14 +36,67 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PhotoRecommendationService {
 
-    private final AiServerService aiServerService;
+    private static final int MAX_RECOMMENDED = 9;
+
+    private final AiScoringBatcher aiScoringBatcher;
     private final PhotoRepository photoRepository;
+    private final PhotoAiScoreCache photoAiScoreCache;
+
+    // 필수 사진과 비슷한 사진을 얼마나 우대할지 (특징 벡터 코사인 유사도 가중치)
+    @Value("${ai.scoring.reference-weight:0.3}")
+    private double referenceWeight;
+
+    // MMR 가중치. 1 이면 점수 순, 낮을수록 서로 다른 사진을 우선한다.
+    @Value("${ai.scoring.diversity-lambda:0.7}")
+    private double diversityLambda;
+
+    @Value("${ai.scoring.candidate-pool:50}")
+    private int candidatePool;
+
+    @Value("${ai.scoring.chunk-size:32}")
+    private int chunkSize;
+
+    @Value("${ai.scoring.chunk-concurrency:4}")
+    private int chunkConcurrency;
 
     @Transactional(readOnly = true)
     public Mono<List<Long>> getRecommendedPhotosFromAI(Long userId, List<Long> uploadedPhotoIds, List<Long> mandatoryPhotoIds) {
+        List<Long> fallback = mandatoryPhotoIds != null ? new ArrayList<>(mandatoryPhotoIds) : Collections.emptyList();
+        return recommend(userId, uploadedPhotoIds, mandatoryPhotoIds, Priority.SCORING)
+                .map(Recommendation::photoIds)
+                .defaultIfEmpty(fallback) // AI 응답이 완전히 비었을 경우
+                .onErrorResume(e -> {
+                    log.error("AI 사진 추천 처리 중 오류 발생 (비동기). 필수 사진 또는 빈 목록 반환. 오류: {}", e.getMessage());
+                    return Mono.just(fallback);
+                });
+    }
+
+    /**
+     * 미리 계산용 추천 (필수 사진 없음, BACKGROUND 우선순위). 모든 사진의 점수를 실제로 받아 고른 경우에만 값을 내고,
+     * AI 서버 실패나 일부 묶음 실패로 대체 응답이 될 상황이면 비어 있다. 호출자는 빈 결과를 저장하지 않는다.
+     */
+    @Transactional(readOnly = true)
+    public Mono<List<Long>> precomputeRecommendation(Long userId, List<Long> photoIds) {
+        return recommend(userId, photoIds, Collections.emptyList(), Priority.BACKGROUND)
+                .filter(Recommendation::fromScores)
+                .map(Recommendation::photoIds);
+    }
+
+    /**
+     * fromScores 는 요청한 모든 사진의 점수(캐시 + 새 채점)로 고른 결과인지 여부.
+     */
+    private record Recommendation(List<Long> photoIds, boolean fromScores) {
+    }
+
+    /**
+     * 대체 응답 없이 추천만 계산한다. 고를 사진이 없거나 AI 응답이 비었으면 empty, AI 호출이 실패하면 error.
+     * priority 는 채점이 필요할 때 AI 서버 대기열에서 받을 우선순위.
+     */
+    private Mono<Recommendation> recommend(Long userId, List<Long> uploadedPhotoIds, List<Long> mandatoryPhotoIds,
+                                           Priority priority) {
         if (uploadedPhotoIds == null || uploadedPhotoIds.isEmpty()) {
             log.warn("AI 추천 요청 (비동기): 사용자 ID {}에 대해 업로드된 사진 ID 목록이 비어있습니다.", userId);
-            return Mono.just(Collections.emptyList());
+            return Mono.empty();
         }
 
 
@@ -40,32 +106,48 @@ public class PhotoRecommendationService {
 
         if (allUserPhotosInRequest.isEmpty()) {
             log.warn("AI 추천 요청 (비동기): 사용자 ID {}에 대해 유효한 사진을 찾을 수 없습니다 (업로드 ID: {}).", userId, uploadedPhotoIds);
-            return Mono.just(Collections.emptyList());
+            return Mono.empty();
         }
 
-        List<AiPhotoInputDto> imagesForAi = allUserPhotosInRequest.stream()
-                .map(photo -> new AiPhotoInputDto(String.valueOf(photo.getId()), photo.getPhotoUrl()))
+        // 이미 채점된 사진은 다시 보내지 않는다. 모두 채점되어 있으면 AI 서버를 부르지 않고 바로 고른다.
+        List<Long> mandatory = mandatoryPhotoIds != null ? mandatoryPhotoIds : Collections.emptyList();
+        Map<Long, PhotoAiScoreCache.CachedScore> cachedScores = photoAiScoreCache.findAll(allUserPhotosInRequest);
+        List<DiaryPhoto> unscoredPhotos = allUserPhotosInRequest.stream()
+                .filter(photo -> !cachedScores.containsKey(photo.getId()))
                 .collect(Collectors.toList());
-
-        List<AiPhotoInputDto> referenceImagesForAi;
-        if (mandatoryPhotoIds != null && !mandatoryPhotoIds.isEmpty()) {
-            referenceImagesForAi = allUserPhotosInRequest.stream()
-                    .filter(photo -> mandatoryPhotoIds.contains(photo.getId()))
-                    .map(photo -> new AiPhotoInputDto(String.valueOf(photo.getId()), photo.getPhotoUrl()))
-                    .collect(Collectors.toList());
-        } else {
-            referenceImagesForAi = Collections.emptyList();
+        if (unscoredPhotos.isEmpty()) {
+            List<Long> result = selectTop(allUserPhotosInRequest, cachedScores, mandatory);
+            log.info("AI 추천 요청: 사용자 ID {}, 사진 {}장 모두 캐시된 점수로 선택: {}", userId, allUserPhotosInRequest.size(), result);
+            return Mono.just(new Recommendation(result, true));
         }
 
-        AiImageScoringRequestDto scoringRequest = new AiImageScoringRequestDto(imagesForAi, referenceImagesForAi);
+        List<AiPhotoInputDto> imagesForAi = unscoredPhotos.stream()
+                .map(photo -> new AiPhotoInputDto(String.valueOf(photo.getId()), photo.getPhotoUrl()))
+                .collect(Collectors.toList());
 
-        log.info("AI 서버에 사진 추천 요청 (비동기): 사용자 ID {}, 전체 사진 {}장, 필수 사진 {}장", userId, imagesForAi.size(), referenceImagesForAi.size());
+        // 필수 사진(reference_images)은 보내지 않는다. 캐시된 점수는 필수 사진과 무관한 사진 자체의 점수이고,
+        // 필수 사진과의 유사도는 selectTop 에서 임베딩으로 더한다.
+        log.info("AI 서버에 사진 추천 요청 (비동기): 사용자 ID {}, 채점할 사진 {}장 (캐시 {}장), 필수 사진 {}장",
+                userId, imagesForAi.size(), cachedScores.size(), mandatory.size());
+
+        return scoreInChunks(imagesForAi)
+                .contextWrite(AiWorkScheduler.context(priority, userId))
+                .publishOn(Schedulers.boundedElastic()) // 점수 저장(JPA)은 블로킹이므로 네트워크 스레드에서 벗어난다.
+                .<Recommendation>handle((aiResponse, sink) -> {
+                    if (aiResponse != null && aiResponse.getScores() != null && !aiResponse.getScores().isEmpty()) {
+                        Map<Long, PhotoAiScoreCache.CachedScore> newScores = photoAiScoreCache.saveAll(unscoredPhotos, aiResponse.getScores());
+                        Map<Long, PhotoAiScoreCache.CachedScore> scores = new HashMap<>(cachedScores);
+                        scores.putAll(newScores);
+                        List<Long> result = selectTop(allUserPhotosInRequest, scores, mandatory);
+                        log.info("최종 추천 사진 ID 목록 (캐시 + 신규 점수, 최대 9장): {}", result);
+                        sink.next(new Recommendation(result, newScores.size() == unscoredPhotos.size()));
+                        return;
+                    }
 
-        return aiServerService.requestPhotoRecommendation(scoringRequest)
-                .map(aiResponse -> {
+                    // 사진별 점수를 보내지 않는 AI 서버는 추천 ID 목록을 그대로 쓴다.
                     if (aiResponse == null || aiResponse.getRecommendedPhotoIds() == null) {
                         log.warn("AI 서버 사진 추천 응답(비동기)이 null이거나 recommendedPhotoIds가 null입니다. 사용자 ID: {}.", userId);
-                        return mandatoryPhotoIds != null ? new ArrayList<>(mandatoryPhotoIds) : Collections.<Long>emptyList();
+                        return;
                     }
 
                     log.info("AI 서버로부터 추천 사진 ID {}개 수신 (비동기): {}", aiResponse.getRecommendedPhotoIds().size(), aiResponse.getRecommendedPhotoIds());
@@ -89,14 +171,124 @@ public class PhotoRecommendationService {
                     }
                     finalSelection.addAll(recommendedIdsFromAi);
 
-                    List<Long> result = finalSelection.stream().limit(9).collect(Collectors.toList());
+                    List<Long> result = finalSelection.stream().limit(MAX_RECOMMENDED).collect(Collectors.toList());
                     log.info("최종 추천 사진 ID 목록 (비동기, 최대 9장): {}", result);
-                    return result;
-                })
-                .defaultIfEmpty(mandatoryPhotoIds != null ? new ArrayList<>(mandatoryPhotoIds) : Collections.emptyList()) // AI 응답이 완전히 비었을 경우
-                .onErrorResume(e -> {
-                    log.error("AI 사진 추천 처리 중 오류 발생 (비동기). 필수 사진 또는 빈 목록 반환. 오류: {}", e.getMessage());
-                    return Mono.just(mandatoryPhotoIds != null ? new ArrayList<>(mandatoryPhotoIds) : Collections.emptyList());
+                    sink.next(new Recommendation(result, false));
                 });
     }
-}
\ No newline at end of file
+
+    /**
+     * 사진을 chunk-size 장씩 나눠 chunk-concurrency 개까지 동시에 채점하고 결과를 하나로 합친다.
+     * 실패한 묶음은 빈 응답이 되므로(AiServerService 의 대체 응답) 나머지 묶음의 결과만으로 고른다.
+     * 업로드 시 채점(PhotoEmbeddingService)도 같은 경로를 쓴다.
+     */
+    Mono<AiImageScoringResponseDto> scoreInChunks(List<AiPhotoInputDto> images) {
+        List<List<AiPhotoInputDto>> chunks = new ArrayList<>();
+        for (int from = 0; from < images.size(); from += chunkSize) {
+            chunks.add(images.subList(from, Math.min(from + chunkSize, images.size())));
+        }
+        if (chunks.size() == 1) {
+            return aiScoringBatcher.score(new AiImageScoringRequestDto(images, Collections.emptyList()));
+        }
+
+        return Flux.fromIterable(chunks)
+                .flatMap(chunk -> aiScoringBatcher.score(new AiImageScoringRequestDto(chunk, Collections.emptyList()))
+                        .onErrorResume(e -> {
+                            log.warn("사진 채점 묶음 실패 ({}장). 나머지 결과로 계속합니다: {}", chunk.size(), e.getMessage());
+                            return Mono.empty();
+                        }), chunkConcurrency)
+                .collectList()
+                .map(responses -> {
+                    List<Object> recommendedPhotoIds = new ArrayList<>();
+                    List<AiImageScoringResponseDto.PhotoScore> scores = new ArrayList<>();
+                    for (AiImageScoringResponseDto response : responses) {
+                        if (response.getRecommendedPhotoIds() != null) {
+                            recommendedPhotoIds.addAll(response.getRecommendedPhotoIds());
+                        }
+                        if (response.getScores() != null) {
+                            scores.addAll(response.getScores());
+                        }
+                    }
+                    log.info("사진 채점 묶음 {}개 중 {}개 응답, 점수 {}개", chunks.size(), responses.size(), scores.size());
+                    return new AiImageScoringResponseDto(recommendedPhotoIds, scores);
+                });
+    }
+
+    /**
+     * 필수 사진을 먼저 넣고, 나머지는 MMR 로 채운다. 관련도는 품질 점수 + 필수 사진과의 평균 유사도 가중치이고,
+     * 이미 고른 사진(필수 사진 포함)과 비슷할수록 감점해 비슷한 사진이 몰리지 않게 한다.
+     */
+    private List<Long> selectTop(List<DiaryPhoto> photos, Map<Long, PhotoAiScoreCache.CachedScore> scores, List<Long> mandatory) {
+        Set<Long> selection = new LinkedHashSet<>(mandatory);
+        List<Long> candidateIds = topCandidates(photos, scores, selection);
+        int n = candidateIds.size();
+        int slots = MAX_RECOMMENDED - selection.size();
+        if (n == 0 || slots <= 0) {
+            return selection.stream().limit(MAX_RECOMMENDED).collect(Collectors.toList());
+        }
+
+        int dim = candidateIds.stream()
+                .map(id -> scores.get(id).embedding())
+                .filter(Objects::nonNull)
+                .mapToInt(embedding -> embedding.length)
+                .findFirst()
+                .orElse(0);
+        float[] embeddings = new float[n * dim];
+        double[] relevance = new double[n];
+        int[] seeds = new int[n];
+        int seedCount = 0;
+        for (int i = 0; i < n; i++) {
+            PhotoAiScoreCache.CachedScore score = scores.get(candidateIds.get(i));
+            relevance[i] = score.score();
+            float[] embedding = score.embedding();
+            if (embedding != null && embedding.length == dim) {
+                System.arraycopy(embedding, 0, embeddings, i * dim, dim);
+            }
+            if (selection.contains(candidateIds.get(i))) {
+                seeds[seedCount++] = i;
+            }
+        }
+        seeds = Arrays.copyOf(seeds, seedCount);
+
+        if (seedCount > 0 && referenceWeight != 0 && dim > 0) {
+            for (int i = 0; i < n; i++) {
+                double similarity = 0;
+                for (int seed : seeds) {
+                    similarity += PhotoDiversitySelector.dot(embeddings, dim, i, seed);
+                }
+                relevance[i] += referenceWeight * similarity / seedCount;
+            }
+        }
+
+        for (int index : PhotoDiversitySelector.select(relevance, embeddings, dim, seeds, slots, diversityLambda)) {
+            selection.add(candidateIds.get(index));
+        }
+        return selection.stream().limit(MAX_RECOMMENDED).collect(Collectors.toList());
+    }
+
+    /**
+     * MMR 비용을 사진 수와 무관하게 두기 위해 점수 상위 candidate-pool 장만 후보로 남긴다.
+     * 크기가 candidate-pool 인 최소 힙으로 한 번 훑어 고르고, 필수 사진은 항상 포함한다.
+     */
+    private List<Long> topCandidates(List<DiaryPhoto> photos, Map<Long, PhotoAiScoreCache.CachedScore> scores, Set<Long> mandatory) {
+        List<Long> candidates = new ArrayList<>();
+        PriorityQueue<Long> heap = new PriorityQueue<>(Comparator.comparingDouble((Long id) -> scores.get(id).score()));
+        Set<Long> seen = new HashSet<>();
+        for (DiaryPhoto photo : photos) {
+            Long id = photo.getId();
+            if (!scores.containsKey(id) || !seen.add(id)) {
+                continue;
+            }
+            if (mandatory.contains(id)) {
+                candidates.add(id);
+            } else if (heap.size() < candidatePool) {
+                heap.offer(id);
+            } else if (scores.get(id).score() > scores.get(heap.peek()).score()) {
+                heap.poll();
+                heap.offer(id);
+            }
+        }
+        candidates.addAll(heap);
+        return candidates;
+    }
+}
@@ -1,7 +1,6 @@
 package com.apply.diarypic.photo.service;
 
 import com.apply.diarypic.photo.entity.DiaryPhoto;
-import com.apply.diarypic.global.s3.S3Uploader;
 import com.apply.diarypic.photo.dto.PhotoResponse;
 import com.apply.diarypic.photo.repository.PhotoRepository;
 import lombok.RequiredArgsConstructor;
@@ -18,7 +17,8 @@ import java.util.stream.Collectors;
 public class PhotoSelectionService {
 
     private final PhotoRepository photoRepository;
-    private final S3Uploader s3Uploader;
+    private final PhotoBlobService photoBlobService;
+    private final SpeculativeRecommendationService speculativeRecommendationService;
 
     @Transactional(readOnly = true)
     public List<PhotoResponse> getTemporaryPhotos(Long userId) {
@@ -59,17 +59,12 @@ public class PhotoSelectionService {
         // photoRepository.saveAll(finalPhotos); // 변경된 finalPhotos 저장 (JPA Dirty Checking으로 자동 업데이트될 수 있지만 명시적 save 권장)
 
         for (DiaryPhoto photo : photosToDelete) {
-            try {
-                s3Uploader.deleteFileByUrl(photo.getPhotoUrl());
-                log.info("S3에서 사진 삭제 성공: {}", photo.getPhotoUrl());
-            } catch (Exception e) {
-                log.error("S3 사진 삭제 실패 (임시로 DB만 삭제 진행): {}", photo.getPhotoUrl(), e);
-            }
-            log.warn("S3 사진 삭제 로직이 임시로 비활성화되었습니다. URL: {}", photo.getPhotoUrl());
+            photoBlobService.release(photo);
             photoRepository.delete(photo);
             log.info("DB에서 사진 삭제 성공: ID {}", photo.getId());
         }
 
+        speculativeRecommendationService.onTemporaryPhotosChanged(userId);
         return finalPhotos;
     }
 
@@ -85,16 +80,10 @@ public class PhotoSelectionService {
         // throw new IllegalArgumentException("이미 일기에 등록된 사진은 삭제할 수 없습니다.");
         // }
 
-        try {
-            s3Uploader.deleteFileByUrl(photo.getPhotoUrl());
-            log.info("S3에서 사진 삭제 성공: {}", photo.getPhotoUrl());
-        } catch (Exception e) {
-            log.error("S3 사진 삭제 실패 (임시로 DB만 삭제 진행): {}", photo.getPhotoUrl(), e);
-
-        }
-        log.warn("S3 사진 삭제 로직이 임시로 비활성화되었습니다. URL: {}", photo.getPhotoUrl());
+        photoBlobService.release(photo);
 
         photoRepository.delete(photo);
         log.info("DB에서 사진 삭제 성공: ID {}", photoId);
+        speculativeRecommendationService.onTemporaryPhotosChanged(userId);
     }
 }
\ No newline at end of file
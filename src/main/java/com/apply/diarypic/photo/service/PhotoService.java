@@ -1,90 +1,628 @@
 package com.apply.diarypic.photo.service;
 
+import com.apply.diarypic.photo.dto.PhotoDedupClaimRequest;
+import com.apply.diarypic.photo.dto.PhotoDedupPreflightResponse;
 import com.apply.diarypic.photo.dto.PhotoResponse;
+import com.apply.diarypic.photo.dto.PhotoUploadConfirmRequest;
 import com.apply.diarypic.photo.dto.PhotoUploadItemDto;
+import com.apply.diarypic.photo.dto.PhotoUploadSessionRequest;
+import com.apply.diarypic.photo.dto.PhotoUploadSessionResponse;
 import com.apply.diarypic.photo.entity.DiaryPhoto;
+import com.apply.diarypic.photo.entity.PhotoBlob;
 import com.apply.diarypic.global.geocoding.GeocodingService;
+import com.apply.diarypic.global.s3.S3TransferBusyException;
 import com.apply.diarypic.global.s3.S3Uploader;
 import com.apply.diarypic.photo.repository.PhotoRepository;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class PhotoService {
 
     private final S3Uploader s3Uploader;
     private final PhotoRepository photoRepository;
     private final GeocodingService geocodingService;
+    private final PhotoDerivativeService photoDerivativeService;
+    private final PhotoEmbeddingService photoEmbeddingService;
+    private final SpeculativeRecommendationService speculativeRecommendationService;
+    private final PhotoBlobService photoBlobService;
+    private final PhotoExifExtractor photoExifExtractor;
+    private final ObjectMapper objectMapper;
+    private final Executor photoIngestExecutor;
 
-    @Transactional
+    @Value("${photo.direct-upload.expiration:10m}")
+    private Duration directUploadExpiration;
+
+    // 서버를 거치는 업로드와 같은 파일 크기 상한
+    @Value("${spring.servlet.multipart.max-file-size:10MB}")
+    private DataSize maxFileSize;
+
+    public PhotoService(S3Uploader s3Uploader,
+                        PhotoRepository photoRepository,
+                        GeocodingService geocodingService,
+                        PhotoDerivativeService photoDerivativeService,
+                        PhotoEmbeddingService photoEmbeddingService,
+                        SpeculativeRecommendationService speculativeRecommendationService,
+                        PhotoBlobService photoBlobService,
+                        PhotoExifExtractor photoExifExtractor,
+                        ObjectMapper objectMapper,
+                        @Qualifier("photoIngestExecutor") Executor photoIngestExecutor) {
+        this.s3Uploader = s3Uploader;
+        this.photoRepository = photoRepository;
+        this.geocodingService = geocodingService;
+        this.photoDerivativeService = photoDerivativeService;
+        this.photoEmbeddingService = photoEmbeddingService;
+        this.speculativeRecommendationService = speculativeRecommendationService;
+        this.photoBlobService = photoBlobService;
+        this.photoExifExtractor = photoExifExtractor;
+        this.objectMapper = objectMapper;
+        this.photoIngestExecutor = photoIngestExecutor;
+    }
+
+    /**
+     * S3 에 저장된 원본 위치와 콘텐츠 해시 (해시를 모르면 null).
+     */
+    private record StoredObject(String url, String contentHash) {
+    }
+
+    /**
+     * 파일별 S3 비동기 업로드를 병렬로 수행한 뒤, 성공한 사진만 입력 순서대로 한 번에 저장한다.
+     * SHA-256 은 업로드하며 흘러가는 바이트로 계산하고, 이미 있는 콘텐츠였다면 방금 올린 객체를 지우고 기존 객체를 참조한다.
+     * 바이트 전송 자체를 건너뛰려면 클라이언트가 preflight / claim 을 쓴다.
+     * 클라이언트가 촬영 시각이나 위치를 보내지 않았다면 EXIF 헤더로 채운다.
+     * 네트워크 작업 동안에는 DB 트랜잭션을 잡지 않는다.
+     */
     public List<PhotoResponse> uploadPhotosWithMetadata(List<MultipartFile> files,
                                                         List<PhotoUploadItemDto> metadataList,
                                                         Long userId) {
-        List<PhotoResponse> responses = new ArrayList<>();
-
+        List<CompletableFuture<DiaryPhoto>> pending = new ArrayList<>(files.size());
+        List<String> names = new ArrayList<>(files.size());
         for (int i = 0; i < files.size(); i++) {
             MultipartFile file = files.get(i);
             PhotoUploadItemDto metadataItem = metadataList.get(i);
+            CompletableFuture<StoredObject> stored = storeHashed(file, userId);
+            CompletableFuture<PhotoUploadItemDto> effectiveMetadata = needsExifFallback(metadataItem)
+                    ? CompletableFuture.supplyAsync(() -> applyExifFallback(metadataItem, readExif(file)), photoIngestExecutor)
+                    : CompletableFuture.completedFuture(metadataItem);
+            pending.add(ingest(stored, effectiveMetadata, userId, file.getOriginalFilename()));
+            names.add(file.getOriginalFilename());
+        }
+        return persistIngested(pending, names, userId);
+    }
 
-            String s3Url = null;
-            try {
-                s3Url = s3Uploader.upload(file, "photos/" + userId);
-
-                LocalDateTime shootingDateTime = metadataItem.getShootingDateTime();
-
-                String locationString = null;
-                String countryName = null;
-                String adminAreaLevel1 = null;
-                String locality = null;
-
-                PhotoUploadItemDto.LocationDto locationDto = metadataItem.getLocation();
-                if (locationDto != null && locationDto.getLatitude() != null && locationDto.getLongitude() != null) {
-                    double latitude = locationDto.getLatitude();
-                    double longitude = locationDto.getLongitude();
-                    locationString = latitude + "," + longitude;
-
-                    try {
-                        GeocodingService.ParsedAddress parsedAddress = geocodingService.getParsedAddressFromCoordinates(latitude, longitude);
-                        if (parsedAddress != null) {
-                            countryName = parsedAddress.getCountryName();
-                            adminAreaLevel1 = parsedAddress.getAdminAreaLevel1();
-                            locality = parsedAddress.getLocality();
+    /**
+     * multipart 본문을 파트 단위로 읽으며 파일 바이트를 도착하는 대로 S3 multipart 업로드로 흘려보낸다.
+     * metadata 파트(JSON 배열)가 files 파트보다 먼저 와야 하며, 파일은 순서대로 metadata 항목과 짝지어진다.
+     * 해시와 EXIF 는 같은 스트림에서 계산한다.
+     */
+    public List<PhotoResponse> uploadPhotosStreaming(FileItemInputIterator items, Long userId) throws IOException {
+        List<PhotoUploadItemDto> metadataList;
+        List<CompletableFuture<DiaryPhoto>> pending = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        try {
+            metadataList = readStreamingParts(items, userId, pending, names);
+        } catch (IOException | RuntimeException e) {
+            // 크기 제한 초과 등으로 중간에 끊기면 앞서 올린 파트의 객체와 참조를 정리한다.
+            discardIngested(pending, userId);
+            throw e;
+        }
+
+        if (metadataList != null && pending.size() != metadataList.size()) {
+            discardIngested(pending, userId);
+            throw new IllegalArgumentException("파일 수와 metadata 항목 수가 일치하지 않습니다.");
+        }
+        return persistIngested(pending, names, userId);
+    }
+
+    /**
+     * 파트를 순서대로 읽어 파일 파트는 바로 S3 에 올린다. 올린 결과는 pending 에 쌓고 metadata 목록을 돌려준다.
+     */
+    private List<PhotoUploadItemDto> readStreamingParts(FileItemInputIterator items, Long userId,
+                                                        List<CompletableFuture<DiaryPhoto>> pending,
+                                                        List<String> names) throws IOException {
+        List<PhotoUploadItemDto> metadataList = null;
+        while (items.hasNext()) {
+            FileItemInput item = items.next();
+            if (item.isFormField()) {
+                if ("metadata".equals(item.getFieldName())) {
+                    try (InputStream inputStream = item.getInputStream()) {
+                        metadataList = objectMapper.readValue(inputStream, new TypeReference<List<PhotoUploadItemDto>>() {});
+                    }
+                }
+                continue;
+            }
+            if (!"files".equals(item.getFieldName())) {
+                continue;
+            }
+            if (metadataList == null) {
+                throw new IllegalArgumentException("metadata 파트는 files 파트보다 먼저 전송되어야 합니다.");
+            }
+            if (pending.size() >= metadataList.size()) {
+                throw new IllegalArgumentException("파일 수가 metadata 항목 수보다 많습니다.");
+            }
+
+            PhotoUploadItemDto metadataItem = metadataList.get(pending.size());
+            String fileName = item.getName();
+            CompletableFuture<StoredObject> stored;
+            PhotoUploadItemDto effectiveMetadata = metadataItem;
+            try (InputStream inputStream = item.getInputStream()) {
+                MessageDigest digest = PhotoBlobService.newDigest();
+                BufferedInputStream in = new BufferedInputStream(new DigestInputStream(inputStream, digest));
+                if (needsExifFallback(metadataItem)) {
+                    effectiveMetadata = applyExifFallback(metadataItem, photoExifExtractor.extract(in));
+                }
+                String objectKey = s3Uploader.createObjectKey("photos/" + userId);
+                long size = s3Uploader.uploadStream(in, objectKey, item.getContentType());
+                stored = CompletableFuture.completedFuture(
+                        registerUploaded(userId, HexFormat.of().formatHex(digest.digest()), objectKey, item.getContentType(), size));
+            } catch (RuntimeException e) {
+                // 남은 파트 바이트는 다음 items.next() 에서 건너뛴다.
+                stored = CompletableFuture.failedFuture(e);
+            }
+            pending.add(ingest(stored, CompletableFuture.completedFuture(effectiveMetadata), userId, fileName));
+            names.add(fileName);
+        }
+        return metadataList;
+    }
+
+    /**
+     * 저장하지 않기로 한 업로드의 참조를 돌려준다. 마지막 참조였던 객체는 S3 에서 지워진다.
+     */
+    private void discardIngested(List<CompletableFuture<DiaryPhoto>> pending, Long userId) {
+        List<DiaryPhoto> uploaded = pending.stream()
+                .filter(future -> future.isDone() && !future.isCompletedExceptionally())
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
+        if (!uploaded.isEmpty()) {
+            log.warn("userId: {}, 업로드가 중간에 실패해 이미 올린 사진 {}장을 정리합니다.", userId, uploaded.size());
+            photoBlobService.releaseUnsaved(uploaded);
+        }
+    }
+
+    /**
+     * 끝까지 올려야 해시를 알 수 있는 업로드는 고유 키로 먼저 올린 뒤 PhotoBlob 에 등록한다 (참조 하나를 잡는다).
+     * 같은 콘텐츠가 이미 있으면 방금 올린 객체를 지우고 기존 객체를 참조한다.
+     */
+    private StoredObject registerUploaded(Long userId, String contentHash, String objectKey, String contentType, long size) {
+        PhotoBlob blob = photoBlobService.register(userId, contentHash, objectKey, contentType, size);
+        if (!blob.getObjectKey().equals(objectKey)) {
+            deleteDuplicate(userId, contentHash, objectKey);
+        }
+        return new StoredObject(s3Uploader.getS3Url(blob.getObjectKey()), contentHash);
+    }
+
+    /**
+     * 같은 콘텐츠의 PhotoBlob 이 따로 있어 아무도 참조하지 않게 된 객체를 지운다.
+     */
+    private void deleteDuplicate(Long userId, String contentHash, String objectKey) {
+        log.info("userId: {}, 이미 업로드된 콘텐츠(hash={})이므로 중복 객체를 삭제합니다: {}", userId, contentHash, objectKey);
+        try {
+            s3Uploader.delete(s3Uploader.getS3Url(objectKey));
+        } catch (Exception e) {
+            log.warn("중복 객체 삭제 실패: {}, 오류: {}", objectKey, e.getMessage());
+        }
+    }
+
+    /**
+     * EXIF 헤더만 읽는다. 읽을 수 없으면 빈 값.
+     */
+    private PhotoExifExtractor.ExifData readExif(MultipartFile file) {
+        try (BufferedInputStream in = new BufferedInputStream(file.getInputStream())) {
+            return photoExifExtractor.extract(in);
+        } catch (IOException e) {
+            log.warn("EXIF 읽기 실패: {}, 오류: {}", file.getOriginalFilename(), e.getMessage());
+            return PhotoExifExtractor.ExifData.EMPTY;
+        }
+    }
+
+    private boolean needsExifFallback(PhotoUploadItemDto metadataItem) {
+        PhotoUploadItemDto.LocationDto locationDto = metadataItem.getLocation();
+        return metadataItem.getShootingDateTime() == null
+                || locationDto == null || locationDto.getLatitude() == null || locationDto.getLongitude() == null;
+    }
+
+    /**
+     * 클라이언트 값이 우선이고, 비어 있는 항목만 EXIF 값으로 채운 사본을 만든다.
+     */
+    private PhotoUploadItemDto applyExifFallback(PhotoUploadItemDto metadataItem, PhotoExifExtractor.ExifData exif) {
+        PhotoUploadItemDto effective = new PhotoUploadItemDto();
+        effective.setShootingDateTime(metadataItem.getShootingDateTime() != null
+                ? metadataItem.getShootingDateTime()
+                : exif.shootingDateTime());
+
+        PhotoUploadItemDto.LocationDto locationDto = metadataItem.getLocation();
+        boolean clientHasLocation = locationDto != null && locationDto.getLatitude() != null && locationDto.getLongitude() != null;
+        if (!clientHasLocation && exif.hasLocation()) {
+            PhotoUploadItemDto.LocationDto exifLocation = new PhotoUploadItemDto.LocationDto();
+            exifLocation.setLatitude(exif.latitude());
+            exifLocation.setLongitude(exif.longitude());
+            effective.setLocation(exifLocation);
+        } else {
+            effective.setLocation(locationDto);
+        }
+        return effective;
+    }
+
+    private CompletableFuture<StoredObject> storeHashed(MultipartFile file, Long userId) {
+        MessageDigest digest = PhotoBlobService.newDigest();
+        InputStream inputStream;
+        try {
+            inputStream = new DigestInputStream(file.getInputStream(), digest);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        String objectKey = s3Uploader.createObjectKey("photos/" + userId);
+        return s3Uploader.uploadAsyncToKey(inputStream, file.getSize(), objectKey, file.getContentType())
+                .thenApplyAsync(s3Url -> registerUploaded(userId, HexFormat.of().formatHex(digest.digest()),
+                        objectKey, file.getContentType(), file.getSize()), photoIngestExecutor);
+    }
+
+    /**
+     * 클라이언트가 보낸 해시 중 서버에 이미 있는 것과 업로드가 필요한 것을 나눠 알려준다.
+     */
+    public PhotoDedupPreflightResponse preflight(Long userId, List<String> contentHashes) {
+        Set<String> requested = new LinkedHashSet<>();
+        for (String contentHash : contentHashes) {
+            if (!PhotoBlobService.isValidHash(contentHash)) {
+                throw new IllegalArgumentException("SHA-256 해시 형식이 올바르지 않습니다: " + contentHash);
+            }
+            requested.add(contentHash);
+        }
+        Set<String> existing = photoBlobService.findAll(userId, requested).keySet();
+        List<String> existingHashes = requested.stream().filter(existing::contains).collect(Collectors.toList());
+        List<String> missingHashes = requested.stream().filter(h -> !existing.contains(h)).collect(Collectors.toList());
+        log.info("userId: {}, 중복 확인 요청 {}건 중 기존 콘텐츠 {}건", userId, requested.size(), existingHashes.size());
+        return new PhotoDedupPreflightResponse(existingHashes, missingHashes);
+    }
+
+    /**
+     * 이미 서버에 있는 콘텐츠를 바이트 전송 없이 새 임시 사진으로 등록한다.
+     */
+    public List<PhotoResponse> claimExisting(Long userId, PhotoDedupClaimRequest request) {
+        Set<String> contentHashes = request.getItems().stream()
+                .map(PhotoDedupClaimRequest.ClaimItem::getContentHash)
+                .collect(Collectors.toSet());
+        Set<String> existing = photoBlobService.findAll(userId, contentHashes).keySet();
+        for (String contentHash : contentHashes) {
+            if (!existing.contains(contentHash)) {
+                throw new IllegalArgumentException("서버에 없는 콘텐츠입니다. 먼저 업로드해주세요: " + contentHash);
+            }
+        }
+
+        List<CompletableFuture<DiaryPhoto>> pending = new ArrayList<>(request.getItems().size());
+        List<String> names = new ArrayList<>(request.getItems().size());
+        for (PhotoDedupClaimRequest.ClaimItem item : request.getItems()) {
+            // 조회 이후 마지막 참조가 해제되어 지워졌다면 이 항목만 실패한다. 클라이언트는 바이트를 다시 올린다.
+            CompletableFuture<StoredObject> stored = photoBlobService.acquire(userId, item.getContentHash())
+                    .map(blob -> CompletableFuture.completedFuture(
+                            new StoredObject(s3Uploader.getS3Url(blob.getObjectKey()), blob.getContentHash())))
+                    .orElseGet(() -> CompletableFuture.failedFuture(
+                            new IllegalStateException("콘텐츠가 삭제되었습니다. 다시 업로드해주세요: " + item.getContentHash())));
+            PhotoUploadItemDto metadataItem = item.getMetadata() != null ? item.getMetadata() : new PhotoUploadItemDto();
+            pending.add(ingest(stored, CompletableFuture.completedFuture(metadataItem), userId, item.getContentHash()));
+            names.add(item.getContentHash());
+        }
+        return persistIngested(pending, names, userId);
+    }
+
+    /**
+     * 클라이언트가 S3에 직접 업로드할 수 있도록 presigned PUT URL을 발급한다. 이미지 바이트는 서버를 거치지 않는다.
+     * contentHash 를 함께 보내면 photos/{userId}/sha256/{hash}/{uuid} 키로 발급하고 S3 가 해시를 검증하며,
+     * 이미 있는 콘텐츠라면 URL 없이 기존 객체 키와 alreadyUploaded 로 알려준다. 그 외에는 photos/{userId}/{uuid} 키를 쓴다.
+     * contentLength 를 보내면 max-file-size 이하인지 확인하고 URL 에 서명한다. 크기와 형식은 확정 때 다시 확인한다.
+     */
+    public PhotoUploadSessionResponse createUploadSession(Long userId, PhotoUploadSessionRequest request) {
+        Set<String> contentHashes = request.getFiles().stream()
+                .map(PhotoUploadSessionRequest.FileSpec::getContentHash)
+                .filter(PhotoBlobService::isValidHash)
+                .collect(Collectors.toSet());
+        Map<String, PhotoBlob> existingBlobs = contentHashes.isEmpty()
+                ? Collections.emptyMap()
+                : photoBlobService.findAll(userId, contentHashes);
+
+        List<PhotoUploadSessionResponse.PresignedUpload> uploads = new ArrayList<>(request.getFiles().size());
+        for (PhotoUploadSessionRequest.FileSpec fileSpec : request.getFiles()) {
+            String contentType = fileSpec.getContentType();
+            if (!contentType.startsWith("image/")) {
+                throw new IllegalArgumentException("이미지 파일만 업로드할 수 있습니다: " + contentType);
+            }
+            Long contentLength = fileSpec.getContentLength();
+            if (contentLength != null && contentLength > maxFileSize.toBytes()) {
+                throw new IllegalArgumentException("파일 크기가 허용된 최대 크기(" + maxFileSize + ")를 넘습니다.");
+            }
+            String contentHash = fileSpec.getContentHash();
+            if (contentHash == null) {
+                String objectKey = s3Uploader.createObjectKey("photos/" + userId);
+                URL uploadUrl = s3Uploader.createPresignedPutUrl(objectKey, contentType, null, contentLength, directUploadExpiration);
+                uploads.add(new PhotoUploadSessionResponse.PresignedUpload(objectKey, uploadUrl.toString(), contentType, false));
+                continue;
+            }
+            if (!PhotoBlobService.isValidHash(contentHash)) {
+                throw new IllegalArgumentException("SHA-256 해시 형식이 올바르지 않습니다: " + contentHash);
+            }
+            PhotoBlob existing = existingBlobs.get(contentHash);
+            if (existing != null) {
+                uploads.add(new PhotoUploadSessionResponse.PresignedUpload(existing.getObjectKey(), null, contentType, true));
+                continue;
+            }
+            String objectKey = PhotoBlobService.newContentKey(userId, contentHash);
+            String checksum = Base64.getEncoder().encodeToString(HexFormat.of().parseHex(contentHash));
+            URL uploadUrl = s3Uploader.createPresignedPutUrl(objectKey, contentType, checksum, contentLength, directUploadExpiration);
+            uploads.add(new PhotoUploadSessionResponse.PresignedUpload(objectKey, uploadUrl.toString(), contentType, false));
+        }
+        long reused = uploads.stream().filter(PhotoUploadSessionResponse.PresignedUpload::isAlreadyUploaded).count();
+        log.info("userId: {}, presigned 업로드 URL {}개 발급 (기존 콘텐츠 {}개)", userId, uploads.size() - reused, reused);
+        return new PhotoUploadSessionResponse(uploads, LocalDateTime.now().plus(directUploadExpiration));
+    }
+
+    /**
+     * presigned URL로 업로드가 끝난 객체들을 확인하고, 클라이언트 메타데이터로 DiaryPhoto를 생성한다.
+     * uuid 키는 이미 등록된 경우 건너뛰므로 재시도해도 중복 저장되지 않는다.
+     * 콘텐츠 주소 키는 PhotoBlob 으로 등록되어 여러 사진이 공유할 수 있다.
+     * 새로 올라온 객체는 먼저 모두 확인하고, 하나라도 없거나 크기/형식이 맞지 않으면 아무것도 등록하지 않고
+     * 항목별 사유와 함께 DirectUploadRejectedException(400) 을 던진다.
+     */
+    public List<PhotoResponse> confirmDirectUploads(Long userId, PhotoUploadConfirmRequest request) {
+        String keyPrefix = "photos/" + userId + "/";
+        String contentKeyPrefix = PhotoBlobService.contentKeyPrefix(userId);
+        Set<String> requestedKeys = new HashSet<>();
+        for (PhotoUploadConfirmRequest.ConfirmItem item : request.getItems()) {
+            String objectKey = item.getObjectKey();
+            if (!objectKey.startsWith(keyPrefix) || objectKey.contains("..")) {
+                throw new IllegalArgumentException("업로드 세션에서 발급된 objectKey가 아닙니다: " + objectKey);
+            }
+            if (objectKey.startsWith(contentKeyPrefix)) {
+                if (PhotoBlobService.contentHashOf(userId, objectKey) == null) {
+                    throw new IllegalArgumentException("콘텐츠 주소 objectKey 형식이 올바르지 않습니다: " + objectKey);
+                }
+            } else if (!requestedKeys.add(objectKey)) {
+                throw new IllegalArgumentException("중복된 objectKey가 포함되어 있습니다: " + objectKey);
+            }
+        }
+
+        Set<String> registeredUrls = photoRepository.findByPhotoUrlIn(requestedKeys.stream()
+                        .map(s3Uploader::getS3Url)
+                        .collect(Collectors.toList()))
+                .stream()
+                .map(DiaryPhoto::getPhotoUrl)
+                .collect(Collectors.toSet());
+
+        List<PhotoUploadConfirmRequest.ConfirmItem> newItems = new ArrayList<>(request.getItems().size());
+        for (PhotoUploadConfirmRequest.ConfirmItem item : request.getItems()) {
+            if (registeredUrls.contains(s3Uploader.getS3Url(item.getObjectKey()))) {
+                log.info("userId: {}, objectKey: {} 는 이미 등록된 사진이므로 건너뜁니다.", userId, item.getObjectKey());
+            } else {
+                newItems.add(item);
+            }
+        }
+        Set<String> contentHashes = newItems.stream()
+                .map(item -> PhotoBlobService.contentHashOf(userId, item.getObjectKey()))
+                .filter(hash -> hash != null)
+                .collect(Collectors.toSet());
+        Map<String, PhotoBlob> existingBlobs = contentHashes.isEmpty()
+                ? Collections.emptyMap()
+                : photoBlobService.findAll(userId, contentHashes);
+        Map<String, HeadObjectResponse> verified = verifyDirectUploads(userId, newItems, existingBlobs);
+
+        List<CompletableFuture<DiaryPhoto>> pending = new ArrayList<>(newItems.size());
+        List<String> names = new ArrayList<>(newItems.size());
+        for (PhotoUploadConfirmRequest.ConfirmItem item : newItems) {
+            String objectKey = item.getObjectKey();
+            String s3Url = s3Uploader.getS3Url(objectKey);
+            String contentHash = PhotoBlobService.contentHashOf(userId, objectKey);
+            CompletableFuture<StoredObject> uploaded = CompletableFuture.supplyAsync(() -> {
+                if (contentHash != null) {
+                    // 이미 있는 콘텐츠(alreadyUploaded)면 참조만 잡는다. 그 사이 지워졌다면 아래에서 올라온 객체를 확인한다.
+                    Optional<PhotoBlob> acquired = photoBlobService.acquire(userId, contentHash);
+                    if (acquired.isPresent()) {
+                        PhotoBlob blob = acquired.get();
+                        if (!blob.getObjectKey().equals(objectKey)) {
+                            deleteDuplicate(userId, contentHash, objectKey);
                         }
-                    } catch (Exception e) {
-                        log.warn("userId: {}, 파일: {}, locationDto: {}, 주소 변환 중 오류: {}", userId, file.getOriginalFilename(), locationDto, e.getMessage(), e);
+                        return new StoredObject(s3Uploader.getS3Url(blob.getObjectKey()), contentHash);
                     }
-                } else if (metadataItem.getLocation() != null) {
-                    log.warn("userId: {}, 파일: {}, location 객체는 있으나 위도 또는 경도 값이 null입니다.", userId, file.getOriginalFilename());
                 }
+                // 기존 콘텐츠 객체라 확인을 건너뛰었는데 그 사이 참조가 해제된 경우에만 여기서 다시 조회한다.
+                HeadObjectResponse head = Optional.ofNullable(verified.get(objectKey))
+                        .or(() -> s3Uploader.head(objectKey))
+                        .orElseThrow(() -> new IllegalStateException("S3에서 업로드된 파일을 찾을 수 없습니다: " + objectKey));
+                if (contentHash != null) {
+                    return registerUploaded(userId, contentHash, objectKey, head.contentType(), head.contentLength());
+                }
+                return new StoredObject(s3Url, null);
+            }, photoIngestExecutor);
+            PhotoUploadItemDto metadataItem = item.getMetadata() != null ? item.getMetadata() : new PhotoUploadItemDto();
+            pending.add(ingest(uploaded, CompletableFuture.completedFuture(metadataItem), userId, objectKey));
+            names.add(objectKey);
+        }
+        return persistIngested(pending, names, userId);
+    }
 
+    /**
+     * 새로 올라온 객체를 HEAD 로 확인해 objectKey → 메타데이터로 돌려준다. 없거나, max-file-size 를 넘거나,
+     * 이미지가 아닌 객체가 있으면 잘못 올라온 객체를 지우고 DirectUploadRejectedException 을 던진다.
+     * 이미 PhotoBlob 으로 등록된 콘텐츠 객체는 다른 사진이 참조하므로 확인하지도 지우지도 않는다.
+     */
+    private Map<String, HeadObjectResponse> verifyDirectUploads(Long userId, List<PhotoUploadConfirmRequest.ConfirmItem> items,
+                                                                Map<String, PhotoBlob> existingBlobs) {
+        Map<String, CompletableFuture<Optional<HeadObjectResponse>>> lookups = new LinkedHashMap<>();
+        for (PhotoUploadConfirmRequest.ConfirmItem item : items) {
+            String objectKey = item.getObjectKey();
+            String contentHash = PhotoBlobService.contentHashOf(userId, objectKey);
+            PhotoBlob existing = contentHash != null ? existingBlobs.get(contentHash) : null;
+            if (existing != null && existing.getObjectKey().equals(objectKey)) {
+                continue;
+            }
+            lookups.computeIfAbsent(objectKey, key -> CompletableFuture.supplyAsync(() -> s3Uploader.head(key), photoIngestExecutor));
+        }
 
-                DiaryPhoto diaryPhoto = DiaryPhoto.builder()
-                        .photoUrl(s3Url)
-                        .userId(userId)
-                        .shootingDateTime(shootingDateTime)
-                        .location(locationString)
-                        .countryName(countryName)
-                        .adminAreaLevel1(adminAreaLevel1)
-                        .locality(locality)
-                        .build();
+        Map<String, HeadObjectResponse> heads = new HashMap<>();
+        List<DirectUploadRejectedException.Failure> failures = new ArrayList<>();
+        lookups.forEach((objectKey, lookup) -> {
+            Optional<HeadObjectResponse> head = lookup.join();
+            String reason = rejectReason(head);
+            if (reason == null) {
+                heads.put(objectKey, head.get());
+                return;
+            }
+            failures.add(new DirectUploadRejectedException.Failure(objectKey, reason));
+            if (head.isPresent()) {
+                deleteRejected(userId, objectKey);
+            }
+        });
+        if (!failures.isEmpty()) {
+            log.warn("userId: {}, 직접 업로드 확정 거부 {}건: {}", userId, failures.size(), failures);
+            throw new DirectUploadRejectedException(failures);
+        }
+        return heads;
+    }
+
+    private String rejectReason(Optional<HeadObjectResponse> head) {
+        if (head.isEmpty()) {
+            return "S3에서 업로드된 파일을 찾을 수 없습니다.";
+        }
+        Long contentLength = head.get().contentLength();
+        if (contentLength == null || contentLength > maxFileSize.toBytes()) {
+            return "파일 크기가 허용된 최대 크기(" + maxFileSize + ")를 넘습니다.";
+        }
+        String contentType = head.get().contentType();
+        if (contentType == null || !contentType.startsWith("image/")) {
+            return "이미지 파일만 업로드할 수 있습니다: " + contentType;
+        }
+        return null;
+    }
 
-                DiaryPhoto savedDiaryPhoto = photoRepository.save(diaryPhoto);
-                responses.add(PhotoResponse.from(savedDiaryPhoto));
-                log.info("userId: {}, 파일: {} 업로드 및 DB 저장 성공. Photo ID: {}", userId, file.getOriginalFilename(), savedDiaryPhoto.getId());
+    private void deleteRejected(Long userId, String objectKey) {
+        try {
+            s3Uploader.delete(s3Uploader.getS3Url(objectKey));
+        } catch (RuntimeException e) {
+            log.warn("userId: {}, 거부된 업로드 객체 삭제 실패: {}, 오류: {}", userId, objectKey, e.getMessage());
+        }
+    }
 
+    private List<PhotoResponse> persistIngested(List<CompletableFuture<DiaryPhoto>> pending, List<String> names, Long userId) {
+        List<DiaryPhoto> ingested = new ArrayList<>(pending.size());
+        S3TransferBusyException busy = null;
+        for (int i = 0; i < pending.size(); i++) {
+            try {
+                ingested.add(pending.get(i).join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof S3TransferBusyException transferBusy) {
+                    busy = transferBusy;
+                    continue;
+                }
+                log.error("userId: {}, 파일: {} 업로드 중 심각한 오류 발생: {}", userId, names.get(i), cause.getMessage(), cause);
+            }
+        }
+        if (busy != null) {
+            // 업로드 자리가 없어 못 올린 파일이 있으면 요청 전체를 503 으로 돌려 다시 시도하게 한다.
+            log.warn("userId: {}, 동시 업로드 상한으로 사진 {}장 중 일부를 올리지 못해 요청을 거절합니다.", userId, pending.size());
+            if (!ingested.isEmpty()) {
+                photoBlobService.releaseUnsaved(ingested);
+            }
+            throw busy;
+        }
+
+        if (ingested.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<DiaryPhoto> savedPhotos;
+        try {
+            savedPhotos = photoBlobService.savePhotos(ingested);
+        } catch (RuntimeException e) {
+            photoBlobService.releaseUnsaved(ingested);
+            throw e;
+        }
+        log.info("userId: {}, 사진 {}장 중 {}장 업로드 및 DB 저장 성공. Photo IDs: {}", userId, pending.size(), savedPhotos.size(),
+                savedPhotos.stream().map(DiaryPhoto::getId).collect(Collectors.toList()));
+
+        // 같은 콘텐츠의 변환본을 이미 재사용한 사진은 다시 만들지 않는다.
+        photoDerivativeService.generateAsync(savedPhotos.stream()
+                .filter(photo -> photo.getThumbnailUrl() == null)
+                .collect(Collectors.toList()));
+        // 추천 때 AI 서버를 거치지 않도록 점수와 임베딩을 미리 받아 둔다.
+        photoEmbeddingService.scoreAsync(savedPhotos);
+        speculativeRecommendationService.onTemporaryPhotosChanged(userId);
+
+        return savedPhotos.stream()
+                .map(PhotoResponse::from)
+                .collect(Collectors.toList());
+    }
+
+    private CompletableFuture<DiaryPhoto> ingest(CompletableFuture<StoredObject> upload, CompletableFuture<PhotoUploadItemDto> metadata, Long userId, String fileName) {
+        return upload.thenCombine(metadata, (stored, metadataItem) -> buildDiaryPhoto(stored, metadataItem, userId, fileName));
+    }
+
+    /**
+     * 주소는 JVM 안에서 바로 알 수 있을 때(오프라인 인덱스, 메모리 캐시)만 채우고,
+     * 그 외에는 PENDING 으로 저장해 GeocodeBackfillService 가 나중에 채우게 한다. 업로드는 외부 API 를 기다리지 않는다.
+     */
+    private DiaryPhoto buildDiaryPhoto(StoredObject stored, PhotoUploadItemDto metadataItem, Long userId, String fileName) {
+        String locationString = null;
+        GeocodingService.ParsedAddress parsedAddress = null;
+        DiaryPhoto.GeocodeStatus geocodeStatus = null;
+        PhotoUploadItemDto.LocationDto locationDto = metadataItem.getLocation();
+        if (locationDto != null && locationDto.getLatitude() != null && locationDto.getLongitude() != null) {
+            locationString = locationDto.getLatitude() + "," + locationDto.getLongitude();
+            try {
+                parsedAddress = geocodingService.findLocalAddress(locationDto.getLatitude(), locationDto.getLongitude());
             } catch (Exception e) {
-                log.error("userId: {}, 파일: {} 업로드 중 심각한 오류 발생: {}", userId, file.getOriginalFilename(), e.getMessage(), e);
+                log.warn("userId: {}, 파일: {}, locationDto: {}, 로컬 주소 조회 중 오류: {}", userId, fileName, locationDto, e.getMessage());
             }
+            geocodeStatus = parsedAddress != null ? DiaryPhoto.GeocodeStatus.DONE : DiaryPhoto.GeocodeStatus.PENDING;
+        } else if (locationDto != null) {
+            log.warn("userId: {}, 파일: {}, location 객체는 있으나 위도 또는 경도 값이 null입니다.", userId, fileName);
         }
-        return responses;
+
+        return DiaryPhoto.builder()
+                .photoUrl(stored.url())
+                .contentHash(stored.contentHash())
+                .userId(userId)
+                .shootingDateTime(metadataItem.getShootingDateTime())
+                .location(locationString)
+                .countryName(parsedAddress != null ? parsedAddress.getCountryName() : null)
+                .adminAreaLevel1(parsedAddress != null ? parsedAddress.getAdminAreaLevel1() : null)
+                .locality(parsedAddress != null ? parsedAddress.getLocality() : null)
+                .geocodeStatus(geocodeStatus)
+                .geocodeAttempts(geocodeStatus == DiaryPhoto.GeocodeStatus.PENDING ? 0 : null)
+                .geocodeNextAttemptAt(geocodeStatus == DiaryPhoto.GeocodeStatus.PENDING ? LocalDateTime.now() : null)
+                .build();
     }
-}
\ No newline at end of file
+}
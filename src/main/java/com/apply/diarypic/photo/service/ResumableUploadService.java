@@ -0,0 +1,173 @@
+package com.apply.diarypic.photo.service;
+
+import com.apply.diarypic.global.s3.S3Uploader;
+import com.apply.diarypic.photo.dto.PhotoResponse;
+import com.apply.diarypic.photo.dto.PhotoUploadConfirmRequest;
+import com.apply.diarypic.photo.dto.PhotoUploadItemDto;
+import com.apply.diarypic.photo.dto.ResumableUploadCreateRequest;
+import com.apply.diarypic.photo.dto.ResumableUploadResponse;
+import com.apply.diarypic.photo.entity.ResumableUpload;
+import com.apply.diarypic.photo.repository.ResumableUploadRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 불안정한 모바일 네트워크용 이어받기 업로드. 세션 생성 → offset 지정 청크 PUT → 완료 순서로 진행하며,
+ * 각 청크는 바로 S3 multipart part 로 올라가므로 연결이 끊겨도 마지막으로 확정된 offset 부터 다시 보내면 된다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResumableUploadService {
+
+    private static final long MIN_CHUNK_SIZE = DataSize.ofMegabytes(5).toBytes(); // S3 multipart 최소 part 크기
+
+    private final ResumableUploadRepository resumableUploadRepository;
+    private final S3Uploader s3Uploader;
+    private final PhotoService photoService;
+
+    @Value("${photo.resumable.chunk-size:8MB}")
+    private DataSize chunkSize;
+
+    @Value("${photo.resumable.max-file-size:100MB}")
+    private DataSize maxFileSize;
+
+    @Value("${photo.resumable.expiration:24h}")
+    private Duration expiration;
+
+    public ResumableUploadResponse create(Long userId, ResumableUploadCreateRequest request) {
+        if (!request.getContentType().startsWith("image/")) {
+            throw new IllegalArgumentException("이미지 파일만 업로드할 수 있습니다: " + request.getContentType());
+        }
+        if (request.getTotalSize() > maxFileSize.toBytes()) {
+            throw new IllegalArgumentException("파일 크기가 허용된 최대 크기(" + maxFileSize + ")를 넘습니다.");
+        }
+
+        String objectKey = s3Uploader.createObjectKey("photos/" + userId);
+        String s3UploadId = s3Uploader.createMultipartUpload(objectKey, request.getContentType());
+        ResumableUpload upload = resumableUploadRepository.save(ResumableUpload.builder()
+                .userId(userId)
+                .objectKey(objectKey)
+                .s3UploadId(s3UploadId)
+                .contentType(request.getContentType())
+                .totalSize(request.getTotalSize())
+                .chunkSize((int) Math.max(MIN_CHUNK_SIZE, chunkSize.toBytes()))
+                .receivedBytes(0L)
+                .status(ResumableUpload.Status.IN_PROGRESS)
+                .expiresAt(LocalDateTime.now().plus(expiration))
+                .build());
+        log.info("userId: {}, 이어받기 업로드 세션 생성. uploadId: {}, 크기: {}", userId, upload.getId(), upload.getTotalSize());
+        return ResumableUploadResponse.from(upload);
+    }
+
+    public ResumableUploadResponse getStatus(Long userId, Long uploadId) {
+        return ResumableUploadResponse.from(findOwned(userId, uploadId));
+    }
+
+    /**
+     * offset 위치의 청크를 S3 part 로 올린다. 이미 받은 offset 이면 현재 상태만 돌려주고,
+     * 아직 받지 않은 구간을 건너뛴 offset 이면 receivedBytes 가 offset 보다 작은 상태를 그대로 돌려준다.
+     * 건너뛴 청크의 본문은 끝까지 읽어 버려 연결을 다음 요청에 그대로 쓸 수 있게 한다 (길이는 청크 크기로 제한된다).
+     */
+    public ResumableUploadResponse appendChunk(Long userId, Long uploadId, long offset, long length, InputStream body) throws IOException {
+        ResumableUpload upload = findOwned(userId, uploadId);
+        if (upload.getStatus() == ResumableUpload.Status.ABORTED) {
+            throw new ResumableUploadStateException("취소된 업로드 세션입니다. uploadId: " + uploadId, true);
+        }
+        if (upload.getStatus() != ResumableUpload.Status.IN_PROGRESS) {
+            throw new ResumableUploadStateException("진행 중인 업로드 세션이 아닙니다. 상태: " + upload.getStatus(), false);
+        }
+        if (upload.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new ResumableUploadStateException("만료된 업로드 세션입니다. uploadId: " + uploadId, true);
+        }
+        if (length > upload.getChunkSize()) {
+            throw new IllegalArgumentException("청크가 세션의 청크 크기(" + upload.getChunkSize() + ")보다 큽니다: " + length);
+        }
+        if (offset != upload.getReceivedBytes()) {
+            log.info("uploadId: {}, 요청 offset {} 이 서버 offset {} 과 달라 청크를 건너뜁니다.", uploadId, offset, upload.getReceivedBytes());
+            body.transferTo(OutputStream.nullOutputStream());
+            return ResumableUploadResponse.from(upload);
+        }
+
+        long expectedLength = Math.min(upload.getChunkSize(), upload.getTotalSize() - offset);
+        if (length != expectedLength) {
+            throw new IllegalArgumentException("청크 크기가 올바르지 않습니다. 기대값: " + expectedLength + ", 요청값: " + length);
+        }
+
+        int partNumber = (int) (offset / upload.getChunkSize()) + 1;
+        s3Uploader.uploadPart(upload.getObjectKey(), upload.getS3UploadId(), partNumber, body, length);
+        if (resumableUploadRepository.advance(uploadId, offset, offset + length) == 0) {
+            // 같은 청크가 동시에 재전송된 경우. 먼저 끝난 쪽이 offset 을 올렸다.
+            log.info("uploadId: {}, offset {} 청크가 이미 반영되어 있습니다.", uploadId, offset);
+        }
+        return ResumableUploadResponse.from(findOwned(userId, uploadId));
+    }
+
+    /**
+     * 모든 청크를 받았으면 S3 multipart 를 마무리하고, 기존 직접 업로드 확정 로직으로 DiaryPhoto 를 만든다.
+     */
+    public List<PhotoResponse> complete(Long userId, Long uploadId, PhotoUploadItemDto metadata) {
+        ResumableUpload upload = findOwned(userId, uploadId);
+        if (upload.getStatus() == ResumableUpload.Status.ABORTED) {
+            throw new ResumableUploadStateException("취소된 업로드 세션입니다. uploadId: " + uploadId, true);
+        }
+        if (upload.getStatus() == ResumableUpload.Status.IN_PROGRESS) {
+            if (upload.getReceivedBytes() != upload.getTotalSize()) {
+                throw new ResumableUploadStateException("아직 받지 못한 청크가 있습니다. 받은 크기: "
+                        + upload.getReceivedBytes() + " / " + upload.getTotalSize(), false);
+            }
+            s3Uploader.completeMultipartUpload(upload.getObjectKey(), upload.getS3UploadId());
+            resumableUploadRepository.finish(uploadId, ResumableUpload.Status.COMPLETED);
+            log.info("userId: {}, 이어받기 업로드 완료. uploadId: {}", userId, uploadId);
+        }
+
+        // 완료 재시도 시에는 이미 등록된 사진이므로 confirmDirectUploads 가 건너뛴다.
+        PhotoUploadConfirmRequest.ConfirmItem item = new PhotoUploadConfirmRequest.ConfirmItem(upload.getObjectKey(), metadata);
+        return photoService.confirmDirectUploads(userId, new PhotoUploadConfirmRequest(List.of(item)));
+    }
+
+    public void abort(Long userId, Long uploadId) {
+        ResumableUpload upload = findOwned(userId, uploadId);
+        if (resumableUploadRepository.finish(uploadId, ResumableUpload.Status.ABORTED) > 0) {
+            s3Uploader.abortMultipartUpload(upload.getObjectKey(), upload.getS3UploadId());
+            log.info("userId: {}, 이어받기 업로드 취소. uploadId: {}", userId, uploadId);
+        }
+    }
+
+    /**
+     * 만료된 미완료 세션의 S3 multipart 를 취소해 part 저장 비용이 남지 않도록 한다.
+     */
+    public void abortExpiredUploads() {
+        int aborted = 0;
+        List<ResumableUpload> expired;
+        while (!(expired = resumableUploadRepository.findTop100ByStatusAndExpiresAtBefore(
+                ResumableUpload.Status.IN_PROGRESS, LocalDateTime.now())).isEmpty()) {
+            for (ResumableUpload upload : expired) {
+                resumableUploadRepository.finish(upload.getId(), ResumableUpload.Status.ABORTED);
+                s3Uploader.abortMultipartUpload(upload.getObjectKey(), upload.getS3UploadId());
+                aborted++;
+            }
+        }
+        log.info("만료된 이어받기 업로드 {}건 정리 완료", aborted);
+    }
+
+    private ResumableUpload findOwned(Long userId, Long uploadId) {
+        ResumableUpload upload = resumableUploadRepository.findById(uploadId)
+                .orElseThrow(() -> new EntityNotFoundException("업로드 세션을 찾을 수 없습니다. ID: " + uploadId));
+        if (!upload.getUserId().equals(userId)) {
+            throw new SecurityException("해당 업로드 세션에 대한 권한이 없습니다.");
+        }
+        return upload;
+    }
+}
@@ -0,0 +1,19 @@
+package com.apply.diarypic.photo.service;
+
+import lombok.Getter;
+
+/**
+ * 이어받기 업로드 세션의 상태 때문에 요청을 처리할 수 없을 때 던진다.
+ * gone 이면 세션이 만료되었거나 취소되어 다시 쓸 수 없다는 뜻이고 (410), 아니면 지금 상태와 맞지 않는 요청이다 (409).
+ * 응답은 GlobalExceptionHandler 가 만든다.
+ */
+@Getter
+public class ResumableUploadStateException extends RuntimeException {
+
+    private final boolean gone;
+
+    public ResumableUploadStateException(String message, boolean gone) {
+        super(message);
+        this.gone = gone;
+    }
+}
@@ -0,0 +1,131 @@
+package com.apply.diarypic.photo.service;
+
+import com.apply.diarypic.photo.entity.DiaryPhoto;
+import com.apply.diarypic.photo.repository.PhotoRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 임시 사진 묶음이 debounce 동안 바뀌지 않으면 추천을 미리 계산해 둔다. 묶음 전체가 채점되어 점수 캐시에 남으므로
+ * 이후 필수 사진을 지정한 추천도 AI 서버 없이 끝나고, 필수 사진이 없는 추천은 저장된 결과를 그대로 돌려준다.
+ * 묶음이 바뀌면(업로드, 삭제, 확정) 진행 중인 계산을 취소하고 debounce 부터 다시 시작한다.
+ * 결과는 사진 id 목록이 정확히 같을 때만 쓰므로 알림을 놓쳐도 틀린 추천을 돌려주지 않는다.
+ */
+@Slf4j
+@Service
+public class SpeculativeRecommendationService {
+
+    private final PhotoRecommendationService photoRecommendationService;
+    private final PhotoRepository photoRepository;
+    private final boolean enabled;
+    private final Duration debounce;
+
+    private final Map<Long, Disposable> inFlight = new ConcurrentHashMap<>();
+    private final Cache<Long, Speculation> results;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter cancelled;
+
+    private record Speculation(List<Long> photoIds, List<Long> recommended) {
+    }
+
+    public SpeculativeRecommendationService(PhotoRecommendationService photoRecommendationService,
+                                            PhotoRepository photoRepository,
+                                            MeterRegistry meterRegistry,
+                                            @Value("${ai.scoring.speculative.enabled:false}") boolean enabled,
+                                            @Value("${ai.scoring.speculative.debounce:3s}") Duration debounce,
+                                            @Value("${ai.scoring.speculative.ttl:30m}") Duration ttl) {
+        this.photoRecommendationService = photoRecommendationService;
+        this.photoRepository = photoRepository;
+        this.enabled = enabled;
+        this.debounce = debounce;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(ttl)
+                .build();
+
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+        this.cancelled = Counter.builder("diarypic.ai.speculative.cancelled")
+                .description("사진 묶음이 바뀌어 취소한 미리 계산 수")
+                .register(meterRegistry);
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("diarypic.ai.speculative.lookups")
+                .description("미리 계산한 추천 조회 수")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 사용자의 임시 사진 묶음이 바뀌었다. 이전 계산과 결과를 버리고 debounce 후 다시 계산한다.
+     */
+    public synchronized void onTemporaryPhotosChanged(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        results.invalidate(userId);
+        Disposable previous = inFlight.remove(userId);
+        if (previous != null && !previous.isDisposed()) {
+            previous.dispose();
+            cancelled.increment();
+        }
+
+        Disposable[] self = new Disposable[1];
+        self[0] = Mono.delay(debounce, Schedulers.boundedElastic())
+                .flatMap(tick -> {
+                    List<Long> photoIds = sortedIds(photoRepository.findByDiaryIsNullAndUserId(userId).stream()
+                            .map(DiaryPhoto::getId)
+                            .collect(Collectors.toList()));
+                    if (photoIds.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    // 실제 점수로 고른 결과만 저장한다. 비어 있으면 저장하지 않고 조회는 일반 경로로 간다.
+                    return photoRecommendationService.precomputeRecommendation(userId, photoIds)
+                            .map(recommended -> new Speculation(photoIds, recommended));
+                })
+                .doFinally(signal -> inFlight.remove(userId, self[0]))
+                .subscribe(speculation -> {
+                    results.put(userId, speculation);
+                    log.debug("userId: {}, 사진 {}장 추천 미리 계산 완료", userId, speculation.photoIds().size());
+                }, error -> log.warn("userId: {}, 추천 미리 계산 실패: {}", userId, error.getMessage()));
+        inFlight.put(userId, self[0]);
+    }
+
+    /**
+     * 같은 사진 묶음에 대해 필수 사진 없이 미리 계산한 추천이 있으면 돌려준다. 없으면 null.
+     */
+    public List<Long> findPrecomputed(Long userId, List<Long> uploadedPhotoIds, List<Long> mandatoryPhotoIds) {
+        if (!enabled) {
+            return null;
+        }
+        Speculation speculation = results.getIfPresent(userId);
+        if (speculation == null || (mandatoryPhotoIds != null && !mandatoryPhotoIds.isEmpty())
+                || uploadedPhotoIds == null || !speculation.photoIds().equals(sortedIds(uploadedPhotoIds))) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return speculation.recommended();
+    }
+
+    private static List<Long> sortedIds(List<Long> ids) {
+        return ids.stream().distinct().sorted().collect(Collectors.toList());
+    }
+}
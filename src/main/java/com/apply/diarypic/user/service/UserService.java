@@ -3,9 +3,9 @@ package com.apply.diarypic.user.service;
 import com.apply.diarypic.album.repository.AlbumRepository;
 import com.apply.diarypic.diary.entity.Diary;
 import com.apply.diarypic.diary.repository.DiaryRepository;
-import com.apply.diarypic.global.s3.S3Uploader;
 import com.apply.diarypic.keyword.repository.KeywordRepository;
 import com.apply.diarypic.photo.entity.DiaryPhoto;
+import com.apply.diarypic.photo.service.PhotoBlobService;
 import com.apply.diarypic.terms.repository.UserTermsAgreementRepository;
 import com.apply.diarypic.user.dto.UserResponse;
 import com.apply.diarypic.user.entity.User;
@@ -29,7 +29,7 @@ public class UserService {
     private final DiaryRepository diaryRepository;
     private final KeywordRepository keywordRepository;
     private final UserTermsAgreementRepository userTermsAgreementRepository;
-    private final S3Uploader s3Uploader;
+    private final PhotoBlobService photoBlobService;
     private final AlbumRepository albumRepository;
 
     @Transactional(readOnly = true)
@@ -86,14 +86,7 @@ public class UserService {
         // 2. 각 일기에 포함된 사진들의 S3 파일 삭제
         for (Diary diary : diaries) {
             for (DiaryPhoto photo : diary.getDiaryPhotos()) {
-                if (photo.getPhotoUrl() != null && !photo.getPhotoUrl().isEmpty()) {
-                    try {
-                        s3Uploader.deleteFileByUrl(photo.getPhotoUrl());
-                        log.info("S3 파일 삭제 성공: {}", photo.getPhotoUrl());
-                    } catch (Exception e) {
-                        log.error("S3 파일 삭제 실패: {}. 원인: {}", photo.getPhotoUrl(), e.getMessage(), e);
-                    }
-                }
+                photoBlobService.release(photo);
             }
         }
         log.info("사용자 ID {}의 S3 파일 삭제 완료 또는 시도 완료", userId);
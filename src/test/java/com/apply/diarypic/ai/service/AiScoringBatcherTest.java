@@ -0,0 +1,76 @@
+package com.apply.diarypic.ai.service;
+
+import com.apply.diarypic.ai.dto.AiImageScoringRequestDto;
+import com.apply.diarypic.ai.dto.AiImageScoringResponseDto;
+import com.apply.diarypic.ai.dto.AiPhotoInputDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 배치에 모이는 중 구독이 끊긴 요청은 전송 대상에서 빠져야 한다.
+ */
+@ExtendWith(MockitoExtension.class)
+class AiScoringBatcherTest {
+
+    @Mock
+    private AiServerService aiServerService;
+
+    private AiScoringBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        batcher = new AiScoringBatcher(aiServerService, new SimpleMeterRegistry(), true, 64, Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.shutdown();
+    }
+
+    @Test
+    void cancelledRequestIsNotSent() {
+        Disposable subscription = batcher.score(request("a")).subscribe();
+        subscription.dispose();
+
+        verify(aiServerService, after(200).never()).requestPhotoRecommendation(any());
+        verify(aiServerService, never()).requestBatchScoring(any());
+    }
+
+    @Test
+    void cancelledRequestIsDroppedFromBatch() {
+        AiImageScoringRequestDto kept = request("kept");
+        when(aiServerService.requestPhotoRecommendation(kept))
+                .thenReturn(Mono.just(new AiImageScoringResponseDto(Collections.emptyList(), null)));
+
+        Disposable cancelled = batcher.score(request("cancelled")).subscribe();
+        batcher.score(kept).subscribe();
+        cancelled.dispose();
+
+        // 남은 요청이 하나뿐이므로 /score/batch 대신 /score 로 나간다.
+        verify(aiServerService, timeout(1000)).requestPhotoRecommendation(kept);
+        verify(aiServerService, never()).requestBatchScoring(any());
+    }
+
+    private static AiImageScoringRequestDto request(String photoId) {
+        return new AiImageScoringRequestDto(List.of(new AiPhotoInputDto(photoId, "https://bucket/" + photoId)),
+                Collections.emptyList());
+    }
+}
@@ -0,0 +1,87 @@
+package com.apply.diarypic.ai.service;
+
+import com.apply.diarypic.ai.dto.AiBatchScoringRequestDto;
+import com.apply.diarypic.ai.dto.AiBatchScoringResponseDto;
+import com.apply.diarypic.ai.dto.AiDiaryGenerateRequestDto;
+import com.apply.diarypic.ai.service.AiWorkScheduler.Priority;
+import com.apply.diarypic.global.resilience.AdaptiveConcurrencyLimiter;
+import com.apply.diarypic.global.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 한 종류(일기)의 동시성 상한이 가득 차도 그 대기가 스케줄러 자리를 잡지 않아 다른 종류(채점)가 실행되는지 본다.
+ */
+class AiServerServiceConcurrencyTest {
+
+    private AiWorkScheduler scheduler;
+    private AdaptiveConcurrencyLimiter diaryLimiter;
+    private AiServerService aiServerService;
+
+    @BeforeEach
+    void setUp() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        scheduler = new AiWorkScheduler(meterRegistry, 2, 10, Duration.ofSeconds(5), 8, 4, 1);
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 20, 5, 50, Duration.ofSeconds(30), meterRegistry);
+        AdaptiveConcurrencyLimiter scoreLimiter = new AdaptiveConcurrencyLimiter("test-score", 4, 1, 4,
+                2.0, 0.9, 200, Duration.ofSeconds(5), meterRegistry);
+        diaryLimiter = new AdaptiveConcurrencyLimiter("test-diary", 1, 1, 1,
+                2.0, 0.9, 200, Duration.ofSeconds(5), meterRegistry);
+
+        // 일기 생성은 응답하지 않고, 채점은 바로 응답한다.
+        WebClient.Builder webClientBuilder = WebClient.builder().exchangeFunction(request ->
+                request.url().getPath().startsWith("/generate")
+                        ? Mono.never()
+                        : Mono.just(ClientResponse.create(HttpStatus.OK)
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .body("{\"results\":[]}")
+                                .build()));
+        aiServerService = new AiServerService(webClientBuilder, "http://ai-server", scheduler, circuitBreaker,
+                scoreLimiter, diaryLimiter, Duration.ofSeconds(10), Duration.ofSeconds(60), Duration.ofSeconds(30),
+                Duration.ofSeconds(5));
+    }
+
+    @Test
+    void saturatedClassDoesNotHoldSchedulerSlots() {
+        List<Disposable> diaryCalls = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            diaryCalls.add(aiServerService.requestDiaryGeneration(new AiDiaryGenerateRequestDto())
+                    .contextWrite(AiWorkScheduler.context(Priority.INTERACTIVE, (long) i))
+                    .subscribe(response -> { }, error -> { }));
+        }
+
+        // 일기 하나만 실행 중이고 나머지 둘은 상한에서 기다린다. 스케줄러 자리는 하나만 쓴다.
+        assertThat(diaryLimiter.getInFlight()).isEqualTo(1);
+        assertThat(diaryLimiter.getQueued()).isEqualTo(2);
+        assertThat(scheduler.getRunning()).isEqualTo(1);
+
+        AiBatchScoringResponseDto response = aiServerService
+                .requestBatchScoring(new AiBatchScoringRequestDto(Collections.emptyList()))
+                .contextWrite(AiWorkScheduler.context(Priority.BACKGROUND, 99L))
+                .block(Duration.ofSeconds(2));
+
+        assertThat(response).isNotNull();
+        assertThat(response.getResults()).isEmpty();
+
+        diaryCalls.forEach(Disposable::dispose);
+        assertThat(scheduler.getRunning()).isZero();
+        assertThat(diaryLimiter.getInFlight()).isZero();
+        assertThat(diaryLimiter.getQueued()).isZero();
+    }
+}
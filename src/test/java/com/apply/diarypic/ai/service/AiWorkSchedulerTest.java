@@ -0,0 +1,93 @@
+package com.apply.diarypic.ai.service;
+
+import com.apply.diarypic.ai.service.AiWorkScheduler.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 동시 실행 1개로 두고 자리를 막아 둔 채 호출을 쌓은 뒤, 자리를 풀었을 때 실행되는 순서를 본다.
+ */
+class AiWorkSchedulerTest {
+
+    private AiWorkScheduler scheduler;
+    private Sinks.Empty<Void> blocker;
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new AiWorkScheduler(new SimpleMeterRegistry(), 1, 3, Duration.ofSeconds(10), 8, 4, 1);
+        blocker = Sinks.empty();
+        scheduler.schedule(blocker.asMono()).subscribe();
+        assertThat(scheduler.getRunning()).isEqualTo(1);
+    }
+
+    @Test
+    void usersWithinPriorityTakeTurns() {
+        submit("a1", Priority.BACKGROUND, 1L);
+        submit("a2", Priority.BACKGROUND, 1L);
+        submit("b1", Priority.BACKGROUND, 2L);
+
+        blocker.tryEmitEmpty();
+
+        // 사용자 1 이 먼저 두 개를 쌓아도 사용자 2 의 첫 호출이 그 사이에 끼어든다.
+        assertThat(executed).containsExactly("a1", "b1", "a2");
+        assertThat(scheduler.getRunning()).isZero();
+    }
+
+    @Test
+    void higherWeightRunsFirst() {
+        submit("background", Priority.BACKGROUND, 1L);
+        submit("scoring", Priority.SCORING, 1L);
+        submit("interactive", Priority.INTERACTIVE, 1L);
+
+        blocker.tryEmitEmpty();
+
+        assertThat(executed).containsExactly("interactive", "scoring", "background");
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() {
+        submit("a1", Priority.BACKGROUND, 1L);
+        submit("a2", Priority.BACKGROUND, 1L);
+        submit("a3", Priority.BACKGROUND, 1L);
+
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        scheduler.schedule(Mono.fromRunnable(() -> executed.add("overflow")))
+                .contextWrite(AiWorkScheduler.context(Priority.INTERACTIVE, 2L))
+                .subscribe(null, error::set);
+
+        assertThat(error.get()).isInstanceOf(AiServerUnavailableException.class);
+        blocker.tryEmitEmpty();
+        assertThat(executed).containsExactly("a1", "a2", "a3");
+    }
+
+    @Test
+    void cancelledTicketIsSkipped() {
+        submit("a1", Priority.BACKGROUND, 1L);
+        scheduler.schedule(Mono.fromRunnable(() -> executed.add("cancelled")))
+                .contextWrite(AiWorkScheduler.context(Priority.INTERACTIVE, 2L))
+                .subscribe()
+                .dispose();
+
+        blocker.tryEmitEmpty();
+
+        assertThat(executed).containsExactly("a1");
+        assertThat(scheduler.getRunning()).isZero();
+    }
+
+    private void submit(String name, Priority priority, Long userId) {
+        scheduler.schedule(Mono.fromRunnable(() -> executed.add(name)))
+                .contextWrite(AiWorkScheduler.context(priority, userId))
+                .subscribe();
+    }
+}
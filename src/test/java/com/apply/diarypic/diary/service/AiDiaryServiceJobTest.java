@@ -0,0 +1,103 @@
+package com.apply.diarypic.diary.service;
+
+import com.apply.diarypic.ai.service.AiServerService;
+import com.apply.diarypic.ai.service.AiServerUnavailableException;
+import com.apply.diarypic.diary.entity.AiDiaryJob;
+import com.apply.diarypic.diary.repository.AiDiaryJobRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AiDiaryServiceJobTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Long JOB_ID = 10L;
+
+    @Mock
+    private DiaryService diaryService;
+    @Mock
+    private AiServerService aiServerService;
+    @Mock
+    private AiDiaryJobRepository aiDiaryJobRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Runnable> executed = new ArrayList<>();
+    private AiDiaryService aiDiaryService;
+
+    @BeforeEach
+    void setUp() {
+        aiDiaryService = new AiDiaryService(diaryService, aiServerService, aiDiaryJobRepository,
+                new ObjectMapper(), transactionManager, executed::add);
+        ReflectionTestUtils.setField(aiDiaryService, "pendingGrace", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(aiDiaryService, "staleTimeout", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(aiDiaryService, "maxAttempts", 3);
+    }
+
+    @Test
+    void queuedJobIsNotDispatchedAgain() {
+        when(aiDiaryJobRepository.findStalledJobIds(any(), any())).thenReturn(List.of(JOB_ID));
+
+        assertThat(aiDiaryService.resubmitStalledJobs()).isEqualTo(1);
+        assertThat(aiDiaryService.resubmitStalledJobs()).isZero();
+        assertThat(executed).hasSize(1);
+    }
+
+    @Test
+    void unavailableAiServerRequeuesJob() {
+        runWithAiFailure(1);
+
+        verify(aiDiaryJobRepository).requeue(eq(JOB_ID), eq(1), anyString(), any());
+        verify(aiDiaryJobRepository, never()).markFailed(any(), anyInt(), anyString(), any());
+        verify(aiDiaryJobRepository, never()).markSucceeded(any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void lastAttemptFailsJob() {
+        runWithAiFailure(3);
+
+        verify(aiDiaryJobRepository).markFailed(eq(JOB_ID), eq(3), anyString(), any());
+        verify(aiDiaryJobRepository, never()).requeue(any(), anyInt(), anyString(), any());
+        verify(aiDiaryJobRepository, never()).markSucceeded(any(), anyInt(), any(), any());
+    }
+
+    private void runWithAiFailure(int attempt) {
+        AiDiaryJob job = AiDiaryJob.builder()
+                .id(JOB_ID)
+                .userId(USER_ID)
+                .type(AiDiaryJob.Type.CREATE)
+                .status(AiDiaryJob.Status.RUNNING)
+                .requestPayload("{}")
+                .attempts(attempt)
+                .build();
+        when(aiDiaryJobRepository.findStalledJobIds(any(), any())).thenReturn(List.of(JOB_ID));
+        when(aiDiaryJobRepository.claim(eq(JOB_ID), any(), any())).thenReturn(1);
+        when(aiDiaryJobRepository.findById(JOB_ID)).thenReturn(Optional.of(job));
+        when(aiServerService.requestDiaryGeneration(any()))
+                .thenReturn(Mono.error(new AiServerUnavailableException("AI 서버 오류로 일기를 생성할 수 없습니다.")));
+
+        aiDiaryService.resubmitStalledJobs();
+        executed.forEach(Runnable::run);
+    }
+}
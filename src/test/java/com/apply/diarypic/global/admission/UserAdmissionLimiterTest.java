@@ -0,0 +1,97 @@
+package com.apply.diarypic.global.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserAdmissionLimiterTest {
+
+    private static final Long USER = 1L;
+    private static final Long OTHER_USER = 2L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UserAdmissionLimiter limiter(int maxRequests, long maxBytes, Duration queueTimeout) {
+        return new UserAdmissionLimiter("test", maxRequests, maxBytes, queueTimeout, meterRegistry);
+    }
+
+    @Test
+    void rejectsBeyondRequestLimitPerUser() {
+        UserAdmissionLimiter limiter = limiter(2, 1000, Duration.ZERO);
+
+        assertThat(limiter.acquire(USER, 1)).isNotNull();
+        assertThat(limiter.acquire(USER, 1)).isNotNull();
+        assertThat(limiter.acquire(USER, 1)).isNull();
+        // 다른 사용자는 영향을 받지 않는다.
+        assertThat(limiter.acquire(OTHER_USER, 1)).isNotNull();
+
+        assertThat(meterRegistry.get("diarypic.admission.rejections").tag("reason", "requests").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void rejectsBeyondByteLimit() {
+        UserAdmissionLimiter limiter = limiter(10, 1000, Duration.ZERO);
+
+        assertThat(limiter.acquire(USER, 600)).isNotNull();
+        assertThat(limiter.acquire(USER, 600)).isNull();
+        assertThat(limiter.acquire(USER, 400)).isNotNull();
+
+        assertThat(meterRegistry.get("diarypic.admission.rejections").tag("reason", "bytes").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void admitsOneOversizedRequestWhenIdle() {
+        UserAdmissionLimiter limiter = limiter(10, 1000, Duration.ZERO);
+
+        UserAdmissionLimiter.Permit permit = limiter.acquire(USER, 5000);
+        assertThat(permit).isNotNull();
+        assertThat(limiter.acquire(USER, 1)).isNull();
+
+        permit.release();
+        assertThat(limiter.acquire(USER, 1)).isNotNull();
+    }
+
+    @Test
+    void releaseIsIdempotentAndForgetsIdleUser() {
+        UserAdmissionLimiter limiter = limiter(1, 1000, Duration.ZERO);
+
+        UserAdmissionLimiter.Permit permit = limiter.acquire(USER, 100);
+        permit.release();
+        permit.release();
+
+        assertThat(meterRegistry.get("diarypic.admission.active.users").gauge().value()).isZero();
+        UserAdmissionLimiter.Permit next = limiter.acquire(USER, 100);
+        assertThat(next).isNotNull();
+        // 두 번째 release 가 한 번 더 반영되었다면 상한 1 을 넘겨 여기서도 받았을 것이다.
+        assertThat(limiter.acquire(USER, 100)).isNull();
+    }
+
+    @Test
+    void waitsForReleaseWithinQueueTimeout() throws Exception {
+        UserAdmissionLimiter limiter = limiter(1, 1000, Duration.ofSeconds(2));
+        UserAdmissionLimiter.Permit held = limiter.acquire(USER, 100);
+
+        CompletableFuture<UserAdmissionLimiter.Permit> waiting = CompletableFuture.supplyAsync(() -> limiter.acquire(USER, 100));
+        Thread.sleep(50);
+        held.release();
+
+        assertThat(waiting.get(2, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    void givesUpAfterQueueTimeout() {
+        UserAdmissionLimiter limiter = limiter(1, 1000, Duration.ofMillis(30));
+        limiter.acquire(USER, 100);
+
+        long start = System.nanoTime();
+        assertThat(limiter.acquire(USER, 100)).isNull();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(30));
+    }
+}
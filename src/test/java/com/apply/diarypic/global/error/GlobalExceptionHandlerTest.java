@@ -0,0 +1,82 @@
+package com.apply.diarypic.global.error;
+
+import com.apply.diarypic.ai.service.AiServerUnavailableException;
+import com.apply.diarypic.photo.service.ResumableUploadStateException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void illegalArgumentIsBadRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/photos/upload-sessions/confirm");
+
+        ResponseEntity<Object> response = handler.handleIllegalArgumentException(
+                new IllegalArgumentException("업로드 세션에서 발급된 objectKey가 아닙니다: x"), new ServletWebRequest(request));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertThat(body).containsEntry("status", 400)
+                .containsEntry("message", "업로드 세션에서 발급된 objectKey가 아닙니다: x")
+                .containsEntry("path", "/api/photos/upload-sessions/confirm");
+    }
+
+    @Test
+    void unavailableAiServerIsServiceUnavailableWithRetryAfter() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/diaries/auto");
+
+        ResponseEntity<Object> response = handler.handleAiServerUnavailableException(
+                new AiServerUnavailableException("AI 서버 오류로 일기를 생성할 수 없습니다.", Duration.ofSeconds(12), false, null),
+                new ServletWebRequest(request));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("12");
+    }
+
+    @Test
+    void throttledAiServerIsTooManyRequests() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/diaries/auto");
+
+        ResponseEntity<Object> response = handler.handleAiServerUnavailableException(
+                new AiServerUnavailableException("AI 서버 오류로 일기를 생성할 수 없습니다.", Duration.ZERO, true, null),
+                new ServletWebRequest(request));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
+    @Test
+    void expiredResumableUploadIsGone() {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/photos/resumable-uploads/7");
+
+        ResponseEntity<Object> response = handler.handleResumableUploadStateException(
+                new ResumableUploadStateException("만료된 업로드 세션입니다. uploadId: 7", true), new ServletWebRequest(request));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.GONE);
+    }
+
+    @Test
+    void incompleteResumableUploadIsConflict() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/photos/resumable-uploads/7/complete");
+
+        ResponseEntity<Object> response = handler.handleResumableUploadStateException(
+                new ResumableUploadStateException("아직 받지 못한 청크가 있습니다. 받은 크기: 0 / 10", false), new ServletWebRequest(request));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertThat(body).containsEntry("status", 409);
+    }
+}
@@ -0,0 +1,35 @@
+package com.apply.diarypic.global.geocoding;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GeoHashTest {
+
+    @Test
+    void encodesKnownCoordinates() {
+        assertThat(GeoHash.encode(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");
+        assertThat(GeoHash.encode(42.6, -5.6, 5)).isEqualTo("ezs42");
+        assertThat(GeoHash.encode(0, 0, 1)).isEqualTo("s");
+    }
+
+    @Test
+    void lowerPrecisionIsPrefix() {
+        String fine = GeoHash.encode(37.5665, 126.9780, 8);
+
+        assertThat(GeoHash.encode(37.5665, 126.9780, 6)).isEqualTo(fine.substring(0, 6));
+    }
+
+    @Test
+    void nearbyPointsShareCell() {
+        // 약 10m 떨어진 두 지점
+        assertThat(GeoHash.encode(37.56650, 126.97800, 6)).isEqualTo(GeoHash.encode(37.56659, 126.97805, 6));
+    }
+
+    @Test
+    void rejectsPrecisionOutOfRange() {
+        assertThatThrownBy(() -> GeoHash.encode(0, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> GeoHash.encode(0, 0, 13)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
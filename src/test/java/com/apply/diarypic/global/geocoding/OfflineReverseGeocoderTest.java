@@ -0,0 +1,67 @@
+package com.apply.diarypic.global.geocoding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfflineReverseGeocoderTest {
+
+    private OfflineReverseGeocoder geocoder(String boundaries) {
+        OfflineReverseGeocoder geocoder = new OfflineReverseGeocoder(new DefaultResourceLoader(), new ObjectMapper());
+        ReflectionTestUtils.setField(geocoder, "boundariesLocation", boundaries);
+        ReflectionTestUtils.setField(geocoder, "cellDegrees", 0.05);
+        ReflectionTestUtils.setField(geocoder, "defaultCountry", "대한민국");
+        ReflectionTestUtils.setField(geocoder, "countryProperty", "country");
+        ReflectionTestUtils.setField(geocoder, "adminAreaLevel1Property", "adminAreaLevel1");
+        ReflectionTestUtils.setField(geocoder, "localityProperty", "locality");
+        geocoder.load();
+        return geocoder;
+    }
+
+    @Test
+    void smallestContainingRegionWins() {
+        OfflineReverseGeocoder geocoder = geocoder("classpath:geo/test-boundaries.geojson");
+
+        GeocodingService.ParsedAddress address = geocoder.lookup(37.5, 127.5);
+
+        assertThat(address.getLocality()).isEqualTo("안쪽시");
+        assertThat(address.getCountryName()).isEqualTo("대한민국");
+        assertThat(address.getFormattedAddress()).isEqualTo("대한민국 테스트도 안쪽시");
+    }
+
+    @Test
+    void holeFallsBackToEnclosingRegion() {
+        OfflineReverseGeocoder geocoder = geocoder("classpath:geo/test-boundaries.geojson");
+
+        GeocodingService.ParsedAddress address = geocoder.lookup(37.35, 127.35);
+
+        assertThat(address.getAdminAreaLevel1()).isEqualTo("테스트도");
+        assertThat(address.getLocality()).isNull();
+    }
+
+    @Test
+    void multiPolygonPartsAndCountryPropertyAreUsed() {
+        OfflineReverseGeocoder geocoder = geocoder("classpath:geo/test-boundaries.geojson");
+
+        assertThat(geocoder.lookup(33.05, 131.05).getCountryName()).isEqualTo("테스트국");
+        assertThat(geocoder.lookup(33.05, 130.5)).isNull();
+    }
+
+    @Test
+    void outsideCoverageIsNull() {
+        OfflineReverseGeocoder geocoder = geocoder("classpath:geo/test-boundaries.geojson");
+
+        assertThat(geocoder.lookup(35.0, 129.0)).isNull();
+    }
+
+    @Test
+    void missingFileDisablesLookup() {
+        OfflineReverseGeocoder geocoder = geocoder("classpath:geo/missing.geojson");
+
+        assertThat(geocoder.isLoaded()).isFalse();
+        assertThat(geocoder.lookup(37.5, 127.5)).isNull();
+    }
+}
@@ -0,0 +1,118 @@
+package com.apply.diarypic.global.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final Long USER_ID = 7L;
+    private static final String KEY = "key-1";
+    private static final String HASH = "a".repeat(64);
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(repository, new SimpleMeterRegistry(),
+                Duration.ofHours(24), Duration.ofMinutes(5));
+    }
+
+    @Test
+    void firstRequestExecutes() {
+        when(repository.findByUserIdAndIdempotencyKey(USER_ID, KEY)).thenReturn(Optional.empty());
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        IdempotencyService.Decision decision = idempotencyService.begin(USER_ID, KEY, HASH, true);
+
+        assertThat(decision.outcome()).isEqualTo(IdempotencyService.Outcome.EXECUTE);
+        assertThat(decision.record().getRequestHash()).isEqualTo(HASH);
+    }
+
+    @Test
+    void inFlightKeyConflictsWithoutWaiting() {
+        when(repository.findByUserIdAndIdempotencyKey(USER_ID, KEY))
+                .thenReturn(Optional.of(record(IdempotencyRecord.Status.IN_PROGRESS, HASH, LocalDateTime.now())));
+
+        IdempotencyService.Decision decision = idempotencyService.begin(USER_ID, KEY, HASH, true);
+
+        assertThat(decision.outcome()).isEqualTo(IdempotencyService.Outcome.CONFLICT);
+        verify(repository, never()).takeOver(any(), any(), any(), any());
+    }
+
+    @Test
+    void staleInFlightKeyIsTakenOver() {
+        when(repository.findByUserIdAndIdempotencyKey(USER_ID, KEY))
+                .thenReturn(Optional.of(record(IdempotencyRecord.Status.IN_PROGRESS, HASH, LocalDateTime.now().minusMinutes(10))));
+        when(repository.takeOver(eq(1L), any(), any(), any())).thenReturn(1);
+
+        assertThat(idempotencyService.begin(USER_ID, KEY, HASH, true).outcome())
+                .isEqualTo(IdempotencyService.Outcome.EXECUTE);
+    }
+
+    @Test
+    void completedKeyReplaysOnlySameRequest() {
+        when(repository.findByUserIdAndIdempotencyKey(USER_ID, KEY))
+                .thenReturn(Optional.of(record(IdempotencyRecord.Status.COMPLETED, HASH, LocalDateTime.now())));
+
+        assertThat(idempotencyService.begin(USER_ID, KEY, HASH, true).outcome())
+                .isEqualTo(IdempotencyService.Outcome.REPLAY);
+        assertThat(idempotencyService.begin(USER_ID, KEY, "b".repeat(64), true).outcome())
+                .isEqualTo(IdempotencyService.Outcome.MISMATCH);
+    }
+
+    @Test
+    void unhashedRequestVerifiesCompletedKey() {
+        IdempotencyRecord completed = record(IdempotencyRecord.Status.COMPLETED, HASH, LocalDateTime.now());
+        when(repository.findByUserIdAndIdempotencyKey(USER_ID, KEY)).thenReturn(Optional.of(completed));
+
+        IdempotencyService.Decision decision = idempotencyService.begin(USER_ID, KEY, "provisional", false);
+
+        assertThat(decision.outcome()).isEqualTo(IdempotencyService.Outcome.VERIFY);
+        assertThat(idempotencyService.verify(completed, HASH).outcome()).isEqualTo(IdempotencyService.Outcome.REPLAY);
+        assertThat(idempotencyService.verify(completed, "b".repeat(64)).outcome()).isEqualTo(IdempotencyService.Outcome.MISMATCH);
+    }
+
+    @Test
+    void expiredKeyIsDeletedAndExecutedAgain() {
+        IdempotencyRecord expired = record(IdempotencyRecord.Status.COMPLETED, HASH, LocalDateTime.now().minusDays(2));
+        expired.setExpiresAt(LocalDateTime.now().minusDays(1));
+        when(repository.findByUserIdAndIdempotencyKey(USER_ID, KEY))
+                .thenReturn(Optional.of(expired), Optional.empty());
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThat(idempotencyService.begin(USER_ID, KEY, HASH, true).outcome())
+                .isEqualTo(IdempotencyService.Outcome.EXECUTE);
+        verify(repository).deleteIfExpired(eq(1L), any());
+    }
+
+    private static IdempotencyRecord record(IdempotencyRecord.Status status, String requestHash, LocalDateTime updatedAt) {
+        return IdempotencyRecord.builder()
+                .id(1L)
+                .userId(USER_ID)
+                .idempotencyKey(KEY)
+                .requestHash(requestHash)
+                .status(status)
+                .updatedAt(updatedAt)
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+}
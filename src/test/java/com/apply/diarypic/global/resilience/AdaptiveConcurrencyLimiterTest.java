@@ -0,0 +1,122 @@
+package com.apply.diarypic.global.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit, int maxLimit, Duration maxWait) {
+        return new AdaptiveConcurrencyLimiter("test", initialLimit, 1, maxLimit, 2.0, 0.5, 1000, maxWait,
+                meterRegistry);
+    }
+
+    @Test
+    void fastResponsesRaiseLimitAdditively() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 10, Duration.ofSeconds(10));
+
+        // 호출마다 1/상한 씩 올라 2 -> 2.5 -> 2.9 -> 3.24
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire().block();
+            limiter.onSuccess(RTT);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(3);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void slowResponseCutsLimitMultiplicatively() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8, 10, Duration.ofSeconds(10));
+        limiter.acquire().block();
+        limiter.onSuccess(RTT); // 무부하 응답 시간 기준
+
+        limiter.acquire().block();
+        limiter.onSuccess(RTT * 3); // tolerance(2배) 초과
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void droppedCallCutsLimitOnlyOncePerRtt() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8, 10, Duration.ofSeconds(10));
+        limiter.acquire().block();
+        limiter.onSuccess(TimeUnit.SECONDS.toNanos(10));
+
+        limiter.acquire().block();
+        limiter.acquire().block();
+        limiter.onDropped();
+        limiter.onDropped(); // 같은 혼잡으로 몰려 온 실패
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void limitNeverDropsBelowMinimum() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 10, Duration.ofSeconds(10));
+        limiter.acquire().block();
+        limiter.onDropped();
+
+        assertThat(limiter.getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    void waitersAreGrantedInArrivalOrder() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, Duration.ofSeconds(10));
+        limiter.acquire().block();
+
+        AtomicBoolean first = new AtomicBoolean();
+        AtomicBoolean second = new AtomicBoolean();
+        limiter.acquire().subscribe(grantedAt -> first.set(true));
+        limiter.acquire().subscribe(grantedAt -> second.set(true));
+        assertThat(limiter.getQueued()).isEqualTo(2);
+
+        limiter.onIgnored();
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+
+        limiter.onIgnored();
+        assertThat(second).isTrue();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void cancelledWaiterLeavesQueue() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, Duration.ofSeconds(10));
+        limiter.acquire().block();
+
+        Disposable waiting = limiter.acquire().subscribe();
+        waiting.dispose();
+        assertThat(limiter.getQueued()).isZero();
+
+        limiter.onIgnored();
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void waiterTimesOut() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, Duration.ofMillis(50));
+        limiter.acquire().block();
+
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        limiter.acquire().subscribe(grantedAt -> { }, error::set);
+        Thread.sleep(300);
+
+        assertThat(error.get()).isInstanceOf(TimeoutException.class);
+        assertThat(limiter.getQueued()).isZero();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(meterRegistry.get("diarypic.concurrency.rejected").tag("name", "test").counter().count()).isEqualTo(1.0);
+    }
+}
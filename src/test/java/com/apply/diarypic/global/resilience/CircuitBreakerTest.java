@@ -0,0 +1,101 @@
+package com.apply.diarypic.global.resilience;
+
+import com.apply.diarypic.global.resilience.CircuitBreaker.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofMillis(50);
+
+    // 최근 4회 중 2회 이상 기록되고 실패율 50% 이상이면 연다.
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 4, 2, 50, OPEN_DURATION, new SimpleMeterRegistry());
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        call(false);
+
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.getRemainingOpen()).isZero();
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        call(true);
+        call(false);
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.getRemainingOpen()).isPositive();
+    }
+
+    @Test
+    void oldCallsLeaveTheWindow() {
+        call(false);
+        call(false);
+        call(false);
+        call(true);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED); // 1/4
+
+        // 창이 4 라서 가장 오래된 성공이 밀려나 2/4 가 된다 (누적이면 2/5).
+        call(true);
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void halfOpenAllowsSingleProbeAndClosesOnSuccess() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() * 2);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void failedProbeReopens() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() * 2);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void ignoredProbeAllowsAnotherProbe() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() * 2);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onIgnored();
+
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    private void open() {
+        call(true);
+        call(true);
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    private void call(boolean fail) {
+        assertThat(breaker.tryAcquire()).isTrue();
+        if (fail) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+}
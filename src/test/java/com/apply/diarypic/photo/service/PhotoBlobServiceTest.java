@@ -0,0 +1,144 @@
+package com.apply.diarypic.photo.service;
+
+import com.apply.diarypic.global.s3.S3Uploader;
+import com.apply.diarypic.photo.entity.DiaryPhoto;
+import com.apply.diarypic.photo.entity.PhotoBlob;
+import com.apply.diarypic.photo.repository.PhotoBlobRepository;
+import com.apply.diarypic.photo.repository.PhotoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PhotoBlobServiceTest {
+
+    private static final Long USER_ID = 3L;
+    private static final String HASH = "a".repeat(64);
+
+    @Mock
+    private PhotoBlobRepository photoBlobRepository;
+    @Mock
+    private PhotoRepository photoRepository;
+    @Mock
+    private S3Uploader s3Uploader;
+
+    private PhotoBlobService photoBlobService;
+
+    @BeforeEach
+    void setUp() {
+        photoBlobService = new PhotoBlobService(photoBlobRepository, photoRepository, s3Uploader);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void contentHashOfAcceptsNewAndLegacyKeys() {
+        String newKey = PhotoBlobService.newContentKey(USER_ID, HASH);
+
+        assertThat(newKey).startsWith("photos/3/sha256/" + HASH + "/");
+        assertThat(PhotoBlobService.contentHashOf(USER_ID, newKey)).isEqualTo(HASH);
+        assertThat(PhotoBlobService.contentHashOf(USER_ID, "photos/3/sha256/" + HASH)).isEqualTo(HASH);
+    }
+
+    @Test
+    void contentHashOfRejectsForeignOrMalformedKeys() {
+        assertThat(PhotoBlobService.contentHashOf(USER_ID, "photos/4/sha256/" + HASH)).isNull();
+        assertThat(PhotoBlobService.contentHashOf(USER_ID, "photos/3/uuid")).isNull();
+        assertThat(PhotoBlobService.contentHashOf(USER_ID, "photos/3/sha256/xyz/uuid")).isNull();
+        assertThat(PhotoBlobService.contentHashOf(USER_ID, "photos/3/sha256/" + HASH + "/a/b")).isNull();
+    }
+
+    @Test
+    void acquireFailsWhenLastReferenceWasReleased() {
+        when(photoBlobRepository.addReferences(USER_ID, HASH, 1)).thenReturn(0);
+
+        assertThat(photoBlobService.acquire(USER_ID, HASH)).isEmpty();
+        verify(photoBlobRepository, never()).findByUserIdAndContentHash(any(), anyString());
+    }
+
+    @Test
+    void registerReusesExistingBlob() {
+        PhotoBlob existing = blob("photos/3/sha256/" + HASH + "/old", 2);
+        when(photoBlobRepository.addReferences(USER_ID, HASH, 1)).thenReturn(1);
+        when(photoBlobRepository.findByUserIdAndContentHash(USER_ID, HASH)).thenReturn(Optional.of(existing));
+
+        PhotoBlob registered = photoBlobService.register(USER_ID, HASH, "photos/3/new", "image/jpeg", 10L);
+
+        assertThat(registered).isSameAs(existing);
+        verify(photoBlobRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void registerCreatesBlobWithOneReference() {
+        when(photoBlobRepository.addReferences(USER_ID, HASH, 1)).thenReturn(0);
+        when(photoBlobRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        PhotoBlob registered = photoBlobService.register(USER_ID, HASH, "photos/3/new", "image/jpeg", 10L);
+
+        assertThat(registered.getObjectKey()).isEqualTo("photos/3/new");
+        assertThat(registered.getRefCount()).isEqualTo(1);
+    }
+
+    @Test
+    void releaseKeepsObjectWhileReferenced() {
+        when(photoBlobRepository.findForUpdate(USER_ID, HASH)).thenReturn(Optional.of(blob("photos/3/k", 2)));
+
+        photoBlobService.release(photo("https://bucket/photos/3/k"));
+
+        verify(photoBlobRepository, never()).delete(any());
+        verify(s3Uploader, never()).delete(anyString());
+    }
+
+    @Test
+    void releaseDeletesObjectOnlyAfterCommit() {
+        PhotoBlob last = blob("photos/3/k", 1);
+        when(photoBlobRepository.findForUpdate(USER_ID, HASH)).thenReturn(Optional.of(last));
+        TransactionSynchronizationManager.initSynchronization();
+
+        photoBlobService.release(photo("https://bucket/photos/3/k"));
+
+        verify(photoBlobRepository).delete(last);
+        verify(s3Uploader, never()).delete(anyString());
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        verify(s3Uploader).delete("https://bucket/photos/3/k");
+    }
+
+    private static PhotoBlob blob(String objectKey, int refCount) {
+        return PhotoBlob.builder()
+                .userId(USER_ID)
+                .contentHash(HASH)
+                .objectKey(objectKey)
+                .refCount(refCount)
+                .build();
+    }
+
+    private static DiaryPhoto photo(String photoUrl) {
+        return DiaryPhoto.builder()
+                .userId(USER_ID)
+                .contentHash(HASH)
+                .photoUrl(photoUrl)
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.apply.diarypic.photo.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PhotoDiversitySelectorTest {
+
+    // 2차원 임베딩: 0 과 1 은 같은 장면, 2 는 다른 장면
+    private static final float[] EMBEDDINGS = {
+            1f, 0f,
+            1f, 0f,
+            0f, 1f
+    };
+    private static final double[] RELEVANCE = {0.9, 0.85, 0.6};
+
+    @Test
+    void lambdaOneIsPlainRelevanceOrder() {
+        int[] picked = PhotoDiversitySelector.select(RELEVANCE, EMBEDDINGS, 2, new int[0], 2, 1.0);
+
+        assertThat(picked).containsExactly(0, 1);
+    }
+
+    @Test
+    void nearDuplicateIsPenalized() {
+        int[] picked = PhotoDiversitySelector.select(RELEVANCE, EMBEDDINGS, 2, new int[0], 2, 0.5);
+
+        assertThat(picked).containsExactly(0, 2);
+    }
+
+    @Test
+    void seedsCountAsSelectedButAreNotReturned() {
+        int[] picked = PhotoDiversitySelector.select(RELEVANCE, EMBEDDINGS, 2, new int[]{0}, 1, 0.5);
+
+        assertThat(picked).containsExactly(2);
+    }
+
+    @Test
+    void returnsFewerWhenCandidatesRunOut() {
+        int[] picked = PhotoDiversitySelector.select(RELEVANCE, EMBEDDINGS, 2, new int[]{0}, 5, 0.7);
+
+        assertThat(picked).hasSize(2).doesNotContain(0);
+    }
+
+    @Test
+    void missingEmbeddingsFallBackToRelevance() {
+        float[] empty = new float[RELEVANCE.length * 2];
+
+        int[] picked = PhotoDiversitySelector.select(RELEVANCE, empty, 2, new int[0], 3, 0.5);
+
+        assertThat(picked).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void dotOfUnitRows() {
+        assertThat(PhotoDiversitySelector.dot(EMBEDDINGS, 2, 0, 1)).isEqualTo(1.0);
+        assertThat(PhotoDiversitySelector.dot(EMBEDDINGS, 2, 0, 2)).isEqualTo(0.0);
+    }
+}
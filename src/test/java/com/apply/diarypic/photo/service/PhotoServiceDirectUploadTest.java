@@ -0,0 +1,226 @@
+package com.apply.diarypic.photo.service;
+
+import com.apply.diarypic.global.geocoding.GeocodingService;
+import com.apply.diarypic.global.s3.S3Uploader;
+import com.apply.diarypic.photo.dto.PhotoResponse;
+import com.apply.diarypic.photo.dto.PhotoUploadConfirmRequest;
+import com.apply.diarypic.photo.dto.PhotoUploadItemDto;
+import com.apply.diarypic.photo.dto.PhotoUploadSessionRequest;
+import com.apply.diarypic.photo.dto.PhotoUploadSessionResponse;
+import com.apply.diarypic.photo.entity.DiaryPhoto;
+import com.apply.diarypic.photo.repository.PhotoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * presigned 직접 업로드 세션 발급과 확정. S3 는 S3Uploader 목으로 대신한다.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PhotoServiceDirectUploadTest {
+
+    private static final Long USER_ID = 7L;
+
+    @Mock
+    private S3Uploader s3Uploader;
+    @Mock
+    private PhotoRepository photoRepository;
+    @Mock
+    private GeocodingService geocodingService;
+    @Mock
+    private PhotoDerivativeService photoDerivativeService;
+    @Mock
+    private PhotoEmbeddingService photoEmbeddingService;
+    @Mock
+    private SpeculativeRecommendationService speculativeRecommendationService;
+    @Mock
+    private PhotoBlobService photoBlobService;
+    @Mock
+    private PhotoExifExtractor photoExifExtractor;
+
+    private PhotoService photoService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        photoService = new PhotoService(s3Uploader, photoRepository, geocodingService, photoDerivativeService,
+                photoEmbeddingService, speculativeRecommendationService, photoBlobService, photoExifExtractor,
+                new ObjectMapper(), Runnable::run);
+        ReflectionTestUtils.setField(photoService, "directUploadExpiration", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(photoService, "maxFileSize", DataSize.ofMegabytes(10));
+
+        when(s3Uploader.getS3Url(anyString())).thenAnswer(invocation -> "https://bucket/" + invocation.getArgument(0));
+        when(s3Uploader.createObjectKey("photos/" + USER_ID)).thenReturn("photos/7/uuid-1");
+        when(s3Uploader.createPresignedPutUrl(anyString(), anyString(), any(), any(), any(Duration.class)))
+                .thenReturn(new URL("https://bucket/presigned"));
+        when(photoBlobService.findAll(any(), any())).thenReturn(Collections.emptyMap());
+    }
+
+    @Test
+    void createUploadSessionIssuesUrlPerFile() {
+        PhotoUploadSessionRequest request = new PhotoUploadSessionRequest(List.of(
+                new PhotoUploadSessionRequest.FileSpec("image/jpeg", null, null)));
+
+        PhotoUploadSessionResponse response = photoService.createUploadSession(USER_ID, request);
+
+        assertThat(response.getUploads()).hasSize(1);
+        PhotoUploadSessionResponse.PresignedUpload upload = response.getUploads().get(0);
+        assertThat(upload.getObjectKey()).isEqualTo("photos/7/uuid-1");
+        assertThat(upload.getUploadUrl()).isEqualTo("https://bucket/presigned");
+        assertThat(upload.isAlreadyUploaded()).isFalse();
+        assertThat(response.getExpiresAt()).isNotNull();
+    }
+
+    @Test
+    void createUploadSessionRejectsNonImage() {
+        PhotoUploadSessionRequest request = new PhotoUploadSessionRequest(List.of(
+                new PhotoUploadSessionRequest.FileSpec("application/pdf", null, null)));
+
+        assertThatThrownBy(() -> photoService.createUploadSession(USER_ID, request))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void createUploadSessionRejectsMalformedHash() {
+        PhotoUploadSessionRequest request = new PhotoUploadSessionRequest(List.of(
+                new PhotoUploadSessionRequest.FileSpec("image/jpeg", "not-a-hash", null)));
+
+        assertThatThrownBy(() -> photoService.createUploadSession(USER_ID, request))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void confirmRejectsKeyOfAnotherUser() {
+        PhotoUploadConfirmRequest request = new PhotoUploadConfirmRequest(List.of(
+                new PhotoUploadConfirmRequest.ConfirmItem("photos/8/uuid-1", null)));
+
+        assertThatThrownBy(() -> photoService.confirmDirectUploads(USER_ID, request))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(s3Uploader, never()).head(anyString());
+    }
+
+    @Test
+    void createUploadSessionSignsDeclaredLength() {
+        PhotoUploadSessionRequest request = new PhotoUploadSessionRequest(List.of(
+                new PhotoUploadSessionRequest.FileSpec("image/jpeg", null, 2048L)));
+
+        photoService.createUploadSession(USER_ID, request);
+
+        verify(s3Uploader).createPresignedPutUrl(eq("photos/7/uuid-1"), eq("image/jpeg"), isNull(), eq(2048L), any(Duration.class));
+    }
+
+    @Test
+    void createUploadSessionRejectsDeclaredOversize() {
+        PhotoUploadSessionRequest request = new PhotoUploadSessionRequest(List.of(
+                new PhotoUploadSessionRequest.FileSpec("image/jpeg", null, DataSize.ofMegabytes(11).toBytes())));
+
+        assertThatThrownBy(() -> photoService.createUploadSession(USER_ID, request))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void confirmRejectsDuplicateKeys() {
+        PhotoUploadConfirmRequest request = new PhotoUploadConfirmRequest(List.of(
+                new PhotoUploadConfirmRequest.ConfirmItem("photos/7/uuid-1", null),
+                new PhotoUploadConfirmRequest.ConfirmItem("photos/7/uuid-1", null)));
+
+        assertThatThrownBy(() -> photoService.confirmDirectUploads(USER_ID, request))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void confirmReportsObjectMissingFromS3() {
+        when(s3Uploader.head("photos/7/uuid-1")).thenReturn(Optional.empty());
+        PhotoUploadConfirmRequest request = new PhotoUploadConfirmRequest(List.of(
+                new PhotoUploadConfirmRequest.ConfirmItem("photos/7/uuid-1", null)));
+
+        assertThatThrownBy(() -> photoService.confirmDirectUploads(USER_ID, request))
+                .isInstanceOfSatisfying(DirectUploadRejectedException.class, e -> assertThat(e.getFailures())
+                        .extracting(DirectUploadRejectedException.Failure::objectKey)
+                        .containsExactly("photos/7/uuid-1"));
+        verify(photoBlobService, never()).savePhotos(any());
+        verify(s3Uploader, never()).delete(anyString());
+    }
+
+    @Test
+    void confirmRejectsAndDeletesOversizedObject() {
+        when(s3Uploader.head("photos/7/uuid-1")).thenReturn(Optional.of(HeadObjectResponse.builder()
+                .contentType("image/jpeg")
+                .contentLength(DataSize.ofMegabytes(11).toBytes())
+                .build()));
+        when(s3Uploader.head("photos/7/uuid-2")).thenReturn(Optional.of(HeadObjectResponse.builder()
+                .contentType("image/jpeg")
+                .contentLength(1024L)
+                .build()));
+        PhotoUploadConfirmRequest request = new PhotoUploadConfirmRequest(List.of(
+                new PhotoUploadConfirmRequest.ConfirmItem("photos/7/uuid-1", null),
+                new PhotoUploadConfirmRequest.ConfirmItem("photos/7/uuid-2", null)));
+
+        assertThatThrownBy(() -> photoService.confirmDirectUploads(USER_ID, request))
+                .isInstanceOfSatisfying(DirectUploadRejectedException.class, e -> assertThat(e.getFailures())
+                        .extracting(DirectUploadRejectedException.Failure::objectKey)
+                        .containsExactly("photos/7/uuid-1"));
+        verify(s3Uploader).delete("https://bucket/photos/7/uuid-1");
+        verify(s3Uploader, never()).delete("https://bucket/photos/7/uuid-2");
+        verify(photoBlobService, never()).savePhotos(any());
+    }
+
+    @Test
+    void confirmRejectsAndDeletesNonImage() {
+        when(s3Uploader.head("photos/7/uuid-1")).thenReturn(Optional.of(HeadObjectResponse.builder()
+                .contentType("application/pdf")
+                .contentLength(1024L)
+                .build()));
+        PhotoUploadConfirmRequest request = new PhotoUploadConfirmRequest(List.of(
+                new PhotoUploadConfirmRequest.ConfirmItem("photos/7/uuid-1", null)));
+
+        assertThatThrownBy(() -> photoService.confirmDirectUploads(USER_ID, request))
+                .isInstanceOf(DirectUploadRejectedException.class);
+        verify(s3Uploader).delete("https://bucket/photos/7/uuid-1");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void confirmPersistsUploadedObject() {
+        when(s3Uploader.head("photos/7/uuid-1")).thenReturn(Optional.of(HeadObjectResponse.builder()
+                .contentType("image/jpeg")
+                .contentLength(1024L)
+                .build()));
+        when(photoBlobService.savePhotos(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        PhotoUploadConfirmRequest request = new PhotoUploadConfirmRequest(List.of(
+                new PhotoUploadConfirmRequest.ConfirmItem("photos/7/uuid-1", new PhotoUploadItemDto())));
+
+        List<PhotoResponse> responses = photoService.confirmDirectUploads(USER_ID, request);
+
+        assertThat(responses).extracting(PhotoResponse::getPhotoUrl).containsExactly("https://bucket/photos/7/uuid-1");
+        ArgumentCaptor<List<DiaryPhoto>> saved = ArgumentCaptor.forClass(List.class);
+        verify(photoBlobService).savePhotos(saved.capture());
+        assertThat(saved.getValue()).extracting(DiaryPhoto::getUserId).containsExactly(USER_ID);
+        verify(speculativeRecommendationService).onTemporaryPhotosChanged(eq(USER_ID));
+    }
+}